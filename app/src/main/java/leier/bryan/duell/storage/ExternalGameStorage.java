@@ -0,0 +1,70 @@
+package leier.bryan.duell.storage;
+
+import android.os.Environment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import leier.bryan.duell.model.FileGameStorage;
+
+/**
+ * Keeps saved games as files at the top of the device's external storage, where the player can find them.
+ */
+
+public class ExternalGameStorage extends FileGameStorage {
+
+    /**
+     * Default constructor, which keeps saved games in the external storage directory.
+     */
+    public ExternalGameStorage()
+    {
+        super(Environment.getExternalStorageDirectory());
+    }
+
+    @Override
+    public InputStream openInput(String name) throws IOException
+    {
+        // First check to see if the storage is available to read from.
+        if (!isExternalStorageReadable()) throw new IOException("External storage is not readable");
+        return super.openInput(name);
+    }
+
+    @Override
+    public OutputStream openOutput(String name) throws IOException
+    {
+        // First check to see if the storage is available to write to.
+        if (!isExternalStorageWritable()) throw new IOException("External storage is not writable");
+        return super.openOutput(name);
+    }
+
+    @Override
+    public OutputStream openAppend(String name) throws IOException
+    {
+        // First check to see if the storage is available to write to.
+        if (!isExternalStorageWritable()) throw new IOException("External storage is not writable");
+        return super.openAppend(name);
+    }
+
+    /**
+     * determines if external storage is writable
+     * @return a boolean determining if we can write to the device
+     */
+    private boolean isExternalStorageWritable()
+    {
+        String state = Environment.getExternalStorageState();
+        if (Environment.MEDIA_MOUNTED.equals(state)) return true;
+        return false;
+    }
+
+    /**
+     * determines if external storage is readable
+     * @return a boolean determining if we can read from the device
+     */
+    private boolean isExternalStorageReadable()
+    {
+        String state = Environment.getExternalStorageState();
+        if (Environment.MEDIA_MOUNTED.equals(state) || Environment.MEDIA_MOUNTED_READ_ONLY.equals(state)) return true;
+        return false;
+    }
+}
@@ -1,31 +1,81 @@
 package leier.bryan.duell.view;
 
 import android.app.Dialog;
+import android.app.ProgressDialog;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.support.v7.app.AlertDialog;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.view.Window;
 import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import leier.bryan.duell.R;
+import leier.bryan.duell.model.BitBoard;
+import leier.bryan.duell.model.Computer;
+import leier.bryan.duell.model.FileGameStorage;
 import leier.bryan.duell.model.Game;
+import leier.bryan.duell.model.GamePersistence;
+import leier.bryan.duell.model.InvalidSaveException;
+import leier.bryan.duell.model.Move;
+import leier.bryan.duell.model.MoveList;
+import leier.bryan.duell.model.OpeningBook;
+import leier.bryan.duell.model.PositionDatabase;
+import leier.bryan.duell.storage.ExternalGameStorage;
 import leier.bryan.duell.view.MainActivity;
 
 public class StartGameActivity extends AppCompatActivity {
 
     // The game to be played.
-    private Game duellGame = new Game();
+    private Game duellGame = new Game(new ExternalGameStorage());
     // A boolean that determines if the player has clicked on a die to move.
     boolean clickedDie = false;
     // An array containing the coordinates of spaces to change on the board for the human.
     int[] humanMoves = new int[4];
+    // How often the thinking dialog is updated, in milliseconds.
+    private static final long PROGRESS_INTERVAL = 250;
+    // The thread the computer thinks about its moves on, so that the screen keeps responding.
+    private final ExecutorService computerThread = Executors.newSingleThreadExecutor();
+    // Posts the computer's move back to the UI thread once it has been decided.
+    private final Handler uiHandler = new Handler(Looper.getMainLooper());
+    // The computer's turn that is being thought about, or null if the computer is not thinking.
+    private Future<?> computerTurn;
+    // Counts the computer's turns, so that a move from a turn that was cancelled is never made.
+    private int computerTurnNumber = 0;
+    // The dialog shown while the computer is thinking.
+    private ProgressDialog thinkingDialog;
+    // The thread games are saved and loaded on, so that a slow SD card never holds up the screen.
+    private final ExecutorService storageThread = Executors.newSingleThreadExecutor();
+    // Saves and loads the game on the storage thread, and hands the results back to the UI thread.
+    private final GamePersistence persistence = new GamePersistence(duellGame, storageThread, new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            uiHandler.post(command);
+        }
+    });
+    // The dialog shown while a game is being saved or loaded.
+    private ProgressDialog storageDialog;
+    // The name of the journal every move is recorded in, so the last game can be resumed if the app is killed.
+    private static final String JOURNAL_NAME = "autosave.journal";
+    // The name of the position database in the app's files, which the computer looks moves up in if it is there.
+    private static final String POSITION_DATABASE_NAME = "positions.db";
+    // The name of the opening book in the app's assets, built with OpeningBookBuilder.
+    private static final String OPENING_BOOK_NAME = "opening.book";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -33,6 +83,13 @@ public class StartGameActivity extends AppCompatActivity {
         this.supportRequestWindowFeature(Window.FEATURE_NO_TITLE);
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_start_game);
+        // The computer searches ahead on its own thread, and ponders on the human's turn.
+        duellGame.setComputerStrategy(Computer.STRATEGY_SEARCH);
+        // Keep the journal in the app's own files, out of the saved games, and write it on the storage thread.
+        duellGame.setJournalStorage(new FileGameStorage(getFilesDir()));
+        duellGame.setJournalExecutor(storageThread);
+        openPositionDatabase();
+        openOpeningBook();
 
         // Check if the user started a new game.
         Intent mainIntent = getIntent();
@@ -48,6 +105,58 @@ public class StartGameActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * gives the computer the position database, if there is one, mapping it on the storage thread. The computer thinks
+     * about its moves as usual until the database is there
+     */
+    private void openPositionDatabase()
+    {
+        final File file = new File(getFilesDir(), POSITION_DATABASE_NAME);
+        storageThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!file.exists()) return;
+                try
+                {
+                    duellGame.setPositionDatabase(PositionDatabase.open(file));
+                }
+                catch(IOException exception)
+                {
+                    // The computer can still think of every move itself.
+                }
+            }
+        });
+    }
+
+    /**
+     * gives the computer the opening book from the app's assets, reading it on the storage thread. The computer thinks
+     * about its moves as usual until the book is there
+     */
+    private void openOpeningBook()
+    {
+        storageThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                try
+                {
+                    InputStream input = getAssets().open(OPENING_BOOK_NAME);
+                    try
+                    {
+                        duellGame.setOpeningBook(new OpeningBook(input));
+                    }
+                    finally
+                    {
+                        input.close();
+                    }
+                }
+                catch(IOException exception)
+                {
+                    // The computer can still think of every move itself.
+                }
+            }
+        });
+    }
+
     /**
      * lets the player make the move they want to make on the board
      * @param view the space that the player clicks on
@@ -144,7 +253,7 @@ public class StartGameActivity extends AppCompatActivity {
         AlertDialog.Builder dialogBuilder = new AlertDialog.Builder(this);
         final EditText fileInput = new EditText(StartGameActivity.this);
         dialogBuilder.setTitle("Filename");
-        dialogBuilder.setMessage("Please enter the name of the text file you want to restore (do not include .txt).");
+        dialogBuilder.setMessage("Please enter the name of the game you want to restore (do not include the file extension).");
         dialogBuilder.setView(fileInput);
         dialogBuilder.setPositiveButton("Ok", new DialogInterface.OnClickListener(){
            @Override
@@ -154,44 +263,107 @@ public class StartGameActivity extends AppCompatActivity {
                loadGame(editValue);
            }
         });
+        dialogBuilder.setNeutralButton("Last game", new DialogInterface.OnClickListener(){
+           @Override
+            public void onClick(DialogInterface dialog, int which)
+           {
+               loadLastGame();
+           }
+        });
         AlertDialog inputBox = dialogBuilder.create();
         inputBox.setCanceledOnTouchOutside(false);
         inputBox.show();
     }
 
     /**
-     * loads the game from the saved text file
-     * @param filename the name of the text file
+     * loads the game from the saved file
+     * @param filename the name of the saved file
      */
     private void loadGame(String filename)
     {
-        if (duellGame.resumeGame(filename))
-        {
-            // update the display
-            updateDisplay();
-            if (duellGame.getCurrentPlayer().equals("Computer")) computerMakesMove();
-        }
-        else
-        {
-            AlertDialog.Builder dialogBuilder = new AlertDialog.Builder(this);
-            dialogBuilder.setTitle("Error");
-            dialogBuilder.setMessage("The file was unable to be read. The application will now exit.");
-            dialogBuilder.setPositiveButton("Ok", new DialogInterface.OnClickListener(){
-               @Override
-                public void onClick(DialogInterface dialog, int which)
-               {
-                   // exit the program
-                   finishAffinity();
-                   Intent intent = new Intent(Intent.ACTION_MAIN);
-                   intent.addCategory(Intent.CATEGORY_HOME);
-                   intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-                   startActivity(intent);
-               }
-            });
-            AlertDialog errorMessage = dialogBuilder.create();
-            errorMessage.setCanceledOnTouchOutside(false);
-            errorMessage.show();
-        }
+        showStorageProgress("Loading the game...");
+        persistence.resumeGame(filename, new GamePersistence.Callback() {
+            @Override
+            public void onSuccess() {
+                hideStorageProgress();
+                if (isFinishing()) return;
+                // record the moves from here on, so the game can be resumed even if it is never saved again
+                duellGame.startJournal(JOURNAL_NAME);
+                continueLoadedGame();
+            }
+
+            @Override
+            public void onFailure(IOException exception) {
+                hideStorageProgress();
+                if (!isFinishing()) reportLoadError(exception);
+            }
+        });
+    }
+
+    /**
+     * loads the last game that was played from its journal
+     */
+    private void loadLastGame()
+    {
+        showStorageProgress("Loading the last game...");
+        persistence.resumeJournal(JOURNAL_NAME, new GamePersistence.Callback() {
+            @Override
+            public void onSuccess() {
+                hideStorageProgress();
+                if (!isFinishing()) continueLoadedGame();
+            }
+
+            @Override
+            public void onFailure(IOException exception) {
+                hideStorageProgress();
+                if (!isFinishing()) reportLoadError(exception);
+            }
+        });
+    }
+
+    /**
+     * carries on with a game that was just loaded
+     */
+    private void continueLoadedGame()
+    {
+        // update the display
+        updateDisplay();
+        // the game may have been left right after its winning move
+        int winCondition = duellGame.checkWinCondition();
+        if (winCondition > 0) determineWinner(winCondition);
+        else if (duellGame.getCurrentPlayer().equals("Computer")) computerMakesMove();
+        else duellGame.startPondering();
+    }
+
+    /**
+     * tells the player that the game could not be loaded, then exits
+     * @param exception why the game could not be loaded
+     */
+    private void reportLoadError(IOException exception)
+    {
+        // Say what went wrong in a way the player can do something about.
+        String reason;
+        if (exception instanceof FileNotFoundException) reason = "No game was saved under that name.";
+        else if (exception instanceof InvalidSaveException) reason = "The file is not a saved game, or it was damaged.";
+        else reason = "The file was unable to be read.";
+        AlertDialog.Builder dialogBuilder = new AlertDialog.Builder(this);
+        dialogBuilder.setTitle("Error");
+        dialogBuilder.setMessage(reason + " The application will now exit.");
+        dialogBuilder.setPositiveButton("Ok", new DialogInterface.OnClickListener(){
+           @Override
+            public void onClick(DialogInterface dialog, int which)
+           {
+               // exit the program
+               finishAffinity();
+               Intent intent = new Intent(Intent.ACTION_MAIN);
+               intent.addCategory(Intent.CATEGORY_HOME);
+               intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+               startActivity(intent);
+           }
+        });
+        AlertDialog errorMessage = dialogBuilder.create();
+        errorMessage.setCanceledOnTouchOutside(false);
+        errorMessage.show();
     }
 
     /**
@@ -203,15 +375,103 @@ public class StartGameActivity extends AppCompatActivity {
         decideDirection(humanMoves[0], humanMoves[1], humanMoves[2], humanMoves[3]);
     }
 
+    /**
+     * lets the computer think about its move on a background thread, then makes the move once it has been decided
+     */
     private void computerMakesMove()
     {
-        String moveMade = duellGame.doComputerTurn();
+        // Number this turn, so that its move is only made if it is still the turn being waited on.
+        final int turnNumber = ++computerTurnNumber;
+        // Show that the computer is thinking. The dialog also keeps the human from touching the board in the meantime.
+        thinkingDialog = ProgressDialog.show(this, "Computer", "The computer is thinking...", true, false);
+        uiHandler.postDelayed(showProgress, PROGRESS_INTERVAL);
+        computerTurn = computerThread.submit(new Runnable() {
+            @Override
+            public void run() {
+                // Think on the background thread, then hand the move back to the UI thread.
+                final int move = duellGame.thinkOfComputerMove();
+                uiHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        finishComputerMove(turnNumber, move);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * makes the move the computer decided on, if its turn was not cancelled in the meantime
+     * @param turnNumber the number of the turn the move was decided for
+     * @param move the packed move the computer decided on
+     */
+    private void finishComputerMove(int turnNumber, int move)
+    {
+        if (turnNumber != computerTurnNumber || computerTurn == null || isFinishing()) return;
+        computerTurn = null;
+        hideThinking();
+        String moveMade = duellGame.makeComputerMove(move);
         // update the board
         updateDisplay();
         // display the move just made
         printComputerMove(moveMade);
     }
 
+    /**
+     * stops the computer from thinking about its move or pondering, and makes sure that move is never made
+     */
+    private void cancelComputerTurn()
+    {
+        // Stop the search or the pondering, so the background threads are free as soon as possible.
+        duellGame.stopComputerThinking();
+        if (computerTurn != null)
+        {
+            computerTurn.cancel(true);
+            computerTurn = null;
+        }
+        // Any move that is already on its way back to the UI thread belongs to an old turn now.
+        computerTurnNumber++;
+        hideThinking();
+    }
+
+    /**
+     * hides the dialog shown while the computer is thinking
+     */
+    private void hideThinking()
+    {
+        uiHandler.removeCallbacks(showProgress);
+        if (thinkingDialog != null)
+        {
+            thinkingDialog.dismiss();
+            thinkingDialog = null;
+        }
+    }
+
+    // Updates the thinking dialog with how far ahead the computer has looked, for as long as it is thinking.
+    private final Runnable showProgress = new Runnable() {
+        @Override
+        public void run() {
+            if (thinkingDialog == null) return;
+            int depth = duellGame.getComputerThinkingDepth();
+            if (depth > 0)
+            {
+                thinkingDialog.setMessage("The computer is thinking... (looking " + Integer.toString(depth) + " moves ahead)");
+            }
+            uiHandler.postDelayed(this, PROGRESS_INTERVAL);
+        }
+    };
+
+    @Override
+    protected void onDestroy() {
+        // Don't leave the computer thinking about a game that is no longer being shown.
+        cancelComputerTurn();
+        computerThread.shutdownNow();
+        // Let a save that has already started finish, but don't start anything new.
+        storageThread.shutdown();
+        hideStorageProgress();
+        super.onDestroy();
+    }
+
     /**
      * Gets the coordinates of the space that was clicked on
      * @param view the view to get the id of
@@ -251,6 +511,8 @@ public class StartGameActivity extends AppCompatActivity {
                     Toast.makeText(getApplicationContext(), "Both players got " + Integer.toString(results[0]) + ". Rolling again...", Toast.LENGTH_SHORT).show();
                     results = duellGame.determineFirstMove();
                 }
+                // Start recording the new game's moves, so it can be resumed if the app is killed.
+                duellGame.startJournal(JOURNAL_NAME);
                 // Display the numbers of each player.
                 String result = "You rolled a "+Integer.toString(results[0])+" and the Computer rolled a "+Integer.toString(results[1])+".";
                 if (results[0] > results[1])
@@ -268,6 +530,11 @@ public class StartGameActivity extends AppCompatActivity {
                 {
                     computerMakesMove();
                 }
+                // otherwise, the computer can think while the human picks their move
+                else
+                {
+                    duellGame.startPondering();
+                }
             }
         });
         AlertDialog gameStartDialog = dialogBuilder.create();
@@ -311,21 +578,17 @@ public class StartGameActivity extends AppCompatActivity {
      */
     private void highlightPossibleMoves()
     {
-        for (int i = 8; i > 0; i--)
+        // Get every move the selected die can make at once, rather than checking each space on the board.
+        MoveList moves = duellGame.getHumanMovesFrom(humanMoves[0], humanMoves[1]);
+        for (int k = 0; k < moves.size(); k++)
         {
-            for (int j = 1; j < 10; j++)
-            {
-                // Check if a move is possible to this space:
-                if (duellGame.humanCanMoveToSpace(humanMoves[0], humanMoves[1], i, j))
-                {
-                    // highlight this square
-                    // Convert i and j to integers and append to "space"
-                    int viewID = getResources().getIdentifier("space"+Integer.toString(i)+Integer.toString(j), "id", getPackageName());
-                    TextView text = (TextView) findViewById(viewID);
-                    text.setBackgroundResource(R.drawable.highlightedspace);
-                }
-                // otherwise, don't do anything
-            }
+            int i = BitBoard.rowOf(Move.spaceSquare(moves.get(k)));
+            int j = BitBoard.columnOf(Move.spaceSquare(moves.get(k)));
+            // highlight this square
+            // Convert i and j to integers and append to "space"
+            int viewID = getResources().getIdentifier("space"+Integer.toString(i)+Integer.toString(j), "id", getPackageName());
+            TextView text = (TextView) findViewById(viewID);
+            text.setBackgroundResource(R.drawable.highlightedspace);
         }
     }
 
@@ -468,6 +731,8 @@ public class StartGameActivity extends AppCompatActivity {
                 {
                     // switch players
                     duellGame.switchPlayers();
+                    // the computer can think while the human picks their move
+                    duellGame.startPondering();
                     // update the display
                     updateDisplay();
                     // ask to save
@@ -606,7 +871,7 @@ public class StartGameActivity extends AppCompatActivity {
         AlertDialog.Builder dialogBuilder = new AlertDialog.Builder(this);
         final EditText fileOutput = new EditText(StartGameActivity.this);
         dialogBuilder.setTitle("Filename");
-        dialogBuilder.setMessage("Please enter the name of the text file you want to save (do not include .txt).");
+        dialogBuilder.setMessage("Please enter the name to save the game under (do not include the file extension).");
         dialogBuilder.setView(fileOutput);
         dialogBuilder.setPositiveButton("Ok", new DialogInterface.OnClickListener(){
            @Override
@@ -627,36 +892,73 @@ public class StartGameActivity extends AppCompatActivity {
      */
     private void saveGame(String filename)
     {
-        if (duellGame.saveFile(filename))
-        {
-            Toast.makeText(getApplicationContext(), "File successfully saved! Quitting...", Toast.LENGTH_SHORT).show();
-            // exit the program
-            finishAffinity();
-            Intent intent = new Intent(Intent.ACTION_MAIN);
-            intent.addCategory(Intent.CATEGORY_HOME);
-            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-            startActivity(intent);
-        }
-        else
+        // The game is being quit, so make sure the computer is not still thinking.
+        cancelComputerTurn();
+        showStorageProgress("Saving the game...");
+        persistence.saveGame(filename, new GamePersistence.Callback() {
+            @Override
+            public void onSuccess() {
+                hideStorageProgress();
+                Toast.makeText(getApplicationContext(), "File successfully saved! Quitting...", Toast.LENGTH_SHORT).show();
+                // exit the program
+                finishAffinity();
+                Intent intent = new Intent(Intent.ACTION_MAIN);
+                intent.addCategory(Intent.CATEGORY_HOME);
+                intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                startActivity(intent);
+            }
+
+            @Override
+            public void onFailure(IOException exception) {
+                hideStorageProgress();
+                reportSaveError();
+            }
+        });
+    }
+
+    /**
+     * tells the player that the game could not be saved, then exits
+     */
+    private void reportSaveError()
+    {
+        AlertDialog.Builder dialogBuilder = new AlertDialog.Builder(this);
+        dialogBuilder.setTitle("Error");
+        dialogBuilder.setMessage("The file was not successfully saved. The program will now exit.");
+        dialogBuilder.setPositiveButton("Ok", new DialogInterface.OnClickListener(){
+            @Override
+            public void onClick(DialogInterface dialog, int which)
+            {
+                // exit the program
+                finishAffinity();
+                Intent intent = new Intent(Intent.ACTION_MAIN);
+                intent.addCategory(Intent.CATEGORY_HOME);
+                intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                startActivity(intent);
+            }
+        });
+        AlertDialog saveError = dialogBuilder.create();
+        saveError.setCanceledOnTouchOutside(false);
+        saveError.show();
+    }
+
+    /**
+     * shows a dialog while a game is being saved or loaded, which also keeps the board from being touched
+     * @param message what is being done
+     */
+    private void showStorageProgress(String message)
+    {
+        storageDialog = ProgressDialog.show(this, "Please wait", message, true, false);
+    }
+
+    /**
+     * hides the dialog shown while a game is being saved or loaded
+     */
+    private void hideStorageProgress()
+    {
+        if (storageDialog != null)
         {
-            AlertDialog.Builder dialogBuilder = new AlertDialog.Builder(this);
-            dialogBuilder.setTitle("Error");
-            dialogBuilder.setMessage("The file was not successfully saved. The program will now exit.");
-            dialogBuilder.setPositiveButton("Ok", new DialogInterface.OnClickListener(){
-                @Override
-                public void onClick(DialogInterface dialog, int which)
-                {
-                    // exit the program
-                    finishAffinity();
-                    Intent intent = new Intent(Intent.ACTION_MAIN);
-                    intent.addCategory(Intent.CATEGORY_HOME);
-                    intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-                    startActivity(intent);
-                }
-            });
-            AlertDialog saveError = dialogBuilder.create();
-            saveError.setCanceledOnTouchOutside(false);
-            saveError.show();
+            storageDialog.dismiss();
+            storageDialog = null;
         }
     }
 }
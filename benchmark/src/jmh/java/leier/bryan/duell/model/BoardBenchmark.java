@@ -0,0 +1,63 @@
+package leier.bryan.duell.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the board operations a turn is made of: rolling a die across a space and checking for a winner after the
+ * move, both on the board and through the game that asks it.
+ */
+
+@State(Scope.Thread)
+public class BoardBenchmark {
+    // The position of the corpus to run on.
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"})
+    public int position;
+
+    // The board of the position, and a game resumed at the same position.
+    private Board board;
+    private Game game;
+
+    @Setup
+    public void setUp()
+    {
+        board = Positions.board(position);
+        // Make sure the human's die on (1, 9) has an empty space in front of it to roll across.
+        if (!board.isDieOn(1, 9)) board.placeDie(new Die(5, 6, 'H'), 1, 9);
+        if (board.isDieOn(2, 9)) throw new IllegalStateException("Position " + position + " has (2, 9) taken");
+        game = Positions.game(position);
+    }
+
+    /**
+     * Rolls a die up one space and back down again, so the board is the same after each call.
+     * @return whether both rolls were made
+     */
+    @Benchmark
+    public boolean performRoll()
+    {
+        return board.performRoll(1, 9, "up") & board.performRoll(2, 9, "down");
+    }
+
+    /**
+     * Checks if either player has won.
+     * @return the result of the check
+     */
+    @Benchmark
+    public int checkWinCondition()
+    {
+        return board.checkWinCondition();
+    }
+
+    /**
+     * Checks if either player has won, the way the screen does after every move.
+     * @return the result of the check
+     */
+    @Benchmark
+    public int gameCheckWinCondition()
+    {
+        return game.checkWinCondition();
+    }
+}
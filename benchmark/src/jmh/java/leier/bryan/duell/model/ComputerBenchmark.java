@@ -0,0 +1,55 @@
+package leier.bryan.duell.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures a whole computer turn with the heuristic strategy, which the computer falls back on when it is not set to
+ * search. The search the game plays with on a device is measured by SearchBenchmark. play() changes the board, so
+ * every call gets a fresh copy of the position. chooseMove() only reads the board and shows how much of the turn is
+ * spent deciding.
+ */
+
+@State(Scope.Thread)
+public class ComputerBenchmark {
+    // The position of the corpus to run on.
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"})
+    public int position;
+
+    // The position as it was read, the copy each call plays on, and the computer that plays.
+    private BitBoard start;
+    private Board board;
+    private Computer computer;
+
+    @Setup(Level.Trial)
+    public void setUpTrial()
+    {
+        start = Positions.board(position).toBitBoard();
+        computer = new Computer();
+        computer.setStrategy(Computer.STRATEGY_HEURISTIC);
+        computer.setSeed(position);
+        board = new Board(start);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation()
+    {
+        board.loadBitBoard(start);
+    }
+
+    @Benchmark
+    public String play()
+    {
+        return computer.play(board);
+    }
+
+    @Benchmark
+    public int chooseMove()
+    {
+        return computer.chooseMove(board);
+    }
+}
@@ -0,0 +1,53 @@
+package leier.bryan.duell.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures rolling a single die. Each benchmark rolls the die once in every direction, so it ends up in a different
+ * orientation each time and the rolls cannot be folded away.
+ */
+
+@State(Scope.Thread)
+public class DieBenchmark {
+    // The die being rolled.
+    private Die die;
+
+    @Setup
+    public void setUp()
+    {
+        die = new Die(5, 6, 'H');
+    }
+
+    /**
+     * Rolls the die by the names of the directions, the way Board.performRoll() does.
+     * @return the orientation the die ends up in
+     */
+    @Benchmark
+    public byte rollDie()
+    {
+        die.rollDie("up");
+        die.rollDie("right");
+        die.rollDie("down");
+        die.rollDie("left");
+        die.rollDie("up");
+        return die.getOrientation();
+    }
+
+    /**
+     * Rolls the die by the numbers of the directions, the way the search does.
+     * @return the orientation the die ends up in
+     */
+    @Benchmark
+    public byte roll()
+    {
+        die.roll(Die.UP);
+        die.roll(Die.RIGHT);
+        die.roll(Die.DOWN);
+        die.roll(Die.LEFT);
+        die.roll(Die.UP);
+        return die.getOrientation();
+    }
+}
@@ -0,0 +1,94 @@
+package leier.bryan.duell.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the path checks and each of the scores the heuristic computer picks its move with, from the computer's
+ * side of the board.
+ */
+
+@State(Scope.Thread)
+public class PlayerBenchmark {
+    // The position of the corpus to run on.
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"})
+    public int position;
+
+    // The board of the position, and the computer that scores it.
+    private Board board;
+    private Computer computer;
+    // The row and column of every computer die on the board.
+    private int[][] dice;
+
+    @Setup
+    public void setUp()
+    {
+        board = Positions.board(position);
+        computer = new Computer();
+        int count = 0;
+        int[][] found = new int[72][];
+        for (int row = 1; row <= 8; row++)
+        {
+            for (int column = 1; column <= 9; column++)
+            {
+                if (board.isDiePlayerType(row, column, 'C')) found[count++] = new int[] {row, column};
+            }
+        }
+        dice = new int[count][];
+        System.arraycopy(found, 0, dice, 0, count);
+    }
+
+    /**
+     * Asks if each of the computer's dice can move to every space on the board, the way the heuristics look for moves.
+     * @return how many of the moves can be made
+     */
+    @Benchmark
+    public int canMoveToSpace()
+    {
+        int moves = 0;
+        for (int[] die : dice)
+        {
+            for (int row = 1; row <= 8; row++)
+            {
+                for (int column = 1; column <= 9; column++)
+                {
+                    if (computer.canMoveToSpace(board, die[0], die[1], row, column, 'C')) moves++;
+                }
+            }
+        }
+        return moves;
+    }
+
+    @Benchmark
+    public int captureKeyDieScore()
+    {
+        return computer.captureKeyDieScore(board, 'C');
+    }
+
+    @Benchmark
+    public int captureKeySpaceScore()
+    {
+        return computer.captureKeySpaceScore(board, 'C');
+    }
+
+    @Benchmark
+    public int blockKeyDieScore()
+    {
+        return computer.blockKeyDieScore(board, 'C');
+    }
+
+    @Benchmark
+    public int blockKeySpaceScore()
+    {
+        return computer.blockKeySpaceScore(board, 'C');
+    }
+
+    @Benchmark
+    public int captureDieScore()
+    {
+        return computer.captureDieScore(board, 'C');
+    }
+}
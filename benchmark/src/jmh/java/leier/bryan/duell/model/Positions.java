@@ -0,0 +1,214 @@
+package leier.bryan.duell.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * The fixed corpus of positions every benchmark runs over, so results can be compared from one change to the next. The
+ * positions were taken from heuristic games between two seeded computers, from the opening to the end game. Each one is
+ * written as the rows of a saved game, from row 8 down to row 1.
+ */
+
+final class Positions {
+    // The positions, eight rows each.
+    private static final String[][] ROWS = {
+            // The start of a new game.
+            {
+                    "C56 C15 C21 C62 C11 C62 C21 C15 C56",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "H56 H15 H21 H62 H11 H62 H21 H15 H56",
+            },
+            // The opening, after a human capture.
+            {
+                    "0 H63 0 C62 C11 C62 C21 C15 C56",
+                    "0 0 0 0 C36 0 0 0 0",
+                    "0 0 C51 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 H15 H21 H62 H11 H62 H21 H15 H56",
+            },
+            // The opening, with a computer die deep in the human's side.
+            {
+                    "0 0 C21 C62 C11 C62 C21 C15 C56",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 C65 0 0 0 0 0 0 0",
+                    "0 H15 H21 H62 H11 H62 H21 H15 H56",
+            },
+            // The middle game, with both sides spread out.
+            {
+                    "0 0 0 C62 C11 C62 C21 C15 C56",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 C51 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 H13 0 0 0 0 0 0 0",
+                    "0 0 H21 H62 H11 H62 H21 H15 H56",
+            },
+            // The middle game, after many captures.
+            {
+                    "0 0 0 0 0 0 0 C15 C56",
+                    "0 0 0 0 C11 0 0 0 0",
+                    "0 0 H24 0 0 0 C51 0 0",
+                    "0 H15 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 H32 0 H14 0 0 0",
+                    "0 0 0 0 H11 H62 0 H15 H56",
+            },
+            // The end game, with the computer's key die alone.
+            {
+                    "0 0 0 0 C11 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 H24 0 0 0 0 0 0",
+                    "0 H15 0 0 0 0 0 0 H51",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 H32 H11 H14 0 0 0",
+                    "0 0 0 0 0 0 0 H15 H56",
+            },
+            // The end game, with the computer's key die out of its key space.
+            {
+                    "H41 0 H54 0 0 0 0 0 0",
+                    "0 0 0 0 C11 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 H51",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 H32 H11 H14 0 H35 0",
+                    "0 0 0 0 0 0 0 0 H56",
+            },
+            // The end game, with the human's key die in the middle of the board.
+            {
+                    "H41 0 H54 0 C11 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 H62 0 0 0 0 H51",
+                    "0 0 0 0 H11 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 H14 0 H35 0",
+                    "0 0 0 0 0 0 0 0 H56",
+            },
+            // The middle game, with the computer's key die under attack.
+            {
+                    "0 0 0 0 0 0 C21 C15 C56",
+                    "0 0 0 0 C11 0 0 0 0",
+                    "0 0 C21 0 0 0 0 0 0",
+                    "0 H53 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 H35 0 H32 0 H14 0 0 0",
+                    "0 0 0 0 H11 H62 0 H15 H56",
+            },
+            // The middle game, with a human die able to reach the computer's key space.
+            {
+                    "0 0 0 0 0 0 0 H35 C56",
+                    "0 0 0 0 C11 0 0 0 0",
+                    "0 0 0 0 0 0 C51 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 0 0 0 0 0 0 0 0",
+                    "0 H35 0 H32 0 H14 0 0 0",
+                    "0 0 0 0 H11 H62 0 H15 H56",
+            },
+    };
+
+    // The number of positions in the corpus.
+    static final int COUNT = ROWS.length;
+    // The name a position is saved under when a game is resumed from it.
+    static final String NAME = "position";
+
+    private Positions() {}
+
+    /**
+     * Writes a position of the corpus as a saved game, with the computer to move next.
+     * @param index the position, from 0 to COUNT - 1
+     * @return the text of the saved game
+     */
+    static String savedGame(int index)
+    {
+        StringBuilder text = new StringBuilder("Board:\n");
+        for (int row = 0; row < 8; row++)
+        {
+            text.append(" \t").append(ROWS[index][row].replace(" ", " \t")).append(" \t\n");
+        }
+        text.append("\nComputer Wins: 0\n\nHuman Wins: 0\n\nNext Player: Computer\n");
+        return text.toString();
+    }
+
+    /**
+     * Reads a position of the corpus onto a new board.
+     * @param index the position, from 0 to COUNT - 1
+     * @return the board
+     */
+    static Board board(int index)
+    {
+        try
+        {
+            SavedGame savedGame = SavedGame.read(new BufferedReader(new StringReader(savedGame(index))));
+            if (savedGame == null) throw new IllegalStateException("Position " + index + " is not a valid saved game");
+            return savedGame.getBoard();
+        }
+        catch (IOException exception)
+        {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Reads every position of the corpus.
+     * @return a new board for each position
+     */
+    static Board[] boards()
+    {
+        Board[] boards = new Board[COUNT];
+        for (int i = 0; i < COUNT; i++)
+        {
+            boards[i] = board(i);
+        }
+        return boards;
+    }
+
+    /**
+     * Resumes a game at a position of the corpus.
+     * @param index the position, from 0 to COUNT - 1
+     * @return the game
+     */
+    static Game game(int index)
+    {
+        return game(index, new MemoryGameStorage());
+    }
+
+    /**
+     * Resumes a game at a position of the corpus, saving the position in the storage first.
+     * @param index the position, from 0 to COUNT - 1
+     * @param storage the storage the game is saved to and resumed from
+     * @return the game
+     */
+    static Game game(int index, MemoryGameStorage storage)
+    {
+        storage.put(NAME + ".duell", new SavedGame(board(index), 0, 0, "Computer").toBytes());
+        Game game = new Game(storage);
+        try
+        {
+            game.resumeGame(NAME);
+        }
+        catch (IOException exception)
+        {
+            throw new IllegalStateException("Position " + index + " could not be resumed", exception);
+        }
+        return game;
+    }
+}
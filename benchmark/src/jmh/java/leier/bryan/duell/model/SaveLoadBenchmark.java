@@ -0,0 +1,84 @@
+package leier.bryan.duell.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/**
+ * Measures writing and reading the binary and text saved game formats in memory, which is the part of Game.saveFile()
+ * and Game.resumeGame() that does not depend on how fast the device's storage is. gameSave() and gameResume() go through
+ * Game and its storage as well, with the binary format.
+ */
+
+@State(Scope.Thread)
+public class SaveLoadBenchmark {
+    // The position of the corpus to run on.
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"})
+    public int position;
+
+    // The game to save, and the text and bytes of the game to load.
+    private SavedGame savedGame;
+    private String text;
+    private byte[] bytes;
+    // A game at the position, and the storage it saves to.
+    private Game game;
+    private MemoryGameStorage storage;
+
+    @Setup
+    public void setUp()
+    {
+        savedGame = new SavedGame(Positions.board(position), 3, 2, "Computer");
+        text = Positions.savedGame(position);
+        bytes = savedGame.toBytes();
+        storage = new MemoryGameStorage();
+        game = Positions.game(position, storage);
+    }
+
+    @Benchmark
+    public String save() throws IOException
+    {
+        StringWriter output = new StringWriter(512);
+        savedGame.write(new BufferedWriter(output));
+        return output.toString();
+    }
+
+    @Benchmark
+    public SavedGame load() throws IOException
+    {
+        return SavedGame.read(new BufferedReader(new StringReader(text)));
+    }
+
+    @Benchmark
+    public byte[] saveBinary()
+    {
+        return savedGame.toBytes();
+    }
+
+    @Benchmark
+    public SavedGame loadBinary()
+    {
+        return SavedGame.fromBytes(bytes, 0);
+    }
+
+    @Benchmark
+    public void gameSave() throws IOException
+    {
+        game.saveFile("benchmark");
+    }
+
+    @Benchmark
+    public Game gameResume() throws IOException
+    {
+        Game resumed = new Game(storage);
+        resumed.resumeGame(Positions.NAME);
+        return resumed;
+    }
+}
@@ -0,0 +1,55 @@
+package leier.bryan.duell.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the search the game plays with on a device. A turn of the game searches until its time limit runs out, so
+ * timing it would only measure the limit. Instead each call searches to a fixed depth, starting from an empty
+ * transposition table and fresh move ordering, so every call does the same work.
+ */
+
+@State(Scope.Thread)
+public class SearchBenchmark {
+    // The position of the corpus to run on.
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"})
+    public int position;
+
+    // How deep each search goes.
+    @Param({"4", "6"})
+    public int depth;
+
+    // The position with the computer to move, and the table and search that search it.
+    private BitBoard bits;
+    private TranspositionTable table;
+    private SearchEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUpTrial()
+    {
+        bits = Positions.board(position).toBitBoard();
+        bits.setSideToMove('C');
+        table = new TranspositionTable(Computer.DEFAULT_HASH_MEGABYTES);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation()
+    {
+        // Forget what the last call found, so it cannot make this one shallower.
+        table.clear();
+        engine = new SearchEngine(table);
+        engine.setMaxDepth(depth);
+        // Long enough that the depth is always reached first.
+        engine.setTimeLimit(60000);
+    }
+
+    @Benchmark
+    public int findMove()
+    {
+        return engine.findMove(bits);
+    }
+}
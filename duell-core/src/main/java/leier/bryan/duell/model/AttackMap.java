@@ -0,0 +1,177 @@
+package leier.bryan.duell.model;
+
+/**
+ * The squares each die on a board can legally move to, and the squares each player attacks. A square is attacked by a
+ * player if one of their dice can move there, capturing whatever opponent's die is on it.
+ *
+ * The map is built once from a board and then kept up to date one move at a time. A die's moves can only change when a
+ * square within its top number of rolls changes, since every path it could take stays inside that distance, so only
+ * those dice are worked out again.
+ */
+
+public class AttackMap {
+    // The squares the die on each square can move to, split into the low and high words. Zero for empty squares.
+    private final long[] reachLow = new long[BitBoard.SQUARES];
+    private final long[] reachHigh = new long[BitBoard.SQUARES];
+    // The squares each player attacks, indexed by HUMAN or COMPUTER.
+    private final long[] attackLow = new long[2];
+    private final long[] attackHigh = new long[2];
+
+    /**
+     * Works out the whole map again from a board.
+     * @param bits the board to map
+     */
+    public void reset(BitBoard bits)
+    {
+        for (int square = 0; square < BitBoard.SQUARES; square++)
+        {
+            computeReach(bits, square);
+        }
+        computeAttacks(bits);
+    }
+
+    /**
+     * Brings the map up to date after the dice on one or two squares have changed, such as the squares a die moved
+     * between. The board must already show the change.
+     * @param bits the board after the change
+     * @param first a square that changed
+     * @param second another square that changed, or the same square again
+     */
+    public void update(BitBoard bits, int first, int second)
+    {
+        int firstRow = first / BitBoard.COLUMNS;
+        int firstColumn = first % BitBoard.COLUMNS;
+        int secondRow = second / BitBoard.COLUMNS;
+        int secondColumn = second % BitBoard.COLUMNS;
+        // The changed squares may have lost or gained a die.
+        computeReach(bits, first);
+        if (second != first) computeReach(bits, second);
+        // Any other die close enough to roll across or onto a changed square may have gained or lost moves.
+        for (int square = 0; square < BitBoard.SQUARES; square++)
+        {
+            if (square == first || square == second || !bits.isOccupied(square)) continue;
+            int topNum = Die.topNumOf(bits.getOrientation(square));
+            int row = square / BitBoard.COLUMNS;
+            int column = square % BitBoard.COLUMNS;
+            if (Math.abs(row - firstRow) + Math.abs(column - firstColumn) <= topNum
+                    || Math.abs(row - secondRow) + Math.abs(column - secondColumn) <= topNum)
+            {
+                computeReach(bits, square);
+            }
+        }
+        computeAttacks(bits);
+    }
+
+    /**
+     * Determines if a player attacks a square.
+     * @param square the square to check
+     * @param playerType the player whose dice are checked, H or C
+     * @return a boolean that is true if one of the player's dice can move to the square
+     */
+    public boolean isAttacked(int square, char playerType)
+    {
+        int player = BitBoard.playerIndex(playerType);
+        if (player == -1) return false;
+        if (square < 64) return (attackLow[player] & (1L << square)) != 0;
+        return (attackHigh[player] & (1L << (square - 64))) != 0;
+    }
+
+    /**
+     * Determines if the die on a square can move to another square.
+     * @param dieSquare the square of the die
+     * @param spaceSquare the square to move to
+     * @return a boolean that is true if the move is legal
+     */
+    public boolean canReach(int dieSquare, int spaceSquare)
+    {
+        if (spaceSquare < 64) return (reachLow[dieSquare] & (1L << spaceSquare)) != 0;
+        return (reachHigh[dieSquare] & (1L << (spaceSquare - 64))) != 0;
+    }
+
+    /**
+     * Gets the low word of the squares a player attacks.
+     * @param player HUMAN or COMPUTER
+     * @return the attacked squares between 0 and 63
+     */
+    public long getAttackLow(int player)
+    {
+        return attackLow[player];
+    }
+
+    /**
+     * Gets the high word of the squares a player attacks.
+     * @param player HUMAN or COMPUTER
+     * @return the attacked squares between 64 and 71
+     */
+    public long getAttackHigh(int player)
+    {
+        return attackHigh[player];
+    }
+
+    /**
+     * Works out the squares the die on one square can move to, the same way MoveGenerator does.
+     * @param bits the board
+     * @param dieSquare the square of the die, which may be empty
+     */
+    private void computeReach(BitBoard bits, int dieSquare)
+    {
+        long low = 0;
+        long high = 0;
+        char playerType = bits.getPlayerType(dieSquare);
+        if (playerType != 'N')
+        {
+            int topNum = Die.topNumOf(bits.getOrientation(dieSquare));
+            int dieRow = dieSquare / BitBoard.COLUMNS;
+            int dieColumn = dieSquare % BitBoard.COLUMNS;
+            // Walk around the diamond of spaces that are exactly topNum rolls away.
+            for (int rowRolls = -topNum; rowRolls <= topNum; rowRolls++)
+            {
+                int spaceRow = dieRow + rowRolls;
+                if (spaceRow < 0 || spaceRow >= BitBoard.ROWS) continue;
+                int columnRolls = topNum - Math.abs(rowRolls);
+                for (int side = 0; side < 2; side++)
+                {
+                    int spaceColumn = side == 0 ? dieColumn + columnRolls : dieColumn - columnRolls;
+                    if (side == 1 && columnRolls == 0) break;
+                    if (spaceColumn < 0 || spaceColumn >= BitBoard.COLUMNS) continue;
+                    int spaceSquare = spaceRow * BitBoard.COLUMNS + spaceColumn;
+                    // A die can never land on one of its own player's dice, and needs a clear path one way or the other.
+                    if (bits.isPlayerType(spaceSquare, playerType)) continue;
+                    if (!PathMasks.isClear(bits, dieSquare, spaceSquare, true)
+                            && !PathMasks.isClear(bits, dieSquare, spaceSquare, false)) continue;
+                    if (spaceSquare < 64) low |= 1L << spaceSquare;
+                    else high |= 1L << (spaceSquare - 64);
+                }
+            }
+        }
+        reachLow[dieSquare] = low;
+        reachHigh[dieSquare] = high;
+    }
+
+    /**
+     * Works out the squares each player attacks from the moves of their dice.
+     * @param bits the board
+     */
+    private void computeAttacks(BitBoard bits)
+    {
+        for (int player = BitBoard.HUMAN; player <= BitBoard.COMPUTER; player++)
+        {
+            long low = 0;
+            long high = 0;
+            for (long dice = bits.getLowWord(player); dice != 0; dice &= dice - 1)
+            {
+                int square = Long.numberOfTrailingZeros(dice);
+                low |= reachLow[square];
+                high |= reachHigh[square];
+            }
+            for (long dice = bits.getHighWord(player); dice != 0; dice &= dice - 1)
+            {
+                int square = 64 + Long.numberOfTrailingZeros(dice);
+                low |= reachLow[square];
+                high |= reachHigh[square];
+            }
+            attackLow[player] = low;
+            attackHigh[player] = high;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package leier.bryan.duell.model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plays a batch of games between two strategies across a fork-join pool and sums up the results. Strategy A plays the
+ * human's dice in even games and the computer's dice in odd games, so neither strategy gains from the side it plays.
+ * Game i is always played from the same seed, no matter which thread plays it, so a batch can be played again exactly as
+ * long as the strategies are not limited by time.
+ */
+
+public class BatchTournament {
+    // The fewest games a task plays on its own before it splits in two.
+    private static final int GAMES_PER_TASK = 4;
+
+    // The strategies being compared.
+    private final String strategyA;
+    private final String strategyB;
+    // How long each strategy may think about each move, in milliseconds.
+    private long timeLimit = Computer.DEFAULT_TIME_LIMIT;
+    // The size of each computer's transposition table, in MB.
+    private int hashMegabytes = 4;
+    // The most turns a game may last before it is called a draw.
+    private int maxTurns = Simulator.DEFAULT_MAX_TURNS;
+    // The seed every game's seed is made from.
+    private long seed = 0;
+    // The number of threads to play on.
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Constructor for a tournament between two strategies.
+     * @param strategyA one of the Computer strategies
+     * @param strategyB one of the Computer strategies
+     */
+    public BatchTournament(String strategyA, String strategyB)
+    {
+        this.strategyA = strategyA;
+        this.strategyB = strategyB;
+    }
+
+    /**
+     * Sets how long each strategy may think about each move.
+     * @param milliseconds the time limit in milliseconds
+     */
+    public void setTimeLimit(long milliseconds)
+    {
+        this.timeLimit = milliseconds;
+    }
+
+    /**
+     * Sets the size of each computer's transposition table. Every thread has its own computers, so keep this small.
+     * @param megabytes the size in MB
+     */
+    public void setHashSize(int megabytes)
+    {
+        this.hashMegabytes = megabytes;
+    }
+
+    /**
+     * Sets the most turns a game may last before it is called a draw.
+     * @param maxTurns the number of turns, counting both players
+     */
+    public void setMaxTurns(int maxTurns)
+    {
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Sets the seed every game's seed is made from.
+     * @param seed the seed
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets how many threads the games are played on.
+     * @param parallelism the number of threads, at least 1
+     */
+    public void setParallelism(int parallelism)
+    {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Plays the games and sums up their results.
+     * @param games the number of games to play
+     * @return the summary of the results
+     */
+    public TournamentSummary run(int games)
+    {
+        GameResult[] results = new GameResult[games];
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try
+        {
+            pool.invoke(new PlayGames(results, 0, games));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        return new TournamentSummary(strategyA, strategyB, results, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Creates a computer for one side of the board.
+     * @param playerType the side it plays, H or C
+     * @param strategy the strategy it plays with
+     * @return the computer
+     */
+    private Computer createComputer(char playerType, String strategy)
+    {
+        Computer computer = new Computer(playerType);
+        computer.setStrategy(strategy);
+        computer.setTimeLimit(timeLimit);
+        computer.setHashSize(hashMegabytes);
+        // The games already run on every thread, so a search spread over the cores would only slow them down.
+        if (parallelism > 1) computer.setSearchThreads(1);
+        return computer;
+    }
+
+    /**
+     * Stops the threads of a computer, if it was ever created.
+     * @param computer the computer, or null
+     */
+    private static void shutdown(Computer computer)
+    {
+        if (computer != null) computer.shutdown();
+    }
+
+    /**
+     * Plays a range of games, splitting it in two until each part is small enough to play on one thread.
+     */
+    private final class PlayGames extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        // Where each result goes, and the range of games to play.
+        private final GameResult[] results;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructor for a range of games.
+         * @param results the array each game's result is put in, at the index of the game
+         * @param from the first game to play
+         * @param to one past the last game to play
+         */
+        PlayGames(GameResult[] results, int from, int to)
+        {
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from > GAMES_PER_TASK)
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PlayGames(results, from, middle), new PlayGames(results, middle, to));
+                return;
+            }
+            // Each range has its own computers, since they keep search state between moves.
+            Computer aHuman = null, aComputer = null, bHuman = null, bComputer = null;
+            try
+            {
+                for (int game = from; game < to; game++)
+                {
+                    boolean strategyAIsHuman = (game & 1) == 0;
+                    Simulator simulator;
+                    if (strategyAIsHuman)
+                    {
+                        if (aHuman == null) aHuman = createComputer('H', strategyA);
+                        if (bComputer == null) bComputer = createComputer('C', strategyB);
+                        simulator = new Simulator(aHuman, bComputer, seed + game * 0x9E3779B97F4A7C15L);
+                    }
+                    else
+                    {
+                        if (bHuman == null) bHuman = createComputer('H', strategyB);
+                        if (aComputer == null) aComputer = createComputer('C', strategyA);
+                        simulator = new Simulator(bHuman, aComputer, seed + game * 0x9E3779B97F4A7C15L);
+                    }
+                    simulator.setMaxTurns(maxTurns);
+                    int winCondition = simulator.playGame();
+                    char aSide = strategyAIsHuman ? 'H' : 'C';
+                    char bSide = strategyAIsHuman ? 'C' : 'H';
+                    results[game] = new GameResult(winCondition, strategyAIsHuman, simulator.getLastGameTurns(),
+                            simulator.getLastGameThinkNanos(aSide), simulator.getLastGameMoves(aSide),
+                            simulator.getLastGameThinkNanos(bSide), simulator.getLastGameMoves(bSide));
+                }
+            }
+            finally
+            {
+                // The computers are thrown away with the range, so stop any threads they started.
+                shutdown(aHuman);
+                shutdown(aComputer);
+                shutdown(bHuman);
+                shutdown(bComputer);
+            }
+        }
+    }
+
+    /**
+     * Plays a tournament from the command line and prints its summary.
+     * @param args the number of games, strategy A, strategy B, the time limit per move in milliseconds, the seed, and
+     *             the number of threads. Everything after the number of games is optional
+     */
+    public static void main(String[] args)
+    {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        BatchTournament tournament = new BatchTournament(args.length > 1 ? args[1] : Computer.STRATEGY_SEARCH,
+                args.length > 2 ? args[2] : Computer.STRATEGY_HEURISTIC);
+        if (args.length > 3) tournament.setTimeLimit(Long.parseLong(args[3]));
+        tournament.setSeed(args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime());
+        if (args.length > 5) tournament.setParallelism(Integer.parseInt(args[5]));
+        System.out.println(tournament.run(games));
+    }
+}
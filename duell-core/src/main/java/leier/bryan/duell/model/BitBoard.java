@@ -0,0 +1,376 @@
+package leier.bryan.duell.model;
+
+/**
+ * A compact model of the board. Each player's dice are kept as a 72-bit occupancy mask split across two longs (squares
+ * 0-63 in the low word, 64-71 in the high word), and the orientation of the die on each square is kept in a flat array.
+ * Squares are numbered from the bottom left of the board, so square = (row - 1) * 9 + (column - 1).
+ */
+
+public class BitBoard {
+    // The size of the board.
+    public static final int ROWS = 8;
+    public static final int COLUMNS = 9;
+    public static final int SQUARES = ROWS * COLUMNS;
+    // Indexes for each player in the occupancy masks.
+    public static final int HUMAN = 0;
+    public static final int COMPUTER = 1;
+    // The high word only uses the bits of the last 8 squares.
+    public static final long HIGH_MASK = (1L << (SQUARES - 64)) - 1;
+    // The squares of each player's key space, (1, 5) for the human and (8, 5) for the computer.
+    public static final int HUMAN_KEY_SPACE = 4;
+    public static final int COMPUTER_KEY_SPACE = 67;
+    // The results of getWinCondition(), the same as Board.checkWinCondition().
+    public static final int NO_WINNER = 0;
+    public static final int HUMAN_ON_KEY_SPACE = 1;
+    public static final int COMPUTER_ON_KEY_SPACE = 2;
+    public static final int COMPUTER_KEY_DIE_CAPTURED = 3;
+    public static final int HUMAN_KEY_DIE_CAPTURED = 4;
+
+    // The occupancy masks of each player, split into the low and high words.
+    private final long[] lowWord = new long[2];
+    private final long[] highWord = new long[2];
+    // The orientation of the die on each square. Only meaningful if the square is occupied.
+    private final byte[] orientations = new byte[SQUARES];
+    // The square each player's key die is on, or -1 once it has been captured. Kept up to date as dice are placed and
+    // removed, so finding a key die or checking for a winner never has to look through the board.
+    private final int[] keySquares = {-1, -1};
+    // The player who moves next.
+    private char sideToMove = 'H';
+    // The Zobrist key of the position, updated every time a die is placed or removed.
+    private long hash = 0;
+
+    /**
+     * Default constructor. The board starts out empty.
+     */
+    public BitBoard()
+    {
+    }
+
+    /**
+     * Copy constructor.
+     * @param other the board to copy
+     */
+    public BitBoard(BitBoard other)
+    {
+        copyFrom(other);
+    }
+
+    /**
+     * Makes this board the same as another one.
+     * @param other the board to copy
+     */
+    public void copyFrom(BitBoard other)
+    {
+        lowWord[HUMAN] = other.lowWord[HUMAN];
+        lowWord[COMPUTER] = other.lowWord[COMPUTER];
+        highWord[HUMAN] = other.highWord[HUMAN];
+        highWord[COMPUTER] = other.highWord[COMPUTER];
+        System.arraycopy(other.orientations, 0, orientations, 0, SQUARES);
+        keySquares[HUMAN] = other.keySquares[HUMAN];
+        keySquares[COMPUTER] = other.keySquares[COMPUTER];
+        sideToMove = other.sideToMove;
+        hash = other.hash;
+    }
+
+    /**
+     * Removes every die from the board.
+     */
+    public void clear()
+    {
+        lowWord[HUMAN] = 0;
+        lowWord[COMPUTER] = 0;
+        highWord[HUMAN] = 0;
+        highWord[COMPUTER] = 0;
+        keySquares[HUMAN] = -1;
+        keySquares[COMPUTER] = -1;
+        hash = sideToMove == 'C' ? Zobrist.SIDE_TO_MOVE : 0;
+    }
+
+    /**
+     * Places a die on a square, replacing whatever die was there.
+     * @param square the square to place the die on
+     * @param playerType the player who controls the die
+     * @param orientation the orientation of the die
+     */
+    public void placeDie(int square, char playerType, byte orientation)
+    {
+        removeDie(square);
+        int player = playerIndex(playerType);
+        if (player == -1) return;
+        if (square < 64) lowWord[player] |= 1L << square;
+        else highWord[player] |= 1L << (square - 64);
+        orientations[square] = orientation;
+        if (orientation == Die.KEY_ORIENTATION) keySquares[player] = square;
+        hash ^= Zobrist.dieKey(square, player, orientation);
+    }
+
+    /**
+     * Removes the die on a square, if there is one.
+     * @param square the square to clear
+     */
+    public void removeDie(int square)
+    {
+        // Take the die's key out of the position's key.
+        int player = playerIndex(getPlayerType(square));
+        if (player == -1) return;
+        hash ^= Zobrist.dieKey(square, player, orientations[square]);
+        // A key die that leaves the board has been captured, unless it is placed again by moveDie().
+        if (keySquares[player] == square) keySquares[player] = -1;
+        if (square < 64)
+        {
+            long bit = ~(1L << square);
+            lowWord[HUMAN] &= bit;
+            lowWord[COMPUTER] &= bit;
+        }
+        else
+        {
+            long bit = ~(1L << (square - 64));
+            highWord[HUMAN] &= bit;
+            highWord[COMPUTER] &= bit;
+        }
+    }
+
+    /**
+     * Moves a die from one square to another, capturing any die that was on the square it moves to.
+     * @param from the square the die is on
+     * @param to the square the die moves to
+     * @param orientation the orientation of the die once it reaches the square
+     */
+    public void moveDie(int from, int to, byte orientation)
+    {
+        char playerType = getPlayerType(from);
+        removeDie(from);
+        placeDie(to, playerType, orientation);
+    }
+
+    /**
+     * Gets the player who moves next.
+     * @return H or C
+     */
+    public char getSideToMove()
+    {
+        return sideToMove;
+    }
+
+    /**
+     * Sets the player who moves next.
+     * @param playerType H or C
+     */
+    public void setSideToMove(char playerType)
+    {
+        if (playerType != sideToMove) hash ^= Zobrist.SIDE_TO_MOVE;
+        sideToMove = playerType;
+    }
+
+    /**
+     * Gets the Zobrist key of the position.
+     * @return the key of the dice on the board and the player who moves next
+     */
+    public long getHash()
+    {
+        return hash;
+    }
+
+    /**
+     * Determines if there is a die on a square.
+     * @param square the square to check
+     * @return a boolean that determines if there is a die on the square
+     */
+    public boolean isOccupied(int square)
+    {
+        if (square < 64) return ((lowWord[HUMAN] | lowWord[COMPUTER]) & (1L << square)) != 0;
+        return ((highWord[HUMAN] | highWord[COMPUTER]) & (1L << (square - 64))) != 0;
+    }
+
+    /**
+     * Determines if the die on a square belongs to a player.
+     * @param square the square to check
+     * @param playerType the player type to check for
+     * @return a boolean that is false if the square is empty or belongs to the other player
+     */
+    public boolean isPlayerType(int square, char playerType)
+    {
+        int player = playerIndex(playerType);
+        if (player == -1) return false;
+        if (square < 64) return (lowWord[player] & (1L << square)) != 0;
+        return (highWord[player] & (1L << (square - 64))) != 0;
+    }
+
+    /**
+     * Gets the player who controls the die on a square.
+     * @param square the square to check
+     * @return H or C, or N if the square is empty
+     */
+    public char getPlayerType(int square)
+    {
+        if (isPlayerType(square, 'H')) return 'H';
+        if (isPlayerType(square, 'C')) return 'C';
+        return 'N';
+    }
+
+    /**
+     * Gets the orientation of the die on a square.
+     * @param square the square to check
+     * @return the orientation of the die
+     */
+    public byte getOrientation(int square)
+    {
+        return orientations[square];
+    }
+
+    /**
+     * Determines if the die on a square is a key die.
+     * @param square the square to check
+     * @return a boolean that determines if there is a key die on the square
+     */
+    public boolean isKeyDie(int square)
+    {
+        return isOccupied(square) && orientations[square] == Die.KEY_ORIENTATION;
+    }
+
+    /**
+     * Finds the square that a player's key die is on.
+     * @param playerType the player who controls the key die
+     * @return the square of the key die, or -1 if it has been captured
+     */
+    public int findKeyDie(char playerType)
+    {
+        int player = playerIndex(playerType);
+        if (player == -1) return -1;
+        return keySquares[player];
+    }
+
+    /**
+     * Determines if either player has won, from the key spaces and the key dice alone.
+     * @return HUMAN_ON_KEY_SPACE, COMPUTER_ON_KEY_SPACE, COMPUTER_KEY_DIE_CAPTURED, HUMAN_KEY_DIE_CAPTURED, or
+     * NO_WINNER if nobody has won yet
+     */
+    public int getWinCondition()
+    {
+        // A die on the other player's key space wins the game.
+        if ((lowWord[COMPUTER] & (1L << HUMAN_KEY_SPACE)) != 0) return COMPUTER_ON_KEY_SPACE;
+        if ((highWord[HUMAN] & (1L << (COMPUTER_KEY_SPACE - 64))) != 0) return HUMAN_ON_KEY_SPACE;
+        // So does capturing the other player's key die. An empty board has no winner.
+        boolean humanKeyDie = keySquares[HUMAN] != -1;
+        boolean computerKeyDie = keySquares[COMPUTER] != -1;
+        if (humanKeyDie && !computerKeyDie) return COMPUTER_KEY_DIE_CAPTURED;
+        if (!humanKeyDie && computerKeyDie) return HUMAN_KEY_DIE_CAPTURED;
+        return NO_WINNER;
+    }
+
+    /**
+     * Counts how many dice a player has on the board.
+     * @param playerType the player whose dice will be counted
+     * @return the number of dice
+     */
+    public int countDice(char playerType)
+    {
+        int player = playerIndex(playerType);
+        if (player == -1) return 0;
+        return Long.bitCount(lowWord[player]) + Long.bitCount(highWord[player]);
+    }
+
+    /**
+     * Gets the low word of a player's occupancy mask.
+     * @param player HUMAN or COMPUTER
+     * @return the occupancy of squares 0-63
+     */
+    public long getLowWord(int player)
+    {
+        return lowWord[player];
+    }
+
+    /**
+     * Gets the high word of a player's occupancy mask.
+     * @param player HUMAN or COMPUTER
+     * @return the occupancy of squares 64-71
+     */
+    public long getHighWord(int player)
+    {
+        return highWord[player];
+    }
+
+    /**
+     * Gets the low word of the mask of every occupied square.
+     * @return the occupancy of squares 0-63
+     */
+    public long getOccupiedLow()
+    {
+        return lowWord[HUMAN] | lowWord[COMPUTER];
+    }
+
+    /**
+     * Gets the high word of the mask of every occupied square.
+     * @return the occupancy of squares 64-71
+     */
+    public long getOccupiedHigh()
+    {
+        return highWord[HUMAN] | highWord[COMPUTER];
+    }
+
+    /**
+     * Converts row and column coordinates into a square.
+     * @param row the row coordinate, from 1 to 8
+     * @param column the column coordinate, from 1 to 9
+     * @return the square, from 0 to 71
+     */
+    public static int square(int row, int column)
+    {
+        return (row - 1) * COLUMNS + (column - 1);
+    }
+
+    /**
+     * Gets the row coordinate of a square.
+     * @param square the square, from 0 to 71
+     * @return the row coordinate, from 1 to 8
+     */
+    public static int rowOf(int square)
+    {
+        return square / COLUMNS + 1;
+    }
+
+    /**
+     * Gets the column coordinate of a square.
+     * @param square the square, from 0 to 71
+     * @return the column coordinate, from 1 to 9
+     */
+    public static int columnOf(int square)
+    {
+        return square % COLUMNS + 1;
+    }
+
+    /**
+     * Gets the index of a player in the occupancy masks.
+     * @param playerType H or C
+     * @return HUMAN, COMPUTER, or -1 if the player type is not valid
+     */
+    public static int playerIndex(char playerType)
+    {
+        if (playerType == 'H') return HUMAN;
+        if (playerType == 'C') return COMPUTER;
+        return -1;
+    }
+
+    /**
+     * Gets the player type of an index in the occupancy masks.
+     * @param player HUMAN or COMPUTER
+     * @return H or C
+     */
+    public static char playerType(int player)
+    {
+        if (player == HUMAN) return 'H';
+        return 'C';
+    }
+
+    /**
+     * Gets the player who won with a win condition.
+     * @param winCondition the result of getWinCondition(), or anything else for a game nobody won
+     * @return H or C, or N if nobody won
+     */
+    public static char winnerOf(int winCondition)
+    {
+        if (winCondition == HUMAN_ON_KEY_SPACE || winCondition == COMPUTER_KEY_DIE_CAPTURED) return 'H';
+        if (winCondition == COMPUTER_ON_KEY_SPACE || winCondition == HUMAN_KEY_DIE_CAPTURED) return 'C';
+        return 'N';
+    }
+}
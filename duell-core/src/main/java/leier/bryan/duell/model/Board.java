@@ -0,0 +1,435 @@
+package leier.bryan.duell.model;
+
+/**
+ * Created by Bryan on 11/3/2016.
+ */
+
+public class Board {
+    // A container (2D array) of Spaces that make up the board.
+    private Space[][] boardModel = new Space[8][9];
+    // The same board as a set of occupancy masks, kept in step with boardModel so queries don't have to visit each Space.
+    private BitBoard bits = new BitBoard();
+    // The squares each die can move to and each player attacks. Built the first time it is asked for, then kept in step
+    // with every move until the board is cleared.
+    private final AttackMap attacks = new AttackMap();
+    private boolean attacksValid = false;
+
+    // GUI components... later.
+
+    /**
+     * Default constructor.
+     */
+    public Board() {
+        // Initialize all the Spaces.
+        for (int i = 8; i > 0; i--)
+        {
+            for (int j = 1; j < 10; j++)
+            {
+                boardModel[i-1][j-1] = new Space();
+            }
+        }
+    }
+
+    /**
+     * Constructor that builds the board from a bitboard.
+     * @param bitBoard the bitboard containing the dice to place
+     */
+    public Board(BitBoard bitBoard) {
+        this();
+        loadBitBoard(bitBoard);
+    }
+
+    /**
+     * Clears the board.
+     */
+    public void clearBoard() {
+        for (int i = 8; i > 0; i--) {
+            for (int j = 1; j < 10; j++) {
+                boardModel[i - 1][j - 1].clearSpace();
+            }
+        }
+        bits.clear();
+        attacksValid = false;
+    }
+
+    /**
+     * Gets a copy of the board as a bitboard.
+     * @return a bitboard containing the same dice as the board
+     */
+    public BitBoard toBitBoard() {
+        return new BitBoard(bits);
+    }
+
+    /**
+     * Replaces the dice on the board with the dice on a bitboard, and takes its player to move.
+     * @param bitBoard the bitboard containing the dice to place
+     */
+    public void loadBitBoard(BitBoard bitBoard) {
+        clearBoard();
+        bits.setSideToMove(bitBoard.getSideToMove());
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            if (bitBoard.isOccupied(square)) {
+                placeDie(new Die(bitBoard.getOrientation(square), bitBoard.getPlayerType(square)),
+                        BitBoard.rowOf(square), BitBoard.columnOf(square));
+            }
+        }
+    }
+
+    /**
+     * Gets the Zobrist key of the position, which is kept up to date as dice move.
+     * @return the key of the dice on the board and the player who moves next
+     */
+    public long getHash() {
+        return bits.getHash();
+    }
+
+    /**
+     * Gets the player who moves next. applyMove() hands the turn to the other player; otherwise it is set by the game.
+     * @return H or C
+     */
+    public char getSideToMove() {
+        return bits.getSideToMove();
+    }
+
+    /**
+     * Sets the player who moves next.
+     * @param playerType H or C
+     */
+    public void setSideToMove(char playerType) {
+        bits.setSideToMove(playerType);
+    }
+
+    /**
+     * Gets the bitboard that is kept in step with the board. It must not be changed by the caller.
+     * @return the bitboard of the board
+     */
+    BitBoard getBitBoard() {
+        return bits;
+    }
+
+    /**
+     * Sets up dice in their starting positions, as if a new round of Duell was just started.
+     */
+    public void newGameSetUp() {
+        // Place all the human player's dice.
+        placeDie(new Die(5, 6, 'H'), 1, 1);
+        placeDie(new Die(1, 5, 'H'), 1, 2);
+        placeDie(new Die(2, 1, 'H'), 1, 3);
+        placeDie(new Die(6, 2, 'H'), 1, 4);
+        placeDie(new Die(1, 1, 'H'), 1, 5);
+        placeDie(new Die(6, 2, 'H'), 1, 6);
+        placeDie(new Die(2, 1, 'H'), 1, 7);
+        placeDie(new Die(1, 5, 'H'), 1, 8);
+        placeDie(new Die(5, 6, 'H'), 1, 9);
+        // Place all the computer player's dice.
+        placeDie(new Die(5, 6, 'C'), 8, 1);
+        placeDie(new Die(1, 5, 'C'), 8, 2);
+        placeDie(new Die(2, 1, 'C'), 8, 3);
+        placeDie(new Die(6, 2, 'C'), 8, 4);
+        placeDie(new Die(1, 1, 'C'), 8, 5);
+        placeDie(new Die(6, 2, 'C'), 8, 6);
+        placeDie(new Die(2, 1, 'C'), 8, 7);
+        placeDie(new Die(1, 5, 'C'), 8, 8);
+        placeDie(new Die(5, 6, 'C'), 8, 9);
+    }
+
+    /**
+     * Places a die on the given coordinates.
+     *
+     * @param die    the die that will be placed on the board
+     * @param row    the row coordinate to place the die on
+     * @param column the column coordinate to place the die on
+     */
+    public void placeDie(Die die, int row, int column) {
+        boardModel[row - 1][column - 1].placeDie(die);
+        bits.placeDie(BitBoard.square(row, column), die.getPlayerType(), die.getOrientation());
+        updateAttacks(BitBoard.square(row, column), BitBoard.square(row, column));
+    }
+
+    /**
+     * To perform a roll in the specified direction to another space on the board.
+     *
+     * @param row       the row coordinate to place the die on
+     * @param column    the column coordinate to place the die on
+     * @param direction the direction to roll the die in
+     * @return a boolean that determines if the roll is successful or not
+     */
+    public boolean performRoll(int row, int column, String direction) {
+        if (direction.equals("up")) {
+            boardModel[row - 1][column - 1].moveDie(boardModel[row][column - 1], "up");
+            recordRoll(row, column, row + 1, column);
+            return true;
+        }
+        if (direction.equals("down")) {
+            boardModel[row - 1][column - 1].moveDie(boardModel[row - 2][column - 1], "down");
+            recordRoll(row, column, row - 1, column);
+            return true;
+        }
+        if (direction.equals("left")) {
+            boardModel[row - 1][column - 1].moveDie(boardModel[row - 1][column - 2], "left");
+            recordRoll(row, column, row, column - 1);
+            return true;
+        }
+        if (direction.equals("right")) {
+            boardModel[row - 1][column - 1].moveDie(boardModel[row - 1][column], "right");
+            recordRoll(row, column, row, column + 1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Makes a move on the board in one step, without rolling the die one space at a time. The move is assumed to be legal.
+     *
+     * @param move the move to make
+     * @return a record that can be passed to undoMove() to take the move back
+     */
+    public MoveUndo applyMove(Move move) {
+        MoveUndo undo = new MoveUndo();
+        applyMove(move.toInt(), undo);
+        return undo;
+    }
+
+    /**
+     * Makes a packed move on the board in one step, filling in a record that already exists instead of creating one.
+     *
+     * @param move the packed move to make
+     * @param undo the record to fill in, which can be passed to undoMove() to take the move back, or null if the move
+     *             will not be taken back
+     */
+    public void applyMove(int move, MoveUndo undo) {
+        int dieSquare = Move.dieSquare(move);
+        int spaceSquare = Move.spaceSquare(move);
+        Space from = boardModel[dieSquare / BitBoard.COLUMNS][dieSquare % BitBoard.COLUMNS];
+        Space to = boardModel[spaceSquare / BitBoard.COLUMNS][spaceSquare % BitBoard.COLUMNS];
+        Die die = from.getDie();
+        // Remember what the move changes before making it.
+        if (undo != null) undo.record(move, die, to.getDie(), bits.getSideToMove());
+        // The die ends up in the same orientation as if it had been rolled one space at a time.
+        die.setOrientation(rollAlong(die.getOrientation(), move));
+        from.clearSpace();
+        to.placeDie(die);
+        bits.moveDie(dieSquare, spaceSquare, die.getOrientation());
+        updateAttacks(dieSquare, spaceSquare);
+        // It is now the other player's turn.
+        bits.setSideToMove(die.getPlayerType() == 'H' ? 'C' : 'H');
+    }
+
+    /**
+     * Takes back the last move made with applyMove(), putting the board back exactly as it was.
+     *
+     * @param undo the record filled in by applyMove()
+     */
+    public void undoMove(MoveUndo undo) {
+        int dieSquare = Move.dieSquare(undo.getPackedMove());
+        int spaceSquare = Move.spaceSquare(undo.getPackedMove());
+        Die die = undo.getMovedDie();
+        // Put the die back where it started, in the orientation it started in.
+        die.setOrientation(undo.getPriorOrientation());
+        boardModel[dieSquare / BitBoard.COLUMNS][dieSquare % BitBoard.COLUMNS].placeDie(die);
+        bits.placeDie(dieSquare, die.getPlayerType(), die.getOrientation());
+        // Put back the captured die, if there was one.
+        Space to = boardModel[spaceSquare / BitBoard.COLUMNS][spaceSquare % BitBoard.COLUMNS];
+        if (undo.isCapture()) {
+            Die captured = undo.getCapturedDie();
+            to.placeDie(captured);
+            bits.placeDie(spaceSquare, captured.getPlayerType(), captured.getOrientation());
+        }
+        else {
+            to.clearSpace();
+            bits.removeDie(spaceSquare);
+        }
+        updateAttacks(dieSquare, spaceSquare);
+        bits.setSideToMove(undo.getPriorSideToMove());
+    }
+
+    /**
+     * Gets the orientation a die ends up in after rolling along the path of a packed move.
+     *
+     * @param orientation the orientation of the die before the move
+     * @param move the packed move the die makes
+     * @return the orientation of the die after the move
+     */
+    public static byte rollAlong(byte orientation, int move) {
+        int dieSquare = Move.dieSquare(move);
+        int spaceSquare = Move.spaceSquare(move);
+        int rowRolls = spaceSquare / BitBoard.COLUMNS - dieSquare / BitBoard.COLUMNS;
+        int columnRolls = spaceSquare % BitBoard.COLUMNS - dieSquare % BitBoard.COLUMNS;
+        int frontalDirection = rowRolls > 0 ? Die.UP : Die.DOWN;
+        int lateralDirection = columnRolls > 0 ? Die.RIGHT : Die.LEFT;
+        rowRolls = Math.abs(rowRolls);
+        columnRolls = Math.abs(columnRolls);
+        if (Move.isFrontalFirst(move)) {
+            for (int i = 0; i < rowRolls; i++) orientation = Die.roll(orientation, frontalDirection);
+            for (int i = 0; i < columnRolls; i++) orientation = Die.roll(orientation, lateralDirection);
+        }
+        else {
+            for (int i = 0; i < columnRolls; i++) orientation = Die.roll(orientation, lateralDirection);
+            for (int i = 0; i < rowRolls; i++) orientation = Die.roll(orientation, frontalDirection);
+        }
+        return orientation;
+    }
+
+    /**
+     * Determines if there is a die on the coordinates in the parameters
+     *
+     * @param row    the row coordinate to check if there is a die on
+     * @param column the column coordinate to check if there is a die on
+     * @return a boolean that determines if there is a die on the space given by the coordinates
+     */
+    public boolean isDieOn(int row, int column) {
+        return bits.isOccupied(BitBoard.square(row, column));
+    }
+
+    /**
+     * Determines if the die on the space is of the player type in the parameters or not
+     *
+     * @param row        the row coordinate to check if the die is of a player type
+     * @param column     the column coordinate to check if the die is of a player type
+     * @param playerType the player type to check if the die on the space is
+     * @return a boolean that determines if the die on the space is of playerType or not
+     */
+    public boolean isDiePlayerType(int row, int column, char playerType) {
+        return bits.isPlayerType(BitBoard.square(row, column), playerType);
+    }
+
+    /**
+     * Determines if there is a win condition that is met on the board
+     *
+     * @return 1 if the human is on the computer's key space, 2 if the computer is on the human's key space, 3 if the
+     * computer's key die was captured, 4 if the human's key die was captured, or 0 if nobody has won yet
+     */
+    public int checkWinCondition() {
+        // The board keeps track of its key dice as they move and are captured, so there is no need to look for them.
+        return bits.getWinCondition();
+    }
+
+    /**
+     * Gets the square a player's key die is on. The board keeps track of it as dice move and are captured, so this
+     * never has to look through the board.
+     *
+     * @param playerType the player who controls the key die
+     * @return the square, from 0 to 71, or -1 if the key die has been captured
+     */
+    public int getKeyDieSquare(char playerType) {
+        return bits.findKeyDie(playerType);
+    }
+
+    /**
+     * Gets the row coordinate of a player's key die.
+     *
+     * @param playerType the player who controls the key die
+     * @return the row coordinate, or 0 if the key die has been captured
+     */
+    public int getKeyDieRow(char playerType) {
+        int square = bits.findKeyDie(playerType);
+        return square == -1 ? 0 : BitBoard.rowOf(square);
+    }
+
+    /**
+     * Gets the column coordinate of a player's key die.
+     *
+     * @param playerType the player who controls the key die
+     * @return the column coordinate, or 0 if the key die has been captured
+     */
+    public int getKeyDieColumn(char playerType) {
+        int square = bits.findKeyDie(playerType);
+        return square == -1 ? 0 : BitBoard.columnOf(square);
+    }
+
+    /**
+     * Gets the map of the squares each die can move to and each player attacks, building it if this is the first time
+     * it has been asked for since the board was cleared. It must not be changed by the caller.
+     *
+     * @return the attack map of the board
+     */
+    public AttackMap getAttackMap() {
+        if (!attacksValid) {
+            attacks.reset(bits);
+            attacksValid = true;
+        }
+        return attacks;
+    }
+
+    /**
+     * Determines if any of a player's dice can move to a space, capturing whatever die of the opponent is on it.
+     *
+     * @param row        the row coordinate of the space
+     * @param column     the column coordinate of the space
+     * @param playerType the player whose dice are checked
+     * @return a boolean that is true if the space is attacked
+     */
+    public boolean isSpaceAttacked(int row, int column, char playerType) {
+        return getAttackMap().isAttacked(BitBoard.square(row, column), playerType);
+    }
+
+    /**
+     * Determines if the die on the space is a key die
+     *
+     * @param row    the row coordinate to check if the die is a key die
+     * @param column the column coordinate to check if the die is a key die
+     * @return a boolean that determines if the die on the space is a key die or not
+     */
+    public boolean isKeyDie(int row, int column) {
+        // Only the key die has its own orientation, so there's no need to look at its numbers.
+        return bits.isKeyDie(BitBoard.square(row, column));
+    }
+
+    /**
+     * To return the name of the die in the coordinates in the parameters
+     * @param row    the row coordinate to get the die name of
+     * @param column the column coordinate to get the die name of
+     * @return the name of the die on the space
+     */
+    public String getDieName(int row, int column) {
+        // Get the top and right numbers of the die on the space.
+        int topNum = boardModel[row - 1][column - 1].getDieTopNum();
+        int rightNum = 0;
+        char playerType = boardModel[row - 1][column - 1].getDiePlayerType();
+        // If the playerType is H (human), get the right number. Otherwise, it's the computer. Get the left number.
+        if (playerType == 'H') rightNum = boardModel[row - 1][column - 1].getDieRightNum();
+        else rightNum = boardModel[row - 1][column - 1].getDieLeftNum();
+        // Convert to strings, concatenate together, and return the concatenated string.
+        return Character.toString(playerType) + Integer.toString(topNum) + Integer.toString(rightNum);
+    }
+
+    /**
+     * To get the top number of the die on the coordinates in the parameters
+     * @param row the row coordinate to get the top number of
+     * @param column the column coordinate to get the top number of
+     * @return the top number of the die on the space
+     */
+    public int getDieTopNum(int row, int column)
+    {
+        return boardModel[row-1][column-1].getDieTopNum();
+    }
+
+    /**
+     * Updates the bitboard after a die was rolled from one space to a neighbouring one.
+     * @param row the row coordinate the die was rolled from
+     * @param column the column coordinate the die was rolled from
+     * @param spaceRow the row coordinate the die was rolled to
+     * @param spaceColumn the column coordinate the die was rolled to
+     */
+    private void recordRoll(int row, int column, int spaceRow, int spaceColumn) {
+        bits.moveDie(BitBoard.square(row, column), BitBoard.square(spaceRow, spaceColumn),
+                boardModel[spaceRow - 1][spaceColumn - 1].getDieOrientation());
+        updateAttacks(BitBoard.square(row, column), BitBoard.square(spaceRow, spaceColumn));
+    }
+
+    /**
+     * Brings the attack map up to date after the dice on one or two squares have changed, if it has been built.
+     *
+     * @param first a square that changed
+     * @param second another square that changed, or the same square again
+     */
+    private void updateAttacks(int first, int second) {
+        if (attacksValid) attacks.update(bits, first, second);
+    }
+
+    public static void main(String[] args) {
+        Board model = new Board();
+        model.newGameSetUp();
+        System.out.println(model.getDieName(1, 5));
+    }
+}
@@ -0,0 +1,658 @@
+package leier.bryan.duell.model;
+import static java.lang.Math.abs;
+
+/**
+ * Created by Bryan on 11/15/2016.
+ */
+
+public class Computer extends Player {
+    // The ways the computer can decide on a move: the one-move heuristics, or a search several moves ahead.
+    public static final String STRATEGY_HEURISTIC = "heuristic";
+    public static final String STRATEGY_SEARCH = "search";
+    // A Monte Carlo tree search that plays many games out on every core.
+    public static final String STRATEGY_MCTS = "mcts";
+    // The size of the transposition table, in MB, unless it is changed with setHashSize().
+    public static final int DEFAULT_HASH_MEGABYTES = 8;
+    // How long the search may think about each move, in milliseconds, unless it is changed with setTimeLimit().
+    public static final long DEFAULT_TIME_LIMIT = 1000;
+    // The longest the computer ponders during one of the human's turns, so a game left open does not drain the battery.
+    public static final long PONDER_TIME_LIMIT = 10 * 60 * 1000;
+
+    // The dice the computer controls. This is C in a game against a human, but either side in a simulated game.
+    private char playerType = 'C';
+    // The way the computer decides on a move.
+    private String strategy = STRATEGY_HEURISTIC;
+    // The strategy behind the last move chooseMove() decided on, which printMove() explains.
+    private String chosenStrategy = "random";
+    // The size of the transposition table, in MB.
+    private int hashMegabytes = DEFAULT_HASH_MEGABYTES;
+    // Search results the computer keeps from one turn to the next. Only created once it is needed.
+    private volatile TranspositionTable transpositionTable;
+    // How long the search may think about each move, in milliseconds.
+    private long timeLimit = DEFAULT_TIME_LIMIT;
+    // The search used by the search strategy. Only created once it is needed, on the thread the computer thinks on, and
+    // read from the UI thread to show progress and to stop it.
+    private volatile SearchEngine searchEngine;
+    // The Monte Carlo tree search used by the mcts strategy. Created and read like searchEngine.
+    private volatile MonteCarloSearch monteCarloSearch;
+    // How many threads the Monte Carlo tree search grows its trees on.
+    private int searchThreads = Runtime.getRuntime().availableProcessors();
+    // The search that ponders during the human's turn. It shares the transposition table with searchEngine.
+    private SearchEngine ponderEngine;
+    // The thread the computer ponders on, or null if it is not pondering.
+    private Thread ponderThread;
+    // The move the ponder expects the human to make, or Move.NONE if it has not guessed one.
+    private int predictedMove = Move.NONE;
+    // The key of the position after the predicted move, the reply the ponder found to it, and how long it thought about
+    // the reply in milliseconds. The reply is Move.NONE if the ponder did not get that far.
+    private long ponderedKey;
+    private int ponderedMove = Move.NONE;
+    private long ponderedMillis;
+    // Positions from games already played, looked up before the computer thinks, or null if there are none.
+    private volatile PositionDatabase positionDatabase;
+    // The moves worked out ahead of time for the first plies of a game, or null if there is no book.
+    private volatile OpeningBook openingBook;
+
+    // GUI components... later.
+
+    /**
+     * Default constructor.
+     */
+    public Computer()
+    {
+        // Give the computer its name.
+        this.playerName = "Computer";
+    }
+
+    /**
+     * Constructor that lets the computer control either player's dice, so that two computers can play each other.
+     * @param playerType the player whose dice the computer controls, H or C
+     */
+    public Computer(char playerType)
+    {
+        this();
+        this.playerType = playerType;
+    }
+
+    /**
+     * Gets the player whose dice the computer controls.
+     * @return playerType of the Computer
+     */
+    public char getPlayerType()
+    {
+        return playerType;
+    }
+
+    /**
+     * Sets the seed of the computer's random numbers, so that its games can be played again exactly.
+     * @param seed the seed
+     */
+    @Override
+    public void setSeed(long seed)
+    {
+        super.setSeed(seed);
+        // The Monte Carlo tree search takes its seed when it is created, so create it again from the new seed.
+        MonteCarloSearch mcts = monteCarloSearch;
+        if (mcts != null) mcts.shutdown();
+        monteCarloSearch = null;
+    }
+
+    /**
+     * The play() function that lets the computer play the game of Duell.
+     * @param board the board that the computer will play on
+     * @return a message displaying the move the computer just made
+     */
+    public String play(Board board)
+    {
+        return makeChosenMove(board, chooseMove(board));
+    }
+
+    /**
+     * Decides on the move the computer wants to make without making it. The board is only read, so this can be run on a
+     * copy of the board while the game keeps showing the real one.
+     * @param board the board that the computer will play on
+     * @return the packed move, including which direction to roll in first, or Move.NONE if the computer cannot move
+     */
+    public int chooseMove(Board board)
+    {
+        // The packed move the computer will make.
+        int move;
+        // If the game is still in the opening book, play one of its moves instead of thinking.
+        OpeningBook book = openingBook;
+        if (book != null)
+        {
+            BitBoard bits = board.toBitBoard();
+            bits.setSideToMove(playerType);
+            move = book.findMove(bits, random);
+            if (move != Move.NONE)
+            {
+                return chosen(board, move, "book");
+            }
+        }
+        // If the position came up in games already played, make the move that did best there instead of thinking.
+        PositionDatabase database = positionDatabase;
+        if (database != null)
+        {
+            BitBoard bits = board.toBitBoard();
+            bits.setSideToMove(playerType);
+            move = database.findMove(bits);
+            if (move != Move.NONE)
+            {
+                return chosen(board, move, "database");
+            }
+        }
+        // If the computer is set to search, let the search pick the move, including which way to roll first.
+        if (strategy.equals(STRATEGY_SEARCH))
+        {
+            BitBoard bits = board.toBitBoard();
+            bits.setSideToMove(playerType);
+            SearchEngine engine = getSearchEngine();
+            // If the human made the move the ponder expected, the reply has already been thought about for as long as
+            // the human took. Only search for whatever is left of the time limit, if anything.
+            int pondered = ponderedMove;
+            ponderedMove = Move.NONE;
+            if (pondered != Move.NONE && bits.getHash() == ponderedKey)
+            {
+                if (ponderedMillis >= timeLimit) return chosen(board, pondered, "search");
+                engine.setTimeLimit(timeLimit - ponderedMillis);
+                try
+                {
+                    move = engine.findMove(bits);
+                }
+                finally
+                {
+                    engine.setTimeLimit(timeLimit);
+                }
+            }
+            // Otherwise, search as usual. The table still holds what the ponder found about the other moves.
+            else move = engine.findMove(bits);
+            if (move != Move.NONE) return chosen(board, move, "search");
+        }
+        // If the computer is set to use Monte Carlo tree search, let it pick the move, including which way to roll first.
+        if (strategy.equals(STRATEGY_MCTS))
+        {
+            move = getMonteCarloSearch().findMove(board, playerType);
+            if (move != Move.NONE) return chosen(board, move, "mcts");
+        }
+        // The computer needs to decide which die to move. For this, it will look to see if specific scenarios are true or not.
+        // The key die results in an immediate win, so find where the human's key die is. If it can be captured, do it.
+        move = captureKeyDieScore(board, playerType);
+        if (move != Move.NONE)
+        {
+            // Make the move to capture the key die.
+            return chosen(board, move, "keyDieCapture");
+        }
+        // Key space capture results in a win as well, so see if the computer can travel to it.
+        move = captureKeySpaceScore(board, playerType);
+        if (move != Move.NONE)
+        {
+            // Make the move to capture the key space.
+            return chosen(board, move, "keySpaceCapture");
+        }
+        // The computer must also make moves to play defensively if it detects that the human could possibly win.
+        // If a human's die is close to the computer's key die, block the capture or move the die.
+        move = blockKeyDieScore(board, playerType);
+        if (move != Move.NONE)
+        {
+            // Make the move to block the key die capture.
+            return chosen(board, move, "blockKeyDie");
+        }
+        // If a human's die is close to the computer's key space, block the capture.
+        move = blockKeySpaceScore(board, playerType);
+        if (move != Move.NONE)
+        {
+            // Make the move to block the key space capture.
+            return chosen(board, move, "blockKeySpace");
+        }
+        // If the code flow is at this point, there's no reason to play defensively. Seek a die to capture.
+        move = captureDieScore(board, playerType);
+        if (move != Move.NONE)
+        {
+            // Make the move to capture the die.
+            return chosen(board, move, "dieCapture");
+        }
+        // Otherwise, random move.
+        else
+        {
+            // Randomly move a die to random coordinates.
+            move = randomMove(board, playerType);
+            // Make the move.
+            return chosen(board, move, "random");
+        }
+    }
+
+    /**
+     * Gets how far ahead the computer has looked so far while it is thinking. Safe to call from another thread.
+     * @return the depth of the search in plies, or 0 if the computer is not searching
+     */
+    public int getThinkingDepth()
+    {
+        SearchEngine engine = searchEngine;
+        if (engine == null || !strategy.equals(STRATEGY_SEARCH)) return 0;
+        return engine.getCompletedDepth();
+    }
+
+    /**
+     * Stops the computer from thinking about its move, if it is searching. chooseMove() returns its best move so far.
+     */
+    public void stopThinking()
+    {
+        // Read each engine once, as the computer thread can create them at any time.
+        SearchEngine engine = searchEngine;
+        if (engine != null) engine.stop();
+        MonteCarloSearch mcts = monteCarloSearch;
+        if (mcts != null) mcts.stop();
+        stopPondering();
+    }
+
+    /**
+     * Thinks on a background thread while the human decides on their move. A short search guesses the human's move, and
+     * the rest of the time goes into the reply to it. If the human makes that move, chooseMove() takes the reply without
+     * searching it again. The results also go into the transposition table, which helps with the other moves. Does
+     * nothing unless the computer is set to search.
+     * @param board the board the human is about to move on. It is copied, so the board can change while pondering
+     */
+    public void startPondering(Board board)
+    {
+        if (!strategy.equals(STRATEGY_SEARCH)) return;
+        stopPondering();
+        predictedMove = Move.NONE;
+        ponderedMove = Move.NONE;
+        if (ponderEngine == null) ponderEngine = new SearchEngine(getTranspositionTable());
+        // Search from the opponent's point of view, as it is their move.
+        final BitBoard bits = board.toBitBoard();
+        bits.setSideToMove(playerType == 'H' ? 'C' : 'H');
+        final SearchEngine engine = ponderEngine;
+        // A quarter of the computer's own time is enough to guess the human's move.
+        final long predictTime = Math.max(1, timeLimit / 4);
+        // Take the stop count here rather than on the ponder thread, so stopPondering() stops the search even if it is
+        // called before the thread gets going.
+        final int stopCount = engine.getStopCount();
+        ponderThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ponder(engine, bits, predictTime, stopCount);
+            }
+        }, "ponder");
+        // Pondering should never keep the application alive.
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    /**
+     * Guesses the human's move, then thinks about the reply to it until the ponder is stopped. Runs on the ponder thread.
+     * @param engine the ponder's search
+     * @param bits the board the human is about to move on, with the human to move
+     * @param predictTime how long to spend guessing the human's move, in milliseconds
+     * @param stopCount the search's stop count when the ponder was started
+     */
+    private void ponder(SearchEngine engine, BitBoard bits, long predictTime, int stopCount)
+    {
+        engine.setTimeLimit(predictTime);
+        int predicted = engine.findMove(bits, stopCount);
+        if (predicted == Move.NONE || engine.getStopCount() != stopCount) return;
+        predictedMove = predicted;
+        Board after = new Board(bits);
+        after.applyMove(predicted, null);
+        if (after.checkWinCondition() != 0) return;
+
+        BitBoard reply = after.toBitBoard();
+        reply.setSideToMove(playerType);
+        engine.setTimeLimit(PONDER_TIME_LIMIT);
+        long start = System.currentTimeMillis();
+        int move = engine.findMove(reply, stopCount);
+        // stopPondering() joins this thread before these are read.
+        ponderedKey = reply.getHash();
+        ponderedMillis = System.currentTimeMillis() - start;
+        ponderedMove = move;
+    }
+
+    /**
+     * Gets the move the last ponder expected the human to make.
+     * @return the packed move, or Move.NONE if the ponder did not get as far as guessing one
+     */
+    int getPredictedMove()
+    {
+        return predictedMove;
+    }
+
+    /**
+     * Stops pondering and waits for the ponder thread to finish.
+     */
+    public void stopPondering()
+    {
+        if (ponderThread == null) return;
+        ponderEngine.stop();
+        try
+        {
+            ponderThread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        ponderThread = null;
+    }
+
+    /**
+     * Sets how much memory the computer may use to remember search results.
+     * @param megabytes the size of the transposition table in MB
+     */
+    public void setHashSize(int megabytes)
+    {
+        hashMegabytes = megabytes;
+        // Resize the table if it already exists. Otherwise it will be created at this size.
+        if (transpositionTable != null) transpositionTable.resize(megabytes);
+    }
+
+    /**
+     * Gets the table the computer keeps search results in, creating it the first time it is needed.
+     * @return the transposition table
+     */
+    public TranspositionTable getTranspositionTable()
+    {
+        TranspositionTable table = transpositionTable;
+        if (table == null)
+        {
+            table = new TranspositionTable(hashMegabytes);
+            transpositionTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Sets the way the computer decides on a move.
+     * @param strategy STRATEGY_HEURISTIC, STRATEGY_SEARCH or STRATEGY_MCTS
+     */
+    public void setStrategy(String strategy)
+    {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Gets the way the computer decides on a move.
+     * @return strategy of the Computer
+     */
+    public String getStrategy()
+    {
+        return strategy;
+    }
+
+    /**
+     * Sets the positions the computer looks up before it thinks about a move. Safe to call while the computer is
+     * thinking, in which case the database is used from its next move.
+     * @param positionDatabase the database, or null to always think
+     */
+    public void setPositionDatabase(PositionDatabase positionDatabase)
+    {
+        this.positionDatabase = positionDatabase;
+    }
+
+    /**
+     * Sets the opening book the computer plays from before it looks anything else up. Safe to call while the computer
+     * is thinking, in which case the book is used from its next move.
+     * @param openingBook the book, or null to play the opening like any other position
+     */
+    public void setOpeningBook(OpeningBook openingBook)
+    {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Gets the strategy behind the last move chooseMove() decided on, which is what printMove() explains.
+     * @return keyDieCapture, keySpaceCapture, blockKeyDie, blockKeySpace, dieCapture, random, search, mcts, database or
+     * book
+     */
+    public String getChosenStrategy()
+    {
+        return chosenStrategy;
+    }
+
+    /**
+     * Sets how long the search may think about each move.
+     * @param milliseconds the time limit in milliseconds
+     */
+    public void setTimeLimit(long milliseconds)
+    {
+        timeLimit = milliseconds;
+        SearchEngine engine = searchEngine;
+        if (engine != null) engine.setTimeLimit(milliseconds);
+        MonteCarloSearch mcts = monteCarloSearch;
+        if (mcts != null) mcts.setTimeLimit(milliseconds);
+    }
+
+    /**
+     * Sets how many threads the Monte Carlo tree search grows its trees on. Use 1 when several computers play at once,
+     * such as in a parallel tournament, so they do not fight over the cores.
+     * @param threads the number of threads, at least 1
+     */
+    public void setSearchThreads(int threads)
+    {
+        searchThreads = Math.max(1, threads);
+        // The search takes its number of threads when it is created, so create it again when it is next needed.
+        MonteCarloSearch mcts = monteCarloSearch;
+        if (mcts != null) mcts.shutdown();
+        monteCarloSearch = null;
+    }
+
+    /**
+     * Stops pondering and stops the threads of the Monte Carlo tree search. Call this once the computer is no longer
+     * needed. It can still be used afterwards, as the threads are started again when they are needed.
+     */
+    public void shutdown()
+    {
+        stopPondering();
+        MonteCarloSearch mcts = monteCarloSearch;
+        if (mcts != null) mcts.shutdown();
+    }
+
+    /**
+     * Gets the Monte Carlo tree search used by the mcts strategy, creating it the first time it is needed.
+     * @return the Monte Carlo tree search
+     */
+    public MonteCarloSearch getMonteCarloSearch()
+    {
+        MonteCarloSearch mcts = monteCarloSearch;
+        if (mcts == null)
+        {
+            // Set it up before it can be seen from the UI thread.
+            mcts = new MonteCarloSearch(searchThreads, random.nextLong());
+            mcts.setTimeLimit(timeLimit);
+            monteCarloSearch = mcts;
+        }
+        return mcts;
+    }
+
+    /**
+     * Gets the search used by the search strategy, creating it the first time it is needed.
+     * @return the search engine
+     */
+    public SearchEngine getSearchEngine()
+    {
+        SearchEngine engine = searchEngine;
+        if (engine == null)
+        {
+            // Set it up before it can be seen from the UI thread.
+            engine = new SearchEngine(getTranspositionTable());
+            engine.setTimeLimit(timeLimit);
+            searchEngine = engine;
+        }
+        return engine;
+    }
+
+    // test function
+    public static void main(String [] args)
+    {
+        Board model = new Board();
+        model.newGameSetUp();
+        Computer test = new Computer();
+        test.play(model);
+    }
+
+    /**
+     * Records the strategy behind a move the computer has decided on, and decides which direction to roll in first.
+     * @param board the board the move will be made on
+     * @param move the packed move the computer wants to make. Its direction is decided here, unless it was searched for
+     * @param strategy the strategy that the computer uses to make the move
+     * @return the packed move with its direction, or Move.NONE if it cannot be made
+     */
+    private int chosen(Board board, int move, String strategy)
+    {
+        chosenStrategy = strategy;
+        // Decide which direction to roll in first. If both ways are possible, the computer will randomly decide. The
+        // searches, the position database and the opening book have already picked one, since each way leaves the die in
+        // a different orientation.
+        if (!strategy.equals("search") && !strategy.equals("mcts") && !strategy.equals("database")
+                && !strategy.equals("book"))
+        {
+            move = chooseDirection(board, move, playerType);
+        }
+        return move;
+    }
+
+    /**
+     * Performs the move that the computer decided on with chooseMove()
+     * @param board the board to make a move on
+     * @param move the packed move returned by chooseMove()
+     * @return a string that contains the move the computer decided to make
+     */
+    public String makeChosenMove(Board board, int move)
+    {
+        // somehow we got here. return error
+        if (move == Move.NONE) return "error";
+        // The coordinates of the die and the space to move to.
+        int dieRow = BitBoard.rowOf(Move.dieSquare(move));
+        int dieColumn = BitBoard.columnOf(Move.dieSquare(move));
+        int spaceRow = BitBoard.rowOf(Move.spaceSquare(move));
+        int spaceColumn = BitBoard.columnOf(Move.spaceSquare(move));
+        // Get the name of the die before it is moved.
+        String dieNameBefore = board.getDieName(dieRow, dieColumn);
+        // Make the move.
+        makeMove(board, move);
+        // Get the name of the die after it is moved.
+        String dieNameAfter = board.getDieName(spaceRow, spaceColumn);
+        // Print the computer's move.
+        return printMove(dieNameBefore, dieNameAfter, dieRow, dieColumn, spaceRow, spaceColumn, Move.getDirection(move),
+                chosenStrategy);
+    }
+
+    /**
+     * Prints the move that the computer made to the console
+     * @param dieNameBefore the name of the die before it was moved
+     * @param dieNameAfter the name of the die after it was moved
+     * @param dieRow the row of the die before it was moved
+     * @param dieColumn the column of the die before it was moved
+     * @param spaceRow the row of the die after it was moved
+     * @param spaceColumn the column of the die after it was moved
+     * @param direction the direction the die initially moved in
+     * @param strategy the strategy used to make the move
+     * @return the move the computer made
+     */
+    private String printMove(String dieNameBefore, String dieNameAfter, int dieRow, int dieColumn, int spaceRow, int spaceColumn,
+                           String direction, String strategy)
+    {
+        // Determine how many spaces the die was rolled frontally and laterally.
+        int rowRolls = abs(spaceRow - dieRow);
+        int columnRolls = abs(spaceColumn - dieColumn);
+
+        // Start printing out the sentence that describes the move.
+        String computerMove = "The computer picked " + dieNameBefore + " at (" + Integer.toString(dieRow) + "," +
+                Integer.toString(dieColumn) + ") to roll because ";
+
+        // The strategy is passed into the parameters from the score function that determines the strategy.
+        if (strategy.equals("keyDieCapture"))
+            // The die picked was within reach of the key die, and that is why it was moved.
+            computerMove += "it was within distance of the human's key die.";
+        if (strategy.equals("keySpaceCapture"))
+            // The die picked was within reach of the key space, and that is why it was moved.
+            computerMove += "it was within distance of the human's key space.";
+        if (strategy.equals("blockKeyDie"))
+            // The die picked was needed to block a key die capture.
+            computerMove += "the key die was in danger of being captured, and the capture needed to be blocked.";
+        if (strategy.equals("blockKeySpace"))
+            // The die picked was needed to block a key space capture.
+            computerMove += "the key space was in danger of being captured, and the capture needed to be blocked.";
+        if (strategy.equals("dieCapture"))
+            // The die picked was within reach of an enemy die that could be captured.
+            computerMove += "it was within distance of a human's die that was able to be captured.";
+        if (strategy.equals("random"))
+            // Random move.
+            computerMove += "the computer could not determine a decisive move to make, so it is making a move at random.";
+        if (strategy.equals("search"))
+            // The die picked led to the best position the search could find.
+            computerMove += "looking ahead at the moves that could follow, moving it led to the best position.";
+        if (strategy.equals("mcts"))
+            // The die picked won the most simulated games.
+            computerMove += "in games played out from here, moving it won the most often.";
+        if (strategy.equals("database"))
+            // The die picked did best from this position in games already played.
+            computerMove += "it did best from this position in the games the computer has learned from.";
+        if (strategy.equals("book"))
+            // The die picked is one of the opening moves that scored best in games played out ahead of time.
+            computerMove += "it is one of the opening moves that won the most games played out ahead of time.";
+
+        // Continue to print the computer's move.
+        computerMove += "\nIt rolled it ";
+
+        // Now print how the die was rolled. Use the direction passed into the function to determine how the die was rolled.
+        if (direction.equals("frontally"))
+        {
+            computerMove += "frontally by " + Integer.toString(rowRolls);
+            // If columnRolls is not 0, it was then rolled laterally. Display that roll as well.
+            if (columnRolls != 0)
+            {
+                computerMove += " and laterally by " + Integer.toString(columnRolls);
+            }
+        }
+        // Otherwise, it was rolled laterally.
+        else
+        {
+            computerMove += "laterally by " + Integer.toString(columnRolls);
+            // If rowRolls is not 0, it was then rolled frontally. Display that roll as well.
+            if (rowRolls != 0)
+            {
+                computerMove += " and frontally by " + Integer.toString(rowRolls);
+            }
+        }
+
+        // Print the rest of the sentence depending on the strategy.
+        computerMove += " because ";
+
+        if (strategy.equals("keyDieCapture"))
+            // The die picked was able to capture the key die.
+            computerMove += "those movements allowed it to move to the coordinates of the key die.";
+        if (strategy.equals("keySpaceCapture"))
+            // The die picked was able to cpature the key space.
+            computerMove += "those movements allowed it to move to the coordinates of the key space.";
+        if (strategy.equals("blockKeyDie"))
+            // The die picked blocked a key die capture.
+            computerMove += "those movements were able to block a key die capture.";
+        if (strategy.equals("blockKeySpace"))
+            // The die picked blocked a key space capture.
+            computerMove += "those movements were able to block a key space capture.";
+        if (strategy.equals("dieCapture"))
+            // The die picked was able to capture an enemy die.
+            computerMove += "those movements allowed it to move to the coordinates of the die it wants to capture.";
+        if (strategy.equals("random"))
+            // Random move.
+            computerMove += "the die was able to move that way without any problems.";
+        if (strategy.equals("search"))
+            // The direction picked leaves the die in the orientation the search wanted.
+            computerMove += "rolling that way leaves the die with the best numbers for the moves that follow.";
+        if (strategy.equals("mcts"))
+            // The direction picked won the most simulated games.
+            computerMove += "rolling that way won the most games that were played out.";
+        if (strategy.equals("database"))
+            // The direction picked is the one that was played in those games.
+            computerMove += "that is how it was rolled in those games.";
+        if (strategy.equals("book"))
+            // The direction picked is the one the book move was scored with.
+            computerMove += "that is how the opening move was rolled in those games.";
+
+        // Finish up the statement.
+        computerMove += "\nThe die is now " + dieNameAfter + " at (" + Integer.toString(spaceRow) + "," +
+                Integer.toString(spaceColumn) + ").";
+
+        return computerMove;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,308 @@
+package leier.bryan.duell.model;
+
+/**
+ * Created by Bryan on 11/2/2016.
+ */
+
+public class Die {
+
+    // The directions a die can be rolled in. These are the column indexes of the roll transition table.
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+
+    // The number of ways a regular die can sit on a space.
+    public static final int ORIENTATIONS = 24;
+    // The key die has 1 on every side, so it gets one extra orientation of its own that never changes when rolled.
+    public static final byte KEY_ORIENTATION = 24;
+    // The orientation of a die with 1 on the top, 5 on the right and 3 facing the player.
+    public static final byte DEFAULT_ORIENTATION = 0;
+
+    // Indexes of each side in the arrays used to build the tables below.
+    private static final int TOP = 0, FACING = 1, BOTTOM = 2, AWAY = 3, LEFT_SIDE = 4, RIGHT_SIDE = 5;
+
+    // The numbers on the top, right and left of the die for each orientation.
+    private static final byte[] TOP_NUM = new byte[ORIENTATIONS + 1];
+    private static final byte[] RIGHT_NUM = new byte[ORIENTATIONS + 1];
+    private static final byte[] LEFT_NUM = new byte[ORIENTATIONS + 1];
+    // The orientation a die ends up in after a roll, indexed by orientation * 4 + direction.
+    private static final byte[] ROLL = new byte[(ORIENTATIONS + 1) * 4];
+    // The orientation a die ends up in after it is rotated to the left. Only needed when dice are created.
+    private static final byte[] ROTATE_LEFT = new byte[ORIENTATIONS + 1];
+    // The orientation that has a given top and right number, indexed by top * 7 + right. -1 if there is none.
+    private static final byte[] BY_TOP_AND_RIGHT = new byte[49];
+
+    static
+    {
+        // Every orientation is found by rolling the default die around until no new orientations show up. Each one is
+        // identified by its top, facing and right numbers, as the other three sides are always 7 minus those.
+        int[][] sides = new int[ORIENTATIONS][];
+        int[] ids = new int[700];
+        java.util.Arrays.fill(ids, -1);
+        java.util.Arrays.fill(BY_TOP_AND_RIGHT, (byte) -1);
+        sides[0] = new int[] {1, 3, 6, 4, 2, 5};
+        ids[identify(sides[0])] = 0;
+        int found = 1;
+        for (int i = 0; i < found; i++)
+        {
+            // Try each of the four rolls and the left rotation on this orientation.
+            for (int move = 0; move < 5; move++)
+            {
+                int[] next = sides[i].clone();
+                turn(next, move);
+                int id = identify(next);
+                if (ids[id] == -1)
+                {
+                    ids[id] = found;
+                    sides[found++] = next;
+                }
+                if (move < 4) ROLL[i * 4 + move] = (byte) ids[id];
+                else ROTATE_LEFT[i] = (byte) ids[id];
+            }
+            TOP_NUM[i] = (byte) sides[i][TOP];
+            RIGHT_NUM[i] = (byte) sides[i][RIGHT_SIDE];
+            LEFT_NUM[i] = (byte) sides[i][LEFT_SIDE];
+            BY_TOP_AND_RIGHT[sides[i][TOP] * 7 + sides[i][RIGHT_SIDE]] = (byte) i;
+        }
+
+        // The key die shows 1 everywhere, so rolling it leaves it as it is.
+        TOP_NUM[KEY_ORIENTATION] = 1;
+        RIGHT_NUM[KEY_ORIENTATION] = 1;
+        LEFT_NUM[KEY_ORIENTATION] = 1;
+        ROTATE_LEFT[KEY_ORIENTATION] = KEY_ORIENTATION;
+        for (int direction = UP; direction <= RIGHT; direction++)
+        {
+            ROLL[KEY_ORIENTATION * 4 + direction] = KEY_ORIENTATION;
+        }
+    }
+
+    // The orientation of the die, which determines the number on each of its sides.
+    private byte orientation;
+    // The player that controls the die.
+    private char playerType;
+
+    // GUI components... later.
+
+    /**
+     * Default constructor. Top number is assumed to be 1 and right number assumed to be 5.
+     */
+    public Die()
+    {
+        this.orientation = DEFAULT_ORIENTATION;
+        // Player type is assumed 'N', for no player.
+        this.playerType = 'N';
+    }
+
+    /**
+     * Constructor that allows specification for the top and right numbers on the die, in addition to the player who controls it.
+     * @param topInput the top number on the die
+     * @param rightInput the right number on the die
+     * @param player the player who controls the die
+     */
+    public Die(int topInput, int rightInput, char player)
+    {
+        // Dice can be controlled by either a human or computer (H or C). It is not valid otherwise.
+        if (player == 'H' || player == 'C') this.playerType = player;
+        else this.playerType = 'N';
+
+        // If both topInput and rightInput is 1, this is a key die. Each side needs to be 1.
+        if (topInput == 1 && rightInput == 1)
+        {
+            this.orientation = KEY_ORIENTATION;
+            return;
+        }
+
+        // Otherwise, start from the same orientation as the default constructor.
+        this.orientation = DEFAULT_ORIENTATION;
+
+        // First check to see if the sides are valid. If they are not, then return.
+        if ((topInput < 1 || topInput > 6) || (rightInput < 1 || rightInput > 6))
+            return;
+        // Look up the orientation with those numbers on the top and right. Opposite sides can never be next to each other,
+        // so there may not be one.
+        byte match = BY_TOP_AND_RIGHT[topInput * 7 + rightInput];
+        if (match == -1)
+            return;
+        this.orientation = match;
+        // If this is a Computer die then the die needs to be rotated left twice so that the point of view
+        // of the computer player has 3 facing it.
+        if (playerType == 'C')
+        {
+            this.orientation = ROTATE_LEFT[ROTATE_LEFT[orientation]];
+        }
+    }
+
+    /**
+     * Constructor for a die that is already in a known orientation.
+     * @param orientation the orientation of the die
+     * @param player the player who controls the die
+     */
+    public Die(byte orientation, char player)
+    {
+        this.orientation = orientation;
+        this.playerType = player;
+    }
+
+    /**
+     * Rolls the die in the direction specified.
+     * @param direction the direction that the die will move in
+     */
+    public void rollDie(String direction)
+    {
+        if (direction.equals("up"))
+            this.roll(UP);
+        if (direction.equals("down"))
+            this.roll(DOWN);
+        if (direction.equals("left"))
+            this.roll(LEFT);
+        if (direction.equals("right"))
+            this.roll(RIGHT);
+    }
+
+    /**
+     * Rolls the die in the direction specified.
+     * @param direction UP, DOWN, LEFT or RIGHT
+     */
+    public void roll(int direction)
+    {
+        orientation = ROLL[(orientation << 2) | direction];
+    }
+
+    /**
+     * Get the number on the top of the die.
+     * @return topNum of the Die
+     */
+    public int getTopNum() {
+        return TOP_NUM[orientation];
+    }
+
+    /**
+     * Get the number on the right of the die.
+     * @return rightNum of the Die
+     */
+    public int getRightNum() {
+        return RIGHT_NUM[orientation];
+    }
+
+    /**
+     * Get the number on the left of the die.
+     * @return leftNum of the Die
+     */
+    public int getLeftNum() {
+        return LEFT_NUM[orientation];
+    }
+
+    /**
+     * Get the player who controls the die.
+     * @return playerType of the Die
+     */
+    public char getPlayerType() {
+        return playerType;
+    }
+
+    /**
+     * Get the orientation of the die.
+     * @return orientation of the Die, between 0 and KEY_ORIENTATION
+     */
+    public byte getOrientation() {
+        return orientation;
+    }
+
+    /**
+     * Puts the die in the orientation given.
+     * @param orientation the orientation the die will be in
+     */
+    public void setOrientation(byte orientation) {
+        this.orientation = orientation;
+    }
+
+    /**
+     * Gets the orientation a die ends up in after being rolled.
+     * @param orientation the orientation of the die before the roll
+     * @param direction UP, DOWN, LEFT or RIGHT
+     * @return the orientation of the die after the roll
+     */
+    public static byte roll(int orientation, int direction)
+    {
+        return ROLL[(orientation << 2) | direction];
+    }
+
+    /**
+     * Gets the number on the top of a die in the orientation given.
+     * @param orientation the orientation of the die
+     * @return the top number
+     */
+    public static int topNumOf(int orientation)
+    {
+        return TOP_NUM[orientation];
+    }
+
+    /**
+     * Gets the number on the right of a die in the orientation given.
+     * @param orientation the orientation of the die
+     * @return the right number
+     */
+    public static int rightNumOf(int orientation)
+    {
+        return RIGHT_NUM[orientation];
+    }
+
+    /**
+     * Gets the number on the left of a die in the orientation given.
+     * @param orientation the orientation of the die
+     * @return the left number
+     */
+    public static int leftNumOf(int orientation)
+    {
+        return LEFT_NUM[orientation];
+    }
+
+    // main for testing
+    public static void main(String[] args)
+    {
+        Die test = new Die(5, 6, 'H');
+    }
+
+    /**
+     * Gives each combination of top, facing and right numbers its own id.
+     * @param sides the sides of a die
+     * @return the id of the combination
+     */
+    private static int identify(int[] sides)
+    {
+        return sides[TOP] * 100 + sides[FACING] * 10 + sides[RIGHT_SIDE];
+    }
+
+    /**
+     * "Rolls" or "rotates" the sides of a die while the tables are being built.
+     * @param sides the sides of the die to update
+     * @param move UP, DOWN, LEFT or RIGHT to roll the die, or 4 to rotate it to the left
+     */
+    private static void turn(int[] sides, int move)
+    {
+        if (move == UP) cycle(sides, TOP, FACING, BOTTOM, AWAY);
+        if (move == DOWN) cycle(sides, TOP, AWAY, BOTTOM, FACING);
+        if (move == LEFT) cycle(sides, TOP, RIGHT_SIDE, BOTTOM, LEFT_SIDE);
+        if (move == RIGHT) cycle(sides, TOP, LEFT_SIDE, BOTTOM, RIGHT_SIDE);
+        if (move == 4) cycle(sides, FACING, LEFT_SIDE, AWAY, RIGHT_SIDE);
+    }
+
+    /**
+     * Shifts four sides of a die along by one, so the first side takes the number of the second and so on.
+     * @param sides the sides of the die to update
+     * @param a the side that takes the number of b
+     * @param b the side that takes the number of c
+     * @param c the side that takes the number of d
+     * @param d the side that takes the number of a
+     */
+    private static void cycle(int[] sides, int a, int b, int c, int d)
+    {
+        // Initialize a temporary int to store the value of a number on the die.
+        int temp = sides[a];
+        sides[a] = sides[b];
+        sides[b] = sides[c];
+        sides[c] = sides[d];
+        sides[d] = temp;
+    }
+}
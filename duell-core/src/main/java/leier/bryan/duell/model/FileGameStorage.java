@@ -0,0 +1,53 @@
+package leier.bryan.duell.model;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Keeps saved games as files in a directory.
+ */
+
+public class FileGameStorage implements GameStorage {
+    // The directory the saved games are kept in.
+    private final File directory;
+
+    /**
+     * Constructor for a storage in a directory.
+     * @param directory the directory to keep the saved games in
+     */
+    public FileGameStorage(File directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the directory the saved games are kept in.
+     * @return directory of the FileGameStorage
+     */
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    @Override
+    public InputStream openInput(String name) throws IOException
+    {
+        return new FileInputStream(new File(getDirectory(), name));
+    }
+
+    @Override
+    public OutputStream openOutput(String name) throws IOException
+    {
+        return new FileOutputStream(new File(getDirectory(), name));
+    }
+
+    @Override
+    public OutputStream openAppend(String name) throws IOException
+    {
+        return new FileOutputStream(new File(getDirectory(), name), true);
+    }
+}
@@ -0,0 +1,666 @@
+package leier.bryan.duell.model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Created by Bryan on 11/15/2016.
+ */
+
+public class Game {
+    // The tournament for the game.
+    private Tournament gameTournament;
+    // The board the game will be played on.
+    private Board gameBoard;
+    // The current player.
+    private String currentPlayer;
+    // A Human player.
+    private Human humanPlayer;
+    // A Computer player.
+    private Computer cpuPlayer;
+    // Where games are saved to and resumed from.
+    private final GameStorage storage;
+    // Where the journal is kept, which is the storage games are saved to unless setJournalStorage() changes it.
+    private GameStorage journalStorage;
+    // Where the journal is written. It must run one task at a time, in order, so the moves are journaled in order.
+    private Executor journalExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+    // The journal each move is recorded in as it is made, or null if the game is not being journaled. It is set to null
+    // from the journal's executor if a write fails.
+    private final AtomicReference<MoveJournal> journal = new AtomicReference<MoveJournal>();
+
+    // GUI components... later.
+
+    /**
+     * Constructor for a game that is saved to and resumed from the storage given.
+     * @param storage where games are saved
+     */
+    public Game(GameStorage storage)
+    {
+        this.storage = storage;
+        this.journalStorage = storage;
+        gameTournament = new Tournament();
+        gameBoard = new Board();
+        humanPlayer = new Human();
+        cpuPlayer = new Computer();
+        currentPlayer = "";
+    }
+
+    /**
+     * Sets up a new game of Duell
+     */
+    public void setUpGame()
+    {
+        // Clear the dice on the board.
+        gameBoard.clearBoard();
+        // Set up the dice on the board.
+        gameBoard.newGameSetUp();
+    }
+
+    /**
+     * resumes a saved game, from its binary file if there is one, or from the text file of an older save or an export
+     * @param filename the name of the file containing the game to restore
+     * @throws FileNotFoundException if no game was saved under the name
+     * @throws InvalidSaveException if the file does not hold a game, in which case this game is left as it was
+     * @throws IOException if the file could not be read
+     */
+    public void resumeGame(String filename) throws IOException
+    {
+        restoreGame(readGame(filename));
+    }
+
+    /**
+     * reads a saved game without resuming it, from its binary file if there is one, or from the text file of an older
+     * save or an export. Only the storage is used, so this can be run on a background thread
+     * @param filename the name of the file containing the game
+     * @return the saved game, to be passed to restoreGame()
+     * @throws FileNotFoundException if no game was saved under the name
+     * @throws InvalidSaveException if the file does not hold a game
+     * @throws IOException if the file could not be read
+     */
+    public SavedGame readGame(String filename) throws IOException
+    {
+        SavedGame restored;
+        try
+        {
+            restored = readBinaryFile(filename);
+        }
+        catch(FileNotFoundException exception)
+        {
+            // There is no binary file, so look for a text file instead.
+            restored = readTextFile(filename);
+        }
+        if (restored == null) throw new InvalidSaveException(filename);
+        return restored;
+    }
+
+    /**
+     * restores a saved game in place of this one
+     * @param restored the game returned by readGame() or readJournal()
+     */
+    public void restoreGame(SavedGame restored)
+    {
+        // Restore the board, the amount of wins for each player, and the next player.
+        gameBoard = restored.getBoard();
+        for (int i = 0; i < restored.getComputerWins(); i++) gameTournament.addComputerPoint();
+        for (int i = 0; i < restored.getHumanWins(); i++) gameTournament.addHumanPoint();
+        currentPlayer = restored.getNextPlayer();
+    }
+
+    /**
+     * saves a game to be restored for later, in the binary format
+     * @param filename the name of the file containing the game that was saved
+     * @throws IOException if the game could not be saved
+     */
+    public void saveFile(String filename) throws IOException
+    {
+        writeGame(filename, toSavedGame());
+    }
+
+    /**
+     * exports a game as a text file that people can read, which can also be resumed
+     * @param filename the name of the text file to write the game to
+     * @throws IOException if the game could not be exported
+     */
+    public void exportFile(String filename) throws IOException
+    {
+        exportGame(filename, toSavedGame());
+    }
+
+    /**
+     * gets a copy of the game as it would be saved, which stays the same as moves are made
+     * @return the board, the amount of wins for each player, and the next player
+     */
+    public SavedGame getSavedGame()
+    {
+        return new SavedGame(new Board(gameBoard.toBitBoard()), gameTournament.getComputerWins(),
+                gameTournament.getHumanWins(), getCurrentPlayer());
+    }
+
+    /**
+     * writes a game in the binary format. Only the storage is used, so this can be run on a background thread
+     * @param filename the name of the file to write the game to
+     * @param savedGame the game to write, such as one from getSavedGame()
+     * @throws IOException if the game could not be written
+     */
+    public void writeGame(String filename, SavedGame savedGame) throws IOException
+    {
+        // The whole game is written in a single write.
+        OutputStream output = storage.openOutput(binaryFileName(filename));
+        try
+        {
+            savedGame.writeBinary(output);
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    /**
+     * writes a game as text. Only the storage is used, so this can be run on a background thread
+     * @param filename the name of the text file to write the game to
+     * @param savedGame the game to write, such as one from getSavedGame()
+     * @throws IOException if the game could not be written
+     */
+    public void exportGame(String filename, SavedGame savedGame) throws IOException
+    {
+        // The exported game is text, so write it through a BufferedWriter.
+        BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(
+                storage.openOutput(textFileName(filename)), "UTF-8"));
+        try
+        {
+            savedGame.write(bufferedWriter);
+        }
+        finally
+        {
+            bufferedWriter.close();
+        }
+    }
+
+    /**
+     * keeps the journal somewhere other than where games are saved, such as the app's own files, so it does not show up
+     * among the saved games
+     * @param journalStorage where the journal is kept
+     */
+    public void setJournalStorage(GameStorage journalStorage)
+    {
+        this.journalStorage = journalStorage;
+    }
+
+    /**
+     * writes the journal on another thread, such as the one games are saved on, so a slow SD card never holds up a move.
+     * Until this is called, the journal is written on the thread the moves are made on
+     * @param journalExecutor where the journal is written. It must run one task at a time, in the order they are given
+     */
+    public void setJournalExecutor(Executor journalExecutor)
+    {
+        this.journalExecutor = journalExecutor;
+    }
+
+    /**
+     * starts recording each move in a journal, so the game can be resumed with resumeJournal() if the app is killed
+     * before it is saved. The journal starts over from the game as it is now. If it cannot be written, the game can
+     * still be played, it just is not journaled
+     * @param name the name of the journal's file
+     */
+    public void startJournal(String name)
+    {
+        final MoveJournal started = new MoveJournal(journalStorage, name);
+        journal.set(started);
+        // The game keeps changing on this thread, so the journal gets a copy of it.
+        final SavedGame savedGame = getSavedGame();
+        journalExecutor.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    started.start(savedGame);
+                }
+                catch(IOException exception)
+                {
+                    // The game can still be played, it just is not journaled.
+                    journal.compareAndSet(started, null);
+                }
+            }
+        });
+    }
+
+    /**
+     * resumes the game recorded in a journal, and keeps journaling it from there
+     * @param name the name of the journal's file
+     * @throws FileNotFoundException if there is no journal
+     * @throws InvalidSaveException if the journal does not hold a game, in which case this game is left as it was
+     * @throws IOException if the journal could not be read
+     */
+    public void resumeJournal(String name) throws IOException
+    {
+        restoreGame(readJournal(name));
+        // Start the journal over from the game, so it does not keep growing with every resume.
+        startJournal(name);
+    }
+
+    /**
+     * reads the game recorded in a journal without resuming it. Only the storage is used, so this can be run on a
+     * background thread
+     * @param name the name of the journal's file
+     * @return the game as of the last move that was recorded in full, to be passed to restoreGame()
+     * @throws FileNotFoundException if there is no journal
+     * @throws InvalidSaveException if the journal does not hold a game
+     * @throws IOException if the journal could not be read
+     */
+    public SavedGame readJournal(String name) throws IOException
+    {
+        SavedGame restored = new MoveJournal(journalStorage, name).replay();
+        if (restored == null) throw new InvalidSaveException(name);
+        return restored;
+    }
+
+    /**
+     * Determines the current play in the game
+     * @return the name of the current player
+     */
+    public String getCurrentPlayer()
+    {
+        return currentPlayer;
+    }
+
+    /**
+     * Gets the name of the die on the board's space
+     * @param row the row coordinate to check
+     * @param column the column coordinate to check
+     * @return a string that signifies the die currently occupying the space
+     */
+    public String getDieNameOnSpace(int row, int column)
+    {
+        // Check if there is a die on the space. If it is not, return an empty string.
+        if (!gameBoard.isDieOn(row, column)) return "";
+        else return gameBoard.getDieName(row, column);
+    }
+
+    /**
+     * Gets the amount of wins that the computer has in the tournament
+     * @return the amount of computer wins
+     */
+    public int getComputerWins()
+    {
+        return gameTournament.getComputerWins();
+    }
+
+    /**
+     * Gets the amount of wins that the human has in the tournament
+     * @return the amount of human wins
+     */
+    public int getHumanWins()
+    {
+        return gameTournament.getHumanWins();
+    }
+
+    /**
+     * performs the computer's turn
+     */
+    public String doComputerTurn()
+    {
+        return makeComputerMove(thinkOfComputerMove());
+    }
+
+    /**
+     * decides on the computer's move without making it. The computer thinks on a copy of the board, so this can be run on
+     * a background thread while the board is still being shown
+     * @return the packed move the computer wants to make, to be passed to makeComputerMove()
+     */
+    public int thinkOfComputerMove()
+    {
+        return cpuPlayer.chooseMove(new Board(gameBoard.toBitBoard()));
+    }
+
+    /**
+     * makes the move the computer decided on in thinkOfComputerMove()
+     * @param move the packed move returned by thinkOfComputerMove()
+     * @return a message displaying the move the computer just made
+     */
+    public String makeComputerMove(int move)
+    {
+        String message = cpuPlayer.makeChosenMove(gameBoard, move);
+        if (move != Move.NONE) journalMove(move, 'H');
+        return message;
+    }
+
+    /**
+     * gives the computer positions from games already played, to look up before it thinks about a move
+     * @param positionDatabase the database, or null to always think
+     */
+    public void setPositionDatabase(PositionDatabase positionDatabase)
+    {
+        cpuPlayer.setPositionDatabase(positionDatabase);
+    }
+
+    /**
+     * gives the computer an opening book, to play from in the first plies of a game instead of thinking
+     * @param openingBook the book, or null to play the opening like any other position
+     */
+    public void setOpeningBook(OpeningBook openingBook)
+    {
+        cpuPlayer.setOpeningBook(openingBook);
+    }
+
+    /**
+     * sets the way the computer decides on its moves
+     * @param strategy Computer.STRATEGY_HEURISTIC, Computer.STRATEGY_SEARCH or Computer.STRATEGY_MCTS
+     */
+    public void setComputerStrategy(String strategy)
+    {
+        cpuPlayer.setStrategy(strategy);
+    }
+
+    /**
+     * gets the way the computer decides on its moves
+     * @return the strategy of the computer
+     */
+    public String getComputerStrategy()
+    {
+        return cpuPlayer.getStrategy();
+    }
+
+    /**
+     * lets the computer think about the position while the human decides on their move
+     */
+    public void startPondering()
+    {
+        cpuPlayer.startPondering(gameBoard);
+    }
+
+    /**
+     * gets how many moves ahead the computer has looked while thinking of its move
+     * @return the depth of the computer's search, or 0 if it is not searching
+     */
+    public int getComputerThinkingDepth()
+    {
+        return cpuPlayer.getThinkingDepth();
+    }
+
+    /**
+     * makes the computer stop thinking about its move as soon as it can
+     */
+    public void stopComputerThinking()
+    {
+        cpuPlayer.stopThinking();
+    }
+
+    /**
+     * performs the human's turn
+     * @param dieRow the row of the die to move
+     * @param dieColumn the column of the die to move
+     * @param spaceRow the row of the space to move to
+     * @param spaceColumn the column of the space to move to
+     * @param direction the direction to first move in
+     */
+    public void doHumanTurn(int dieRow, int dieColumn, int spaceRow, int spaceColumn, String direction)
+    {
+        // The human has decided, so the computer can stop pondering and keep what it found for its reply.
+        cpuPlayer.stopPondering();
+        humanPlayer.play(gameBoard, dieRow, dieColumn, spaceRow, spaceColumn, direction);
+        journalMove(Move.encode(dieRow, dieColumn, spaceRow, spaceColumn, direction.equals("frontally")), 'C');
+    }
+
+    /**
+     * Determines if there is a win condition that is met in the game
+     * @return a number that corresponds to who won and what type of victory it is
+     */
+    public int checkWinCondition()
+    {
+        return gameBoard.checkWinCondition();
+    }
+
+    /**
+     * Determines if a die is on the board's space
+     * @param row the row to check on the board
+     * @param column the column to check on the board
+     * @return a boolean determining if a die is on the space or not
+     */
+    public boolean isDieOnSpace(int row, int column)
+    {
+        if (gameBoard.isDieOn(row, column)) return true;
+        return false;
+    }
+
+    /**
+     * switches the players so they can take turns
+     */
+    public void switchPlayers()
+    {
+        if (currentPlayer.equals("Human")) currentPlayer = "Computer";
+        else currentPlayer = "Human";
+        // Keep the board's key in step with whose turn it is.
+        gameBoard.setSideToMove(currentPlayer.charAt(0));
+    }
+
+    /**
+     * checks if the spaces that the player clicked on the board makes for a valid move
+     * @param dieRow the row of the die the player wants to move
+     * @param dieColumn the column of the die the player wants to move
+     * @param spaceRow the row of the space the player wants to move to
+     * @param spaceColumn the column of the space the player wants to move to
+     * @return a boolean signifying whether or not the move is possible
+     */
+    public boolean humanCanMoveToSpace(int dieRow, int dieColumn, int spaceRow, int spaceColumn)
+    {
+        if (humanPlayer.canMakeMove(gameBoard, dieRow, dieColumn, spaceRow, spaceColumn)) return true;
+        else return false;
+    }
+
+    /**
+     * gets every move the human can make with one of their dice
+     * @param dieRow the row of the die the player wants to move
+     * @param dieColumn the column of the die the player wants to move
+     * @return a list of packed moves, which is empty if the die cannot move or is not the human's
+     */
+    public MoveList getHumanMovesFrom(int dieRow, int dieColumn)
+    {
+        MoveList moves = new MoveList();
+        BitBoard bits = gameBoard.getBitBoard();
+        int dieSquare = BitBoard.square(dieRow, dieColumn);
+        if (bits.isPlayerType(dieSquare, 'H')) MoveGenerator.generateMovesFrom(bits, dieSquare, moves);
+        return moves;
+    }
+
+    /**
+     * determines who goes first in a new game
+     * @return an array containing the results of the die throws
+     */
+    public int[] determineFirstMove()
+    {
+        // The results of each player's die toss.
+        int[] results = new int[2];
+        // Random seed.
+        Random rand = new Random();
+        // The die toss result of the first player.
+        int player1DieToss = rand.nextInt(6) + 1;
+        // The die toss result of the second player.
+        int player2DieToss = rand.nextInt(6) + 1;
+        // If it's the same roll, return the results anyway. This function will be called again if this is the case.
+        if (player1DieToss == player2DieToss)
+        {
+            results[0] = player1DieToss;
+            results[1] = player2DieToss;
+            return results;
+        }
+        // Otherwise, determine who threw higher.
+        if (player1DieToss > player2DieToss)
+        {
+            // the human goes first
+            currentPlayer = "Human";
+            gameBoard.setSideToMove('H');
+        }
+        else
+        {
+            // the computer goes first
+            currentPlayer = "Computer";
+            gameBoard.setSideToMove('C');
+        }
+        // Return the results.
+        results[0] = player1DieToss;
+        results[1] = player2DieToss;
+        return results;
+    }
+
+    /**
+     * determines which direction the human should move in when making their move
+     * @param dieRow the row of the die to move
+     * @param dieColumn the column of the die to move
+     * @param spaceRow the row of the space to move to
+     * @param spaceColumn the column of the space to move to
+     * @return 0 if both directions are possible, 1 if frontal only, 2 if lateral only
+     */
+    public int determineHumanDirection(int dieRow, int dieColumn, int spaceRow, int spaceColumn)
+    {
+        return humanPlayer.determineDirection(gameBoard, dieRow, dieColumn, spaceRow, spaceColumn);
+    }
+
+    /**
+     * gets help from the computer on a move to make
+     * @return a string containing the recommendation
+     */
+    public String getHelp()
+    {
+        return humanPlayer.getHelp(gameBoard);
+    }
+
+    /**
+     * registers the winner of the game into the tournament
+     * @param winner an integer signifying who won the game
+     */
+    public void registerWinner(int winner)
+    {
+        if (winner == 1) gameTournament.addHumanPoint();
+        else gameTournament.addComputerPoint();
+    }
+
+    public static void main(String[] args)
+    {
+        Game test = new Game(new FileGameStorage(new File(".")));
+        test.setUpGame();
+        test.doComputerTurn();
+    }
+
+    /**
+     * Gets the game as it would be saved.
+     * @return the board, the amount of wins for each player, and the next player
+     */
+    private SavedGame toSavedGame()
+    {
+        return new SavedGame(gameBoard, gameTournament.getComputerWins(), gameTournament.getHumanWins(),
+                getCurrentPlayer());
+    }
+
+    /**
+     * Records a move that was just made in the journal, with a snapshot of the whole game every so often. The win is
+     * not tallied yet, so a game resumed after its winning move finds the win again and tallies it once.
+     * @param move the packed move that was made
+     * @param nextPlayer the player who moves next, H or C
+     */
+    private void journalMove(final int move, final char nextPlayer)
+    {
+        final MoveJournal current = journal.get();
+        if (current == null) return;
+        final int computerWins = gameTournament.getComputerWins();
+        final int humanWins = gameTournament.getHumanWins();
+        // The board keeps changing on this thread, so the journal gets a copy of it in case it is time for a snapshot.
+        final SavedGame snapshot = new SavedGame(new Board(gameBoard.toBitBoard()), computerWins, humanWins,
+                nextPlayer == 'H' ? "Human" : "Computer");
+        journalExecutor.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                // A journal that failed or was started over is not written to again.
+                if (journal.get() != current) return;
+                try
+                {
+                    current.appendMove(move, nextPlayer, computerWins, humanWins);
+                    if (current.needsSnapshot()) current.appendSnapshot(snapshot);
+                }
+                catch(IOException exception)
+                {
+                    // Stop journaling rather than leave a gap in the journal.
+                    journal.compareAndSet(current, null);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads a game saved in the binary format.
+     * @param filename the name the player gave the game
+     * @return the saved game, or null if the file is not valid
+     * @throws FileNotFoundException if there is no binary file for the game
+     * @throws IOException if the file could not be read
+     */
+    private SavedGame readBinaryFile(String filename) throws IOException
+    {
+        InputStream input = storage.openInput(binaryFileName(filename));
+        try
+        {
+            return SavedGame.readBinary(input);
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Reads a game saved in the text format.
+     * @param filename the name the player gave the game
+     * @return the saved game, or null if the file is not valid
+     * @throws IOException if the file could not be found or read
+     */
+    private SavedGame readTextFile(String filename) throws IOException
+    {
+        // The saved game is text, so read it through a BufferedReader.
+        BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
+                storage.openInput(textFileName(filename)), "UTF-8"));
+        try
+        {
+            return SavedGame.read(bufferedReader);
+        }
+        finally
+        {
+            bufferedReader.close();
+        }
+    }
+
+    /**
+     * Fixes up the name of a saved game's binary file.
+     * @param filename the name the player gave the game
+     * @return the name of the binary file in the storage
+     */
+    private static String binaryFileName(String filename)
+    {
+        return filename+".duell";
+    }
+
+    /**
+     * Fixes up the name of a saved game's text file.
+     * @param filename the name the player gave the game
+     * @return the name of the text file in the storage
+     */
+    private static String textFileName(String filename)
+    {
+        return filename+".txt";
+    }
+}
@@ -0,0 +1,197 @@
+package leier.bryan.duell.model;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * Saves and resumes a game on a background thread, so a slow SD card never holds up the thread the game is played on.
+ * The result of each request is handed back through a Callback run on the callback executor, which on Android posts to
+ * the UI thread. The game itself is only read or changed on the thread that makes the requests and on the callback
+ * executor, so these must be the same thread.
+ */
+
+public class GamePersistence {
+    /**
+     * Hears how a save or resume went. Exactly one of the methods is called for each request.
+     */
+    public interface Callback {
+        /**
+         * Called once the game has been saved, or resumed in place of the game that was being played.
+         */
+        void onSuccess();
+
+        /**
+         * Called if the game could not be saved or resumed. A game that could not be resumed is left as it was.
+         * @param exception why it failed. A FileNotFoundException means nothing is saved under the name, and an
+         * InvalidSaveException means what is saved there is not a game
+         */
+        void onFailure(IOException exception);
+    }
+
+    // The game being saved and resumed.
+    private final Game game;
+    // Where the storage is read and written.
+    private final Executor background;
+    // Where the callbacks are run, and where a resumed game replaces the one being played.
+    private final Executor callbacks;
+
+    /**
+     * Constructor for the persistence of a game.
+     * @param game the game to save and resume
+     * @param background where the storage is read and written, such as a single background thread
+     * @param callbacks where the callbacks are run, which must be the thread the game is played on
+     */
+    public GamePersistence(Game game, Executor background, Executor callbacks)
+    {
+        this.game = game;
+        this.background = background;
+        this.callbacks = callbacks;
+    }
+
+    /**
+     * Resumes a saved game in the background.
+     * @param filename the name the game was saved under
+     * @param callback hears whether the game was resumed
+     */
+    public void resumeGame(final String filename, final Callback callback)
+    {
+        background.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    restore(game.readGame(filename), null, callback);
+                }
+                catch(IOException exception)
+                {
+                    fail(exception, callback);
+                }
+            }
+        });
+    }
+
+    /**
+     * Resumes the game recorded in a journal in the background, and keeps journaling it from there.
+     * @param name the name of the journal's file
+     * @param callback hears whether the game was resumed
+     */
+    public void resumeJournal(final String name, final Callback callback)
+    {
+        background.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    restore(game.readJournal(name), name, callback);
+                }
+                catch(IOException exception)
+                {
+                    fail(exception, callback);
+                }
+            }
+        });
+    }
+
+    /**
+     * Saves the game as it is now in the background, in the binary format. Moves made after this is called are not saved.
+     * @param filename the name to save the game under
+     * @param callback hears whether the game was saved
+     */
+    public void saveGame(final String filename, final Callback callback)
+    {
+        final SavedGame savedGame = game.getSavedGame();
+        background.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    game.writeGame(filename, savedGame);
+                    succeed(callback);
+                }
+                catch(IOException exception)
+                {
+                    fail(exception, callback);
+                }
+            }
+        });
+    }
+
+    /**
+     * Exports the game as it is now in the background, as text. Moves made after this is called are not exported.
+     * @param filename the name to export the game under
+     * @param callback hears whether the game was exported
+     */
+    public void exportGame(final String filename, final Callback callback)
+    {
+        final SavedGame savedGame = game.getSavedGame();
+        background.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    game.exportGame(filename, savedGame);
+                    succeed(callback);
+                }
+                catch(IOException exception)
+                {
+                    fail(exception, callback);
+                }
+            }
+        });
+    }
+
+    /**
+     * Replaces the game being played with one that was read, on the callback executor.
+     * @param restored the game that was read
+     * @param journalName the name of the journal to start over from the game, or null to not journal it here
+     * @param callback hears that the game was resumed
+     */
+    private void restore(final SavedGame restored, final String journalName, final Callback callback)
+    {
+        callbacks.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                game.restoreGame(restored);
+                // Start the journal over from the game, so it does not keep growing with every resume.
+                if (journalName != null) game.startJournal(journalName);
+                callback.onSuccess();
+            }
+        });
+    }
+
+    /**
+     * Tells the callback that a request succeeded, on the callback executor.
+     * @param callback the callback to tell
+     */
+    private void succeed(final Callback callback)
+    {
+        callbacks.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                callback.onSuccess();
+            }
+        });
+    }
+
+    /**
+     * Tells the callback that a request failed, on the callback executor.
+     * @param exception why it failed
+     * @param callback the callback to tell
+     */
+    private void fail(final IOException exception, final Callback callback)
+    {
+        callbacks.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                callback.onFailure(exception);
+            }
+        });
+    }
+}
@@ -0,0 +1,187 @@
+package leier.bryan.duell.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The whole history of one game: the board it started from, who moved first, every move with the direction it rolled
+ * in first, the strategy the computer gave for each of its moves, and how the game ended. Records are written and read
+ * with GameRecordWriter and GameRecordReader.
+ */
+
+public class GameRecord {
+    // The result of a game that has not ended.
+    public static final int UNFINISHED = -1;
+    // The result of a game that ended without a winner.
+    public static final int DRAW = 0;
+
+    // Any other information about the game, such as the strategy each side played, by name.
+    private final Map<String, String> tags = new LinkedHashMap<String, String>();
+    // The board the game started from. It is never changed.
+    private final BitBoard setup;
+    // The player who made the first move, H or C.
+    private final char firstPlayer;
+    // The packed moves, in the order they were made.
+    private final MoveList moves = new MoveList();
+    // The strategy the computer gave for each move, or null for a move the computer did not choose.
+    private final List<String> strategies = new ArrayList<String>();
+    // The result of Board.checkWinCondition() for the winning move, DRAW, or UNFINISHED.
+    private int result = UNFINISHED;
+
+    /**
+     * Constructor for the record of a game that is about to start.
+     * @param setup the board the game starts from. A copy is kept, so the board can be played on
+     * @param firstPlayer the player who makes the first move, H or C
+     */
+    public GameRecord(Board setup, char firstPlayer)
+    {
+        this.setup = setup.toBitBoard();
+        this.firstPlayer = firstPlayer;
+    }
+
+    /**
+     * Sets a piece of information about the game.
+     * @param name the name of the tag, which is a single word
+     * @param value the value of the tag, or null to remove it
+     */
+    public void setTag(String name, String value)
+    {
+        if (value == null) tags.remove(name);
+        else tags.put(name, value);
+    }
+
+    /**
+     * Gets a piece of information about the game.
+     * @param name the name of the tag
+     * @return the value of the tag, or null if it was never set
+     */
+    public String getTag(String name)
+    {
+        return tags.get(name);
+    }
+
+    /**
+     * Gets every piece of information about the game, in the order it was set.
+     * @return the tags by name. It must not be changed
+     */
+    public Map<String, String> getTags()
+    {
+        return tags;
+    }
+
+    /**
+     * Gets the board the game started from.
+     * @return a copy of the board
+     */
+    public Board getSetup()
+    {
+        return new Board(setup);
+    }
+
+    /**
+     * Gets the player who made the first move.
+     * @return H or C
+     */
+    public char getFirstPlayer()
+    {
+        return firstPlayer;
+    }
+
+    /**
+     * Adds the next move of the game.
+     * @param move the packed move, with the direction it rolled in first
+     * @param strategy the strategy the computer gave for the move, or null if it was not chosen by the computer
+     */
+    public void addMove(int move, String strategy)
+    {
+        moves.add(move);
+        strategies.add(strategy);
+    }
+
+    /**
+     * Gets how many moves were made.
+     * @return the number of moves, counting both players
+     */
+    public int getMoveCount()
+    {
+        return moves.size();
+    }
+
+    /**
+     * Gets one of the moves.
+     * @param index the move, starting from 0 for the first move of the game
+     * @return the packed move
+     */
+    public int getMove(int index)
+    {
+        return moves.get(index);
+    }
+
+    /**
+     * Gets the strategy the computer gave for one of the moves.
+     * @param index the move, starting from 0 for the first move of the game
+     * @return the strategy, or null if the move was not chosen by the computer
+     */
+    public String getStrategy(int index)
+    {
+        return strategies.get(index);
+    }
+
+    /**
+     * Sets the strategy the computer gave for one of the moves.
+     * @param index the move, starting from 0 for the first move of the game
+     * @param strategy the strategy, or null if the move was not chosen by the computer
+     */
+    public void setStrategy(int index, String strategy)
+    {
+        strategies.set(index, strategy);
+    }
+
+    /**
+     * Gets the player who made one of the moves.
+     * @param index the move, starting from 0 for the first move of the game
+     * @return H or C
+     */
+    public char getPlayer(int index)
+    {
+        if (index % 2 == 0) return firstPlayer;
+        return firstPlayer == 'H' ? 'C' : 'H';
+    }
+
+    /**
+     * Sets how the game ended.
+     * @param result the result of Board.checkWinCondition() for the winning move, DRAW, or UNFINISHED
+     */
+    public void setResult(int result)
+    {
+        this.result = result;
+    }
+
+    /**
+     * Gets how the game ended.
+     * @return the result of Board.checkWinCondition() for the winning move, DRAW, or UNFINISHED
+     */
+    public int getResult()
+    {
+        return result;
+    }
+
+    /**
+     * Plays the game from its setup up to a point.
+     * @param plies how many of the moves to make
+     * @return the board after the moves, with the next player to move
+     */
+    public Board getBoardAfter(int plies)
+    {
+        Board board = getSetup();
+        board.setSideToMove(firstPlayer);
+        // Each move hands the turn to the other player.
+        for (int i = 0; i < plies; i++)
+        {
+            board.applyMove(moves.get(i), null);
+        }
+        return board;
+    }
+}
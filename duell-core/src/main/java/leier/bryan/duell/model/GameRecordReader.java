@@ -0,0 +1,247 @@
+package leier.bryan.duell.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads game records one after another from a stream written by GameRecordWriter, so an archive of any size can be
+ * gone through while only one game is in memory at a time. See GameRecordWriter for the format.
+ */
+
+public class GameRecordReader {
+    // The stream the records are read from.
+    private final BufferedReader reader;
+    // The number of the last line that was read, for error messages.
+    private int lineNumber = 0;
+
+    /**
+     * Constructor for a reader.
+     * @param reader the stream to read the records from
+     */
+    public GameRecordReader(Reader reader)
+    {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Reads the next record.
+     * @return the record, or null if there are no more records in the stream
+     * @throws IOException if the record is not valid or could not be read
+     */
+    public GameRecord read() throws IOException
+    {
+        // Skip the blank lines before the record.
+        String line = readLine();
+        while (line != null && line.trim().isEmpty()) line = readLine();
+        if (line == null) return null;
+
+        // Read the tags.
+        Map<String, String> tags = new LinkedHashMap<String, String>();
+        while (line != null && line.startsWith("["))
+        {
+            readTag(line, tags);
+            line = readLine();
+        }
+        String firstPlayer = tags.remove("FirstPlayer");
+        if (firstPlayer == null || !(firstPlayer.equals("Human") || firstPlayer.equals("Computer")))
+        {
+            throw invalid("The record does not say who moved first");
+        }
+        String setup = tags.remove("Setup");
+        String termination = tags.remove("Termination");
+        tags.remove("Result");
+        Board board;
+        if (setup != null) board = readSetup(setup);
+        else
+        {
+            // Without a Setup tag, the game started from the usual setup.
+            board = new Board();
+            board.newGameSetUp();
+        }
+        GameRecord record = new GameRecord(board, firstPlayer.charAt(0));
+        for (Map.Entry<String, String> tag : tags.entrySet())
+        {
+            record.setTag(tag.getKey(), tag.getValue());
+        }
+
+        // Read the moves, up to and including the result.
+        while (line != null)
+        {
+            String[] tokens = line.trim().split("\\s+");
+            for (String token : tokens)
+            {
+                if (token.isEmpty() || token.endsWith(".")) continue;
+                if (token.startsWith("{"))
+                {
+                    // The strategy of the move before it.
+                    if (!token.endsWith("}") || record.getMoveCount() == 0) throw invalid("Bad comment " + token);
+                    int last = record.getMoveCount() - 1;
+                    record.setStrategy(last, token.substring(1, token.length() - 1));
+                    continue;
+                }
+                int result = readResult(token, termination);
+                if (result != Integer.MIN_VALUE)
+                {
+                    record.setResult(result);
+                    return record;
+                }
+                record.addMove(readMove(token), null);
+            }
+            line = readLine();
+        }
+        throw invalid("The record ends before its result");
+    }
+
+    /**
+     * Closes the stream.
+     * @throws IOException if the stream could not be closed
+     */
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+
+    /**
+     * Reads the next line and counts it.
+     * @return the line, or null at the end of the stream
+     * @throws IOException if the line could not be read
+     */
+    private String readLine() throws IOException
+    {
+        String line = reader.readLine();
+        if (line != null) lineNumber++;
+        return line;
+    }
+
+    /**
+     * Reads a tag line, undoing the escapes in its value.
+     * @param line the line, such as [Human "search"]
+     * @param tags the tags to add it to
+     * @throws IOException if the line is not a tag
+     */
+    private void readTag(String line, Map<String, String> tags) throws IOException
+    {
+        int space = line.indexOf(' ');
+        if (space == -1 || !line.endsWith("\"]") || line.charAt(space + 1) != '"' || line.length() < space + 4)
+        {
+            throw invalid("Bad tag " + line);
+        }
+        StringBuilder value = new StringBuilder();
+        for (int i = space + 2; i < line.length() - 2; i++)
+        {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length() - 2) c = line.charAt(++i);
+            value.append(c);
+        }
+        tags.put(line.substring(1, space), value.toString());
+    }
+
+    /**
+     * Reads the board from the Setup tag.
+     * @param setup the rows from 8 down to 1, separated by slashes
+     * @return the board
+     * @throws IOException if the setup is not a board
+     */
+    private Board readSetup(String setup) throws IOException
+    {
+        Board board = new Board();
+        String[] rows = setup.split("/", -1);
+        if (rows.length != BitBoard.ROWS) throw invalid("The setup does not have " + BitBoard.ROWS + " rows");
+        for (int i = 0; i < rows.length; i++)
+        {
+            int row = BitBoard.ROWS - i;
+            int column = 1;
+            String text = rows[i];
+            for (int position = 0; position < text.length(); )
+            {
+                char c = text.charAt(position);
+                if (c >= '1' && c <= '9')
+                {
+                    // A run of empty spaces.
+                    column += c - '0';
+                    position++;
+                }
+                else if ((c == 'H' || c == 'C') && position + 2 < text.length() && column <= BitBoard.COLUMNS)
+                {
+                    // A die, named by its player and its top and right numbers.
+                    int topNum = Character.getNumericValue(text.charAt(position + 1));
+                    int rightNum = Character.getNumericValue(text.charAt(position + 2));
+                    board.placeDie(new Die(topNum, rightNum, c), row, column);
+                    column++;
+                    position += 3;
+                }
+                else throw invalid("Bad setup row " + text);
+            }
+            if (column != BitBoard.COLUMNS + 1) throw invalid("Setup row " + text + " does not have " + BitBoard.COLUMNS + " spaces");
+        }
+        return board;
+    }
+
+    /**
+     * Reads a move.
+     * @param token the move, such as 15-36f
+     * @return the packed move
+     * @throws IOException if the token is not a move
+     */
+    private int readMove(String token) throws IOException
+    {
+        if (token.length() != 6 || token.charAt(2) != '-' || (token.charAt(5) != 'f' && token.charAt(5) != 'l'))
+        {
+            throw invalid("Bad move " + token);
+        }
+        int dieRow = token.charAt(0) - '0';
+        int dieColumn = token.charAt(1) - '0';
+        int spaceRow = token.charAt(3) - '0';
+        int spaceColumn = token.charAt(4) - '0';
+        if (!onBoard(dieRow, dieColumn) || !onBoard(spaceRow, spaceColumn)) throw invalid("Bad move " + token);
+        return Move.encode(dieRow, dieColumn, spaceRow, spaceColumn, token.charAt(5) == 'f');
+    }
+
+    /**
+     * Reads the result at the end of a record's moves.
+     * @param token the token that may be a result
+     * @param termination the value of the Termination tag, or null if there was none
+     * @return the result for the record, or Integer.MIN_VALUE if the token is not a result
+     * @throws IOException if a win does not say how it was won
+     */
+    private int readResult(String token, String termination) throws IOException
+    {
+        if (token.equals("*")) return GameRecord.UNFINISHED;
+        if (token.equals("1/2-1/2")) return GameRecord.DRAW;
+        boolean humanWon = token.equals("1-0");
+        if (!humanWon && !token.equals("0-1")) return Integer.MIN_VALUE;
+        if ("key space".equals(termination))
+        {
+            return humanWon ? BitBoard.HUMAN_ON_KEY_SPACE : BitBoard.COMPUTER_ON_KEY_SPACE;
+        }
+        if ("key die".equals(termination))
+        {
+            return humanWon ? BitBoard.COMPUTER_KEY_DIE_CAPTURED : BitBoard.HUMAN_KEY_DIE_CAPTURED;
+        }
+        throw invalid("The record does not say how the game was won");
+    }
+
+    /**
+     * Determines if a space is on the board.
+     * @param row the row of the space
+     * @param column the column of the space
+     * @return a boolean that is true for rows 1 to 8 and columns 1 to 9
+     */
+    private static boolean onBoard(int row, int column)
+    {
+        return row >= 1 && row <= BitBoard.ROWS && column >= 1 && column <= BitBoard.COLUMNS;
+    }
+
+    /**
+     * Builds the exception for a record that is not valid.
+     * @param message what is wrong with it
+     * @return the exception, saying where in the stream it went wrong
+     */
+    private IOException invalid(String message)
+    {
+        return new IOException("Line " + lineNumber + ": " + message);
+    }
+}
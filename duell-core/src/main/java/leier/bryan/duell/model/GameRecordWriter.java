@@ -0,0 +1,202 @@
+package leier.bryan.duell.model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes game records one after another to a stream, in a text format modelled on chess's PGN, so any number of games
+ * can be written without keeping them in memory. Each game is a block of tags followed by its moves, and games are
+ * separated by a blank line:
+ *
+ * [Setup "C56C15C21C62C11C62C21C15C56/9/9/9/9/9/9/H56H15H21H62H11H62H21H15H56"]
+ * [FirstPlayer "Computer"]
+ * [Computer "heuristic"]
+ * [Result "0-1"]
+ * [Termination "key die"]
+ *
+ * 1. 81-31f {random} 11-25f 2. 31-12l {dieCapture} 25-55f ... 0-1
+ *
+ * The Setup tag lists the rows from 8 down to 1, naming each die and counting runs of empty spaces, like a FEN. Each
+ * move is the row and column of the die, the row and column of the space, and f or l for whether it first rolled
+ * frontally or laterally. The strategy the computer gave for a move follows it in braces. The moves are numbered from
+ * the first player's move, and end with the result: 1-0 if the human won, 0-1 if the computer won, 1/2-1/2 for a draw,
+ * or * if the game has not ended. Any other tags, such as the strategy each side played, come between FirstPlayer and
+ * Result.
+ */
+
+public class GameRecordWriter {
+    // The longest a line of moves may get before it is wrapped.
+    private static final int LINE_LENGTH = 79;
+
+    // The stream the records are written to.
+    private final BufferedWriter writer;
+
+    /**
+     * Constructor for a writer.
+     * @param writer the stream to write the records to
+     */
+    public GameRecordWriter(Writer writer)
+    {
+        this.writer = writer instanceof BufferedWriter ? (BufferedWriter) writer : new BufferedWriter(writer);
+    }
+
+    /**
+     * Writes the record of one game after any that were written before it.
+     * @param record the record to write
+     * @throws IOException if the record could not be written
+     */
+    public void write(GameRecord record) throws IOException
+    {
+        // The tags come first, with the setup and first player always there.
+        writeTag("Setup", setupOf(record.getSetup()));
+        writeTag("FirstPlayer", record.getFirstPlayer() == 'H' ? "Human" : "Computer");
+        for (Map.Entry<String, String> tag : record.getTags().entrySet())
+        {
+            writeTag(tag.getKey(), tag.getValue());
+        }
+        String result = resultOf(record.getResult());
+        writeTag("Result", result);
+        String termination = terminationOf(record.getResult());
+        if (termination != null) writeTag("Termination", termination);
+        writer.newLine();
+
+        // Then the moves, numbered from the first player's move and wrapped between tokens.
+        int lineLength = 0;
+        for (int i = 0; i < record.getMoveCount(); i++)
+        {
+            // A move number is kept on the same line as the move it numbers.
+            String move = moveOf(record.getMove(i));
+            if (i % 2 == 0) move = Integer.toString(i / 2 + 1) + ". " + move;
+            lineLength = writeToken(move, lineLength);
+            String strategy = record.getStrategy(i);
+            if (strategy != null) lineLength = writeToken("{" + strategy + "}", lineLength);
+        }
+        writeToken(result, lineLength);
+        writer.newLine();
+        writer.newLine();
+    }
+
+    /**
+     * Writes any records that are still buffered to the stream.
+     * @throws IOException if the records could not be written
+     */
+    public void flush() throws IOException
+    {
+        writer.flush();
+    }
+
+    /**
+     * Writes any records that are still buffered, then closes the stream.
+     * @throws IOException if the records could not be written
+     */
+    public void close() throws IOException
+    {
+        writer.close();
+    }
+
+    /**
+     * Describes a board in the form of the Setup tag.
+     * @param board the board
+     * @return the rows from 8 down to 1, separated by slashes
+     */
+    static String setupOf(Board board)
+    {
+        StringBuilder setup = new StringBuilder();
+        for (int row = BitBoard.ROWS; row > 0; row--)
+        {
+            if (row < BitBoard.ROWS) setup.append('/');
+            // Count the empty spaces since the last die.
+            int empty = 0;
+            for (int column = 1; column <= BitBoard.COLUMNS; column++)
+            {
+                if (!board.isDieOn(row, column))
+                {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) setup.append(empty);
+                empty = 0;
+                setup.append(board.getDieName(row, column));
+            }
+            if (empty > 0) setup.append(empty);
+        }
+        return setup.toString();
+    }
+
+    /**
+     * Describes a move in the form it is written in.
+     * @param move the packed move
+     * @return the die's row and column, a dash, the space's row and column, and f or l
+     */
+    static String moveOf(int move)
+    {
+        int dieSquare = Move.dieSquare(move);
+        int spaceSquare = Move.spaceSquare(move);
+        return "" + BitBoard.rowOf(dieSquare) + BitBoard.columnOf(dieSquare) + "-" + BitBoard.rowOf(spaceSquare)
+                + BitBoard.columnOf(spaceSquare) + (Move.isFrontalFirst(move) ? "f" : "l");
+    }
+
+    /**
+     * Describes how a game ended, in the form it is written in.
+     * @param result the result of Board.checkWinCondition() for the winning move, GameRecord.DRAW, or
+     *               GameRecord.UNFINISHED
+     * @return 1-0, 0-1, 1/2-1/2 or *
+     */
+    static String resultOf(int result)
+    {
+        char winner = BitBoard.winnerOf(result);
+        if (winner == 'H') return "1-0";
+        if (winner == 'C') return "0-1";
+        if (result == GameRecord.DRAW) return "1/2-1/2";
+        return "*";
+    }
+
+    /**
+     * Describes how a game was won, for the Termination tag.
+     * @param result the result of the game
+     * @return key space or key die, or null if nobody won
+     */
+    static String terminationOf(int result)
+    {
+        if (result == BitBoard.HUMAN_ON_KEY_SPACE || result == BitBoard.COMPUTER_ON_KEY_SPACE) return "key space";
+        if (result == BitBoard.COMPUTER_KEY_DIE_CAPTURED || result == BitBoard.HUMAN_KEY_DIE_CAPTURED) return "key die";
+        return null;
+    }
+
+    /**
+     * Writes a tag on its own line, escaping its value the way PGN does.
+     * @param name the name of the tag
+     * @param value the value of the tag
+     * @throws IOException if the tag could not be written
+     */
+    private void writeTag(String name, String value) throws IOException
+    {
+        writer.write("[" + name + " \"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"]");
+        writer.newLine();
+    }
+
+    /**
+     * Writes a token of the moves, starting a new line first if it would make the line too long.
+     * @param token the token to write
+     * @param lineLength how long the current line is so far
+     * @return how long the current line is after the token
+     * @throws IOException if the token could not be written
+     */
+    private int writeToken(String token, int lineLength) throws IOException
+    {
+        if (lineLength > 0 && lineLength + 1 + token.length() > LINE_LENGTH)
+        {
+            writer.newLine();
+            lineLength = 0;
+        }
+        if (lineLength > 0)
+        {
+            writer.write(' ');
+            lineLength++;
+        }
+        writer.write(token);
+        return lineLength + token.length();
+    }
+}
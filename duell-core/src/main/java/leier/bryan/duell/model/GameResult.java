@@ -0,0 +1,115 @@
+package leier.bryan.duell.model;
+
+/**
+ * The result of one game of a batch tournament between two strategies, called A and B. Strategy A plays the human's
+ * dice in some games and the computer's dice in others, so results are kept both by side and by strategy.
+ */
+
+public class GameResult {
+    // The result of Board.checkWinCondition() for the winning move, or 0 if the game was a draw.
+    private final int winCondition;
+    // Whether strategy A played the human's dice.
+    private final boolean strategyAIsHuman;
+    // How many moves were made in the game, counting both players.
+    private final int plies;
+    // How long each strategy spent choosing its moves, in nanoseconds, and how many moves it made. Indexed by 0 for A
+    // and 1 for B.
+    private final long[] thinkNanos;
+    private final int[] moves;
+
+    /**
+     * Constructor for the result of a game.
+     * @param winCondition the result of Board.checkWinCondition(), or 0 for a draw
+     * @param strategyAIsHuman whether strategy A played the human's dice
+     * @param plies how many moves were made in the game
+     * @param thinkNanosA how long strategy A spent choosing its moves, in nanoseconds
+     * @param movesA how many moves strategy A made
+     * @param thinkNanosB how long strategy B spent choosing its moves, in nanoseconds
+     * @param movesB how many moves strategy B made
+     */
+    public GameResult(int winCondition, boolean strategyAIsHuman, int plies, long thinkNanosA, int movesA,
+                      long thinkNanosB, int movesB)
+    {
+        this.winCondition = winCondition;
+        this.strategyAIsHuman = strategyAIsHuman;
+        this.plies = plies;
+        this.thinkNanos = new long[] {thinkNanosA, thinkNanosB};
+        this.moves = new int[] {movesA, movesB};
+    }
+
+    /**
+     * Gets the result of Board.checkWinCondition() for the winning move.
+     * @return 1 to 4, or 0 if the game was a draw
+     */
+    public int getWinCondition()
+    {
+        return winCondition;
+    }
+
+    /**
+     * Gets the side that won.
+     * @return H or C, or N if the game was a draw
+     */
+    public char getWinningSide()
+    {
+        return BitBoard.winnerOf(winCondition);
+    }
+
+    /**
+     * Gets the strategy that won.
+     * @return 0 for strategy A, 1 for strategy B, or -1 if the game was a draw
+     */
+    public int getWinningStrategy()
+    {
+        char side = getWinningSide();
+        if (side == 'N') return -1;
+        return (side == 'H') == strategyAIsHuman ? 0 : 1;
+    }
+
+    /**
+     * Determines if the game was won by landing on a key space rather than by capturing a key die.
+     * @return a boolean that is true for a key space win
+     */
+    public boolean isKeySpaceWin()
+    {
+        return winCondition == 1 || winCondition == 2;
+    }
+
+    /**
+     * Determines if strategy A played the human's dice.
+     * @return strategyAIsHuman of the GameResult
+     */
+    public boolean isStrategyAHuman()
+    {
+        return strategyAIsHuman;
+    }
+
+    /**
+     * Gets how many moves were made in the game.
+     * @return plies of the GameResult
+     */
+    public int getPlies()
+    {
+        return plies;
+    }
+
+    /**
+     * Gets how long a strategy spent choosing its moves.
+     * @param strategy 0 for strategy A, 1 for strategy B
+     * @return the time in nanoseconds
+     */
+    public long getThinkNanos(int strategy)
+    {
+        return thinkNanos[strategy];
+    }
+
+    /**
+     * Gets how many moves a strategy made.
+     * @param strategy 0 for strategy A, 1 for strategy B
+     * @return the number of moves
+     */
+    public int getMoves(int strategy)
+    {
+        return moves[strategy];
+    }
+}
@@ -0,0 +1,38 @@
+package leier.bryan.duell.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Where saved games are kept. Game reads and writes the saved game format itself and only asks the storage for the
+ * bytes, so the same game can save to a device's external storage, to a folder on a server, or to memory in a test.
+ */
+
+public interface GameStorage {
+    /**
+     * Opens a saved game to read from.
+     * @param name the name the game was saved under
+     * @return a stream of the saved game, which the caller closes
+     * @throws java.io.FileNotFoundException if no game is saved under the name
+     * @throws IOException if the storage cannot be read from
+     */
+    InputStream openInput(String name) throws IOException;
+
+    /**
+     * Opens a saved game to write to, replacing any game already saved under the name.
+     * @param name the name to save the game under
+     * @return a stream to write the saved game to, which the caller closes
+     * @throws IOException if the storage cannot be written to
+     */
+    OutputStream openOutput(String name) throws IOException;
+
+    /**
+     * Opens a file to add to the end of, creating it if there is nothing saved under the name yet. Everything written
+     * before the stream is closed must be kept, even if the app is killed before the next write.
+     * @param name the name of the file
+     * @return a stream that writes after whatever is already saved, which the caller closes
+     * @throws IOException if the storage cannot be written to
+     */
+    OutputStream openAppend(String name) throws IOException;
+}
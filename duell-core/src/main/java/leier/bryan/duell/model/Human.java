@@ -1,7 +1,5 @@
 package leier.bryan.duell.model;
 
-import java.util.Random;
-
 import leier.bryan.duell.model.Player;
 
 /**
@@ -45,32 +43,20 @@ public class Human extends Player {
      */
     public int determineDirection(Board board, int dieRow, int dieColumn, int spaceRow, int spaceColumn)
     {
-        // These integers are the number of rolls it takes to change from the die position to the space position.
-        int rowRolls = Math.abs(spaceRow - dieRow);
-        int columnRolls = Math.abs(spaceColumn - dieColumn);
-        // Booleans that determine if a frontal or lateral move is possible at first.
-        boolean lateralMove = canMoveLaterally(board, dieRow, dieColumn, spaceColumn, board.getDieTopNum(dieRow, dieColumn), 'H');
-        boolean frontalMove = canMoveFrontally(board, dieRow, dieColumn, spaceRow, board.getDieTopNum(dieRow, dieColumn), 'H');
-        boolean secondFrontalMove = false;
-        boolean secondLateralMove = false;
-        if (!canMoveFrontally(board, dieRow, spaceColumn, spaceRow, rowRolls, 'H') && rowRolls != 0) {}
-        else
-        {
-            secondFrontalMove = true;
-        }
-        if (!canMoveLaterally(board, spaceRow, dieColumn, spaceColumn, columnRolls, 'H') && columnRolls != 0) {}
-        else
-        {
-            secondLateralMove = true;
-        }
+        // A die cannot roll one way first if it has no spaces to roll that way, or if something is in the way.
+        BitBoard bits = board.getBitBoard();
+        int dieSquare = BitBoard.square(dieRow, dieColumn);
+        int spaceSquare = BitBoard.square(spaceRow, spaceColumn);
+        boolean frontalMove = dieRow != spaceRow && PathMasks.isClear(bits, dieSquare, spaceSquare, true);
+        boolean lateralMove = dieColumn != spaceColumn && PathMasks.isClear(bits, dieSquare, spaceSquare, false);
 
         // See how the player should determine their move. If both are possible, both directions are
         // possible. Return 0.
-        if ((lateralMove && secondFrontalMove) && (frontalMove && secondLateralMove)) return 0;
+        if (lateralMove && frontalMove) return 0;
         // If you only move laterally, only move laterally.
-        if (lateralMove && secondFrontalMove) return 1;
+        if (lateralMove) return 1;
         // If you can only move frontally, only move frontally.
-        if (frontalMove && secondLateralMove) return 2;
+        if (frontalMove) return 2;
 
         // error if we got here
         return 0;
@@ -107,81 +93,81 @@ public class Human extends Player {
      */
     public String getHelp(Board board)
     {
-        // Array to initialize to get the results of the score functions:
-        int[] dieCoords;
+        // The packed move returned by the score functions:
+        int move;
         // The computer will determine which of the human's dice that it could move. It needs to check for certain scenarios
         // to make the appropriate move. This is actually quite similar to how Computer.play() works, but it does not actually
         // make moves.
 
         // The key die results in an immediate win, so find where the human's key die is. If it can be captured, do it.
-        dieCoords = captureKeyDieScore(board, 'H');
-        if (dieCoords[0] != 0)
+        move = captureKeyDieScore(board, 'H');
+        if (move != Move.NONE)
         {
             // Recommend a move to capture the key die.
-            return recommendMove(board, dieCoords[0], dieCoords[1], dieCoords[2], dieCoords[3], "keyDieCapture");
+            return recommendMove(board, move, "keyDieCapture");
         }
         // Key space capture results in a win as well, so see if the human can travel to it.
-        dieCoords = captureKeySpaceScore(board, 'H');
-        if (dieCoords[0] != 0)
+        move = captureKeySpaceScore(board, 'H');
+        if (move != Move.NONE)
         {
             // Recommend a move to capture the key space.
-            return recommendMove(board, dieCoords[0], dieCoords[1], dieCoords[2], dieCoords[3], "keySpaceCapture");
+            return recommendMove(board, move, "keySpaceCapture");
         }
         // The computer must also make moves to play defensively if it detects that the human could possibly win.
         // If a human's die is close to the computer's key die, block the capture or move the die.
-        dieCoords = blockKeyDieScore(board, 'H');
-        if (dieCoords[0] != 0)
+        move = blockKeyDieScore(board, 'H');
+        if (move != Move.NONE)
         {
             // Recommend a move to block key die capture.
-            return recommendMove(board, dieCoords[0], dieCoords[1], dieCoords[2], dieCoords[3], "blockKeyDie");
+            return recommendMove(board, move, "blockKeyDie");
         }
         // If a human's die is close to the computer's key space, block the capture or move the die.
-        dieCoords = blockKeySpaceScore(board, 'H');
-        if (dieCoords[0] != 0)
+        move = blockKeySpaceScore(board, 'H');
+        if (move != Move.NONE)
         {
             // Recommend a move to block key space capture.
-            return recommendMove(board, dieCoords[0], dieCoords[1], dieCoords[2], dieCoords[3], "blockKeySpace");
+            return recommendMove(board, move, "blockKeySpace");
         }
         // If the code flow is at this point, there's no reason to play defensively. Seek a die to capture.
-        dieCoords = captureDieScore(board, 'H');
-        if (dieCoords[0] != 0)
+        move = captureDieScore(board, 'H');
+        if (move != Move.NONE)
         {
             // Recommend a move to capture the enemy die.
-            return recommendMove(board, dieCoords[0], dieCoords[1], dieCoords[2], dieCoords[3], "dieCapture");
+            return recommendMove(board, move, "dieCapture");
         }
         // Otherwise, random move.
         else
         {
             // Find a random move to make.
-            dieCoords = randomMove(board, 'H');
+            move = randomMove(board, 'H');
             // Recommend the move.
-            return recommendMove(board, dieCoords[0], dieCoords[1], dieCoords[2], dieCoords[3], "random");
+            return recommendMove(board, move, "random");
         }
     }
 
     /**
      * puts together the recommendation that the computer makes to the player
      * @param board the board that is being played on
-     * @param dieRow row of die to move
-     * @param dieColumn column of die to move
-     * @param spaceRow row of space to move to
-     * @param spaceColumn column of space to move to
+     * @param move the packed move to recommend. Its direction is decided here
      * @param strategy the reasoning behind the recommendation
      * @return a string that contains the message to give to the player
      */
-    private String recommendMove(Board board, int dieRow, int dieColumn, int spaceRow, int spaceColumn, String strategy)
+    private String recommendMove(Board board, int move, String strategy)
     {
-        // The spaces to move the die.
-        int spacesToMove = board.getDieTopNum(dieRow, dieColumn);
+        // Decide which direction to roll in first. If both ways are possible, the computer will randomly decide.
+        move = chooseDirection(board, move, 'H');
+        // If there is no move at all, there is nothing to recommend.
+        if (move == Move.NONE) return "The computer could not find a move for any of your dice.";
+        // The coordinates of the die and the space to move to.
+        int dieRow = BitBoard.rowOf(Move.dieSquare(move));
+        int dieColumn = BitBoard.columnOf(Move.dieSquare(move));
+        int spaceRow = BitBoard.rowOf(Move.spaceSquare(move));
+        int spaceColumn = BitBoard.columnOf(Move.spaceSquare(move));
         // The amount of spaces needed to traverse to the given coordinates.
         int rowRolls = Math.abs(spaceRow - dieRow);
         int columnRolls = Math.abs(spaceColumn - dieColumn);
-        // Boolean values for frontal and lateral moves.
-        boolean frontalMove = false, lateralMove = false, secondFrontalMove = false, secondLateralMove = false;
         // The string to return.
         String recommendation;
-        // Random seed.
-        Random rand = new Random();
 
         // Start printing the recommendation.
         recommendation = "The computer recommends moving " + board.getDieName(dieRow, dieColumn) + " at (" + Integer.toString(dieRow)
@@ -209,47 +195,8 @@ public class Human extends Player {
         // Start printing the rest of the recommendation.
         recommendation += "It recommends rolling ";
 
-        // Determine if the die can be moved frontally or laterally from the die's coordinates.
-        frontalMove = canMoveFrontally(board, dieRow, dieColumn, spaceRow, spacesToMove, 'H');
-        lateralMove = canMoveLaterally(board, dieRow, dieColumn, spaceColumn, spacesToMove, 'H');
-        // Determine if the die can be moved frontally or laterally after a 90 degree turn.
-        if (frontalMove)
-        {
-            // If you can move frontally (at first) but you cannot move laterally afterwards and
-            // the remaining number of spaces to travel is not 0, you cannot travel to that space.
-            if (!canMoveLaterally(board, spaceRow, dieColumn, spaceColumn, columnRolls, 'H') && columnRolls != 0)
-                secondLateralMove = false;
-                // Otherwise, a second move is possible.
-            else secondLateralMove = true;
-        }
-        if (lateralMove)
-        {
-            // If you can move laterally (at first) but you cannot move frontally afterwards and the remaining
-            // number of spaces to travel is not 0, you cannot travel to that space.
-            if (!canMoveFrontally(board, dieRow, spaceColumn, spaceRow, rowRolls, 'H') && rowRolls != 0)
-                secondFrontalMove = false;
-                // Otherwise, a second move is possible.
-            else secondFrontalMove = true;
-        }
-        // Check if both ways are possible. If so, the computer will randomly decide if it wants to move laterally or frontally.
-        if ((frontalMove && secondLateralMove) && (lateralMove && secondFrontalMove))
-        {
-            // Generate the number 0 or 1 randomly. 0 will be a frontal move, and 1 will be a lateral move.
-            int decision = rand.nextInt(2);
-            if (decision == 0)
-            {
-                // Recommend to move frontally and not laterally.
-                lateralMove = false;
-            }
-            else
-            {
-                // Recommend to move laterally and not frontally.
-                frontalMove = false;
-            }
-
-        }
         // If we can move frontally, make the move.
-        if (frontalMove && secondLateralMove)
+        if (Move.isFrontalFirst(move))
         {
             // Start printing the move recommendation.
             recommendation += "frontally by " + Integer.toString(rowRolls);
@@ -257,7 +204,7 @@ public class Human extends Player {
             if (columnRolls != 0)
                 recommendation += " and laterally by " + Integer.toString(columnRolls);
         }
-        if (lateralMove && secondFrontalMove)
+        else
         {
             // Start printing the move recommendation.
             recommendation += "laterally by " + Integer.toString(columnRolls);
@@ -0,0 +1,21 @@
+package leier.bryan.duell.model;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a saved game or journal was read but does not hold a game, because it was cut short, changed by
+ * something else, or is some other kind of file.
+ */
+
+public class InvalidSaveException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor for the exception.
+     * @param name the name of the file that is not a saved game
+     */
+    public InvalidSaveException(String name)
+    {
+        super(name + " is not a saved game");
+    }
+}
@@ -0,0 +1,91 @@
+package leier.bryan.duell.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps saved games in memory, for tests, benchmarks and games that do not need to outlive the JVM. A game is only kept
+ * once the stream it is written to has been closed.
+ */
+
+public class MemoryGameStorage implements GameStorage {
+    // The bytes of each saved game, by name.
+    private final Map<String, byte[]> games = new HashMap<String, byte[]>();
+
+    /**
+     * Saves a game's bytes directly.
+     * @param name the name to save the game under
+     * @param bytes the bytes of the saved game
+     */
+    public synchronized void put(String name, byte[] bytes)
+    {
+        games.put(name, bytes.clone());
+    }
+
+    /**
+     * Gets a saved game's bytes directly.
+     * @param name the name the game was saved under
+     * @return the bytes of the saved game, or null if no game is saved under the name
+     */
+    public synchronized byte[] get(String name)
+    {
+        byte[] bytes = games.get(name);
+        return bytes == null ? null : bytes.clone();
+    }
+
+    @Override
+    public synchronized InputStream openInput(String name) throws IOException
+    {
+        byte[] bytes = games.get(name);
+        if (bytes == null) throw new FileNotFoundException(name);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Override
+    public OutputStream openOutput(final String name) throws IOException
+    {
+        return new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException
+            {
+                super.close();
+                synchronized (MemoryGameStorage.this)
+                {
+                    games.put(name, toByteArray());
+                }
+            }
+        };
+    }
+
+    @Override
+    public OutputStream openAppend(final String name) throws IOException
+    {
+        return new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException
+            {
+                super.close();
+                synchronized (MemoryGameStorage.this)
+                {
+                    // Add the new bytes after whatever was saved under the name.
+                    byte[] old = games.get(name);
+                    if (old == null)
+                    {
+                        games.put(name, toByteArray());
+                        return;
+                    }
+                    byte[] bytes = new byte[old.length + size()];
+                    System.arraycopy(old, 0, bytes, 0, old.length);
+                    System.arraycopy(buf, 0, bytes, old.length, size());
+                    games.put(name, bytes);
+                }
+            }
+        };
+    }
+}
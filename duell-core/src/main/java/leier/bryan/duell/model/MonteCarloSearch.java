@@ -0,0 +1,490 @@
+package leier.bryan.duell.model;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Monte Carlo tree search (UCT) that picks a move by playing many games out to the end and counting which first moves
+ * win most often. The search is root parallel: every core grows its own tree from the same position with its own random
+ * numbers, and the visits each tree gave to each first move are added up at the end. The trees never share anything
+ * while they grow, so no locking is needed.
+ *
+ * Playouts are played on a bitboard. PLAYOUT_RANDOM picks any legal move at random, like Player.randomMove(), and
+ * PLAYOUT_HEURISTIC follows the order of Computer.play(): it wins if it can, captures if it can, and moves at random
+ * otherwise.
+ */
+
+public class MonteCarloSearch {
+    // The ways a playout can pick its moves.
+    public static final String PLAYOUT_RANDOM = "random";
+    public static final String PLAYOUT_HEURISTIC = "heuristic";
+    // How much the search favours moves it has not tried much over moves that have done well so far.
+    private static final double EXPLORATION = 1.41;
+    // The longest a playout goes on before it is scored by the dice left on the board.
+    private static final int MAX_PLAYOUT_PLIES = 120;
+    // The squares of each player's key space, indexed by HUMAN or COMPUTER.
+    private static final int[] KEY_SPACE = { BitBoard.square(1, 5), BitBoard.square(BitBoard.ROWS, 5) };
+
+    // The number of trees grown at once.
+    private final int threads;
+    // The seed the random numbers of each tree are made from.
+    private final long seed;
+    // Runs one tree on each thread. Only created once it is needed.
+    private ExecutorService executor;
+    // The way playouts pick their moves.
+    private String playoutPolicy = PLAYOUT_HEURISTIC;
+    // The longest the search may take, in milliseconds.
+    private long timeLimit = 1000;
+    // The most playouts each tree may run, no matter how much time is left.
+    private int maxIterations = Integer.MAX_VALUE;
+    // Set when the search has to stop early.
+    private volatile boolean stopped;
+    // How many times stop() has been called, so a stop made just before a search gets going is not lost.
+    private final AtomicInteger stopCount = new AtomicInteger();
+    // The number of searches run so far, so that each search gets different random numbers.
+    private long searches = 0;
+    // The number of playouts the last search ran, over every tree.
+    private long playouts;
+
+    /**
+     * Default constructor. One tree is grown on each available core.
+     */
+    public MonteCarloSearch()
+    {
+        this(Runtime.getRuntime().availableProcessors(), System.nanoTime());
+    }
+
+    /**
+     * Constructor that sets how many trees are grown at once and where their random numbers come from.
+     * @param threads the number of trees to grow at once, at least 1
+     * @param seed the seed of the random numbers. A search limited by setMaxIterations() always picks the same move
+     *             for the same seed
+     */
+    public MonteCarloSearch(int threads, long seed)
+    {
+        this.threads = Math.max(1, threads);
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the way playouts pick their moves.
+     * @param playoutPolicy PLAYOUT_RANDOM or PLAYOUT_HEURISTIC
+     */
+    public void setPlayoutPolicy(String playoutPolicy)
+    {
+        this.playoutPolicy = playoutPolicy;
+    }
+
+    /**
+     * Sets how long each search may take.
+     * @param milliseconds the time limit in milliseconds
+     */
+    public void setTimeLimit(long milliseconds)
+    {
+        this.timeLimit = milliseconds;
+    }
+
+    /**
+     * Sets how many playouts each tree may run, no matter how much time is left.
+     * @param iterations the number of playouts per tree
+     */
+    public void setMaxIterations(int iterations)
+    {
+        this.maxIterations = Math.max(1, iterations);
+    }
+
+    /**
+     * Stops the search that is running, if there is one. The search returns the best move it has found so far.
+     */
+    public void stop()
+    {
+        stopCount.incrementAndGet();
+        stopped = true;
+    }
+
+    /**
+     * Gets how many times the search has been stopped, to pass to findMove() when the search is asked for on one thread
+     * and run on another.
+     * @return the number of calls to stop() so far
+     */
+    public int getStopCount()
+    {
+        return stopCount.get();
+    }
+
+    /**
+     * Gets the number of playouts the last search ran.
+     * @return the number of playouts over every tree
+     */
+    public long getPlayouts()
+    {
+        return playouts;
+    }
+
+    /**
+     * Stops the threads the trees are grown on. The search can still be used afterwards, as they are started again.
+     */
+    public void shutdown()
+    {
+        if (executor != null) executor.shutdownNow();
+        executor = null;
+    }
+
+    /**
+     * Searches for the best move a player can make.
+     * @param board the board to search. It is not changed
+     * @param playerType the player to move
+     * @return the packed move, including which direction to roll in first, or Move.NONE if the player cannot move
+     */
+    public int findMove(Board board, char playerType)
+    {
+        BitBoard bits = board.toBitBoard();
+        bits.setSideToMove(playerType);
+        return findMove(bits);
+    }
+
+    /**
+     * Searches for the best move of the player whose turn it is.
+     * @param bits the bitboard to search, with the player to move set. It is not changed
+     * @return the packed move, including which direction to roll in first, or Move.NONE if the player cannot move
+     */
+    public int findMove(BitBoard bits)
+    {
+        return findMove(bits, stopCount.get());
+    }
+
+    /**
+     * Searches for the best move of the player whose turn it is, unless the search has been stopped since it was asked
+     * for. If it has, the trees are not grown and the first legal move is returned.
+     * @param bits the bitboard to search, with the player to move set. It is not changed
+     * @param askedStopCount what getStopCount() returned when the search was asked for
+     * @return the packed move, including which direction to roll in first, or Move.NONE if the player cannot move
+     */
+    public synchronized int findMove(BitBoard bits, int askedStopCount)
+    {
+        stopped = stopCount.get() != askedStopCount;
+        playouts = 0;
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generateMoves(bits, bits.getSideToMove(), rootMoves);
+        if (rootMoves.isEmpty()) return Move.NONE;
+        // A win on the spot needs no search.
+        int player = BitBoard.playerIndex(bits.getSideToMove());
+        for (int i = 0; i < rootMoves.size(); i++)
+        {
+            if (isWinningMove(bits, rootMoves.get(i), player)) return rootMoves.get(i);
+        }
+
+        // Grow one tree on each thread.
+        long deadline = System.currentTimeMillis() + timeLimit;
+        searches++;
+        Future<?>[] futures = new Future<?>[threads];
+        Tree[] trees = new Tree[threads];
+        for (int i = 0; i < threads; i++)
+        {
+            trees[i] = new Tree(bits, new Random(seed + searches * 0x9E3779B97F4A7C15L + i), deadline, askedStopCount);
+            futures[i] = getExecutor().submit(trees[i]);
+        }
+        // Wait for every tree. If this thread is interrupted, the trees are told to stop, but are still waited for.
+        boolean interrupted = false;
+        for (int i = 0; i < threads; i++)
+        {
+            try
+            {
+                futures[i].get();
+            }
+            catch (InterruptedException e)
+            {
+                stopped = true;
+                interrupted = true;
+                i--;
+            }
+            catch (ExecutionException e)
+            {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        // Add up how often each tree visited each first move.
+        int[] visits = new int[rootMoves.size()];
+        for (int i = 0; i < threads; i++)
+        {
+            playouts += trees[i].root.visits;
+            for (Node child = trees[i].root.firstChild; child != null; child = child.nextSibling)
+            {
+                for (int j = 0; j < rootMoves.size(); j++)
+                {
+                    if (rootMoves.get(j) == child.move) visits[j] += child.visits;
+                }
+            }
+        }
+        // The move visited most is the one the trees trusted most.
+        int best = 0;
+        for (int i = 1; i < visits.length; i++)
+        {
+            if (visits[i] > visits[best]) best = i;
+        }
+        return rootMoves.get(best);
+    }
+
+    /**
+     * Gets the threads the trees are grown on, starting them the first time they are needed.
+     * @return the executor
+     */
+    private ExecutorService getExecutor()
+    {
+        if (executor == null)
+        {
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    // Searching should never keep the application alive.
+                    Thread thread = new Thread(runnable, "mcts");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Determines if a move wins the game straight away, by capturing the opponent's key die or landing on their key space.
+     * @param bits the position the move is made in
+     * @param move the packed move
+     * @param player the index of the player making the move
+     * @return a boolean that is true if the move wins
+     */
+    private static boolean isWinningMove(BitBoard bits, int move, int player)
+    {
+        int to = Move.spaceSquare(move);
+        return to == KEY_SPACE[1 - player] || bits.isKeyDie(to);
+    }
+
+    /**
+     * Makes a move on a bitboard and hands the turn to the other player.
+     * @param bits the position to make the move in
+     * @param move the packed move
+     */
+    private static void makeMove(BitBoard bits, int move)
+    {
+        int from = Move.dieSquare(move);
+        char playerType = bits.getPlayerType(from);
+        bits.moveDie(from, Move.spaceSquare(move), Board.rollAlong(bits.getOrientation(from), move));
+        bits.setSideToMove(playerType == 'H' ? 'C' : 'H');
+    }
+
+    /**
+     * A position in a tree, reached by one move from its parent.
+     */
+    private static final class Node
+    {
+        // The move that leads to this position from its parent, or Move.NONE at the root.
+        final int move;
+        // The index of the player who made that move.
+        final int player;
+        // The position before this one, and the other positions that can be reached from it.
+        final Node parent;
+        Node nextSibling;
+        // The positions that have been reached from this one so far.
+        Node firstChild;
+        // The moves from this position that have no child yet. Null until the position is first expanded.
+        MoveList untried;
+        // Set if the move that leads here wins the game.
+        boolean winning;
+        // How often the position was visited, and how many of those playouts the player who moved here won.
+        int visits;
+        double wins;
+
+        /**
+         * Constructor for a position in a tree.
+         * @param move the move that leads to it
+         * @param player the index of the player who made that move
+         * @param parent the position before it
+         */
+        Node(int move, int player, Node parent)
+        {
+            this.move = move;
+            this.player = player;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * One tree, grown by one thread from the root position until the time runs out.
+     */
+    private final class Tree implements Callable<Void>
+    {
+        // The position the tree starts from.
+        private final BitBoard rootBits;
+        // The position of the current playout.
+        private final BitBoard bits = new BitBoard();
+        // The random numbers of this tree.
+        private final Random random;
+        // When the tree has to stop growing.
+        private final long deadline;
+        // The search's stop count when the search was asked for. The tree stops growing once it changes.
+        private final int askedStopCount;
+        // The moves of the current playout step.
+        private final MoveList moves = new MoveList();
+        // The first position of the tree.
+        final Node root;
+
+        /**
+         * Constructor for a tree.
+         * @param rootBits the position the tree starts from. It is copied
+         * @param random the random numbers of the tree
+         * @param deadline when the tree has to stop growing, as a System.currentTimeMillis() value
+         * @param askedStopCount the search's stop count when the search was asked for
+         */
+        Tree(BitBoard rootBits, Random random, long deadline, int askedStopCount)
+        {
+            this.askedStopCount = askedStopCount;
+            this.rootBits = new BitBoard(rootBits);
+            this.random = random;
+            this.deadline = deadline;
+            // The root is "reached" by the player who moved last, which is the opponent of the player to move.
+            this.root = new Node(Move.NONE, 1 - BitBoard.playerIndex(rootBits.getSideToMove()), null);
+        }
+
+        @Override
+        public Void call()
+        {
+            for (int iteration = 0; iteration < maxIterations && !stopped; iteration++)
+            {
+                // Checking the clock is slow next to a playout, so only check it every few playouts. A stop() that came
+                // before the search cleared the flag shows up in the stop count.
+                if ((iteration & 15) == 0
+                        && (System.currentTimeMillis() >= deadline || stopCount.get() != askedStopCount)) break;
+                bits.copyFrom(rootBits);
+                Node node = select();
+                int winner = node.winning ? node.player : playout();
+                backPropagate(node, winner);
+            }
+            return null;
+        }
+
+        /**
+         * Walks down the tree by UCT until it reaches a position with a move that has not been tried, then adds that
+         * move to the tree. The moves are made on the playout board along the way.
+         * @return the position that was added, or a winning position that was reached
+         */
+        private Node select()
+        {
+            Node node = root;
+            while (true)
+            {
+                if (node.winning) return node;
+                if (node.untried == null)
+                {
+                    node.untried = new MoveList();
+                    MoveGenerator.generateMoves(bits, bits.getSideToMove(), node.untried);
+                }
+                // Add one of the moves that have not been tried yet.
+                if (!node.untried.isEmpty())
+                {
+                    node.untried.swap(random.nextInt(node.untried.size()), node.untried.size() - 1);
+                    int move = node.untried.removeLast();
+                    int player = BitBoard.playerIndex(bits.getSideToMove());
+                    Node child = new Node(move, player, node);
+                    child.winning = isWinningMove(bits, move, player);
+                    child.nextSibling = node.firstChild;
+                    node.firstChild = child;
+                    makeMove(bits, move);
+                    return child;
+                }
+                // A player with no moves at all ends the walk here.
+                if (node.firstChild == null) return node;
+                node = bestChild(node);
+                makeMove(bits, node.move);
+            }
+        }
+
+        /**
+         * Picks the child with the best UCT value: how often it won, plus a bonus for not having been tried much.
+         * @param node the position to pick a child of
+         * @return the child
+         */
+        private Node bestChild(Node node)
+        {
+            double logVisits = Math.log(node.visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child = node.firstChild; child != null; child = child.nextSibling)
+            {
+                // A move that wins on the spot is always taken.
+                if (child.winning) return child;
+                double value = child.wins / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue)
+                {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Plays the game out from the playout board.
+         * @return the index of the winning player, or -1 if neither is ahead when the playout gives up
+         */
+        private int playout()
+        {
+            boolean heuristic = playoutPolicy.equals(PLAYOUT_HEURISTIC);
+            for (int ply = 0; ply < MAX_PLAYOUT_PLIES; ply++)
+            {
+                int player = BitBoard.playerIndex(bits.getSideToMove());
+                MoveGenerator.generateMoves(bits, bits.getSideToMove(), moves);
+                if (moves.isEmpty()) break;
+                int move = moves.get(random.nextInt(moves.size()));
+                if (heuristic)
+                {
+                    // Win if possible, otherwise capture if possible, starting from a random move so ties are random.
+                    int start = random.nextInt(moves.size());
+                    boolean capture = false;
+                    for (int i = 0; i < moves.size(); i++)
+                    {
+                        int candidate = moves.get((start + i) % moves.size());
+                        if (isWinningMove(bits, candidate, player)) return player;
+                        if (!capture && bits.isOccupied(Move.spaceSquare(candidate)))
+                        {
+                            move = candidate;
+                            capture = true;
+                        }
+                    }
+                }
+                else if (isWinningMove(bits, move, player))
+                {
+                    return player;
+                }
+                makeMove(bits, move);
+            }
+            // Nobody won in time, so whoever has more dice left is counted as the winner.
+            int human = bits.countDice('H');
+            int computer = bits.countDice('C');
+            if (human > computer) return BitBoard.HUMAN;
+            if (computer > human) return BitBoard.COMPUTER;
+            return -1;
+        }
+
+        /**
+         * Records the result of a playout in every position on the way back to the root.
+         * @param node the position the playout started from
+         * @param winner the index of the winning player, or -1 for neither
+         */
+        private void backPropagate(Node node, int winner)
+        {
+            for (; node != null; node = node.parent)
+            {
+                node.visits++;
+                if (winner == node.player) node.wins += 1;
+                else if (winner == -1) node.wins += 0.5;
+            }
+        }
+    }
+}
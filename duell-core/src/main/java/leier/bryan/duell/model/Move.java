@@ -0,0 +1,220 @@
+package leier.bryan.duell.model;
+
+/**
+ * A move of one die to a space on the board, along with the direction it first rolls in. Moves are immutable.
+ *
+ * Each move is packed into a single int so that move generators and searches can pass them around without creating
+ * objects: bits 0-6 hold the square of the die, bits 7-13 the square it moves to and bit 14 is set if the die rolls
+ * frontally first. Squares are numbered as in BitBoard. The static methods work on the packed ints directly; a Move
+ * object is only a wrapper around one of them.
+ */
+
+public final class Move {
+    // A packed move that means "no move". A die can never move to the square it is on, so this is never a real move.
+    public static final int NONE = 0;
+    // The bit that is set if the die rolls frontally before it rolls laterally.
+    public static final int FRONTAL_FIRST = 1 << 14;
+    // The mask and shift for each square in a packed move.
+    private static final int SQUARE_MASK = 0x7F;
+    private static final int SPACE_SHIFT = 7;
+
+    // The packed move.
+    private final int move;
+
+    /**
+     * Constructor for a move.
+     * @param dieRow the row coordinate of the die to move
+     * @param dieColumn the column coordinate of the die to move
+     * @param spaceRow the row coordinate of the space to move to
+     * @param spaceColumn the column coordinate of the space to move to
+     * @param direction the direction to first move in, "frontally" or "laterally"
+     */
+    public Move(int dieRow, int dieColumn, int spaceRow, int spaceColumn, String direction)
+    {
+        this.move = encode(dieRow, dieColumn, spaceRow, spaceColumn, direction.equals("frontally"));
+    }
+
+    /**
+     * Constructor for a move that is already packed into an int.
+     * @param move the packed move
+     */
+    public Move(int move)
+    {
+        this.move = move;
+    }
+
+    /**
+     * Gets the move packed into an int.
+     * @return the packed move
+     */
+    public int toInt()
+    {
+        return move;
+    }
+
+    /**
+     * Gets the row coordinate of the die to move.
+     * @return dieRow of the Move
+     */
+    public int getDieRow()
+    {
+        return BitBoard.rowOf(dieSquare(move));
+    }
+
+    /**
+     * Gets the column coordinate of the die to move.
+     * @return dieColumn of the Move
+     */
+    public int getDieColumn()
+    {
+        return BitBoard.columnOf(dieSquare(move));
+    }
+
+    /**
+     * Gets the row coordinate of the space to move to.
+     * @return spaceRow of the Move
+     */
+    public int getSpaceRow()
+    {
+        return BitBoard.rowOf(spaceSquare(move));
+    }
+
+    /**
+     * Gets the column coordinate of the space to move to.
+     * @return spaceColumn of the Move
+     */
+    public int getSpaceColumn()
+    {
+        return BitBoard.columnOf(spaceSquare(move));
+    }
+
+    /**
+     * Determines if the die rolls frontally before it rolls laterally.
+     * @return a boolean that is true for a frontal first roll
+     */
+    public boolean isFrontalFirst()
+    {
+        return isFrontalFirst(move);
+    }
+
+    /**
+     * Gets the direction the die first rolls in.
+     * @return "frontally" or "laterally"
+     */
+    public String getDirection()
+    {
+        return getDirection(move);
+    }
+
+    /**
+     * Packs a move into an int.
+     * @param dieSquare the square of the die to move
+     * @param spaceSquare the square to move to
+     * @param frontalFirst whether the die rolls frontally before it rolls laterally
+     * @return the packed move
+     */
+    public static int encode(int dieSquare, int spaceSquare, boolean frontalFirst)
+    {
+        int move = dieSquare | (spaceSquare << SPACE_SHIFT);
+        if (frontalFirst) move |= FRONTAL_FIRST;
+        return move;
+    }
+
+    /**
+     * Packs a move given in board coordinates into an int.
+     * @param dieRow the row coordinate of the die to move
+     * @param dieColumn the column coordinate of the die to move
+     * @param spaceRow the row coordinate of the space to move to
+     * @param spaceColumn the column coordinate of the space to move to
+     * @param frontalFirst whether the die rolls frontally before it rolls laterally
+     * @return the packed move
+     */
+    public static int encode(int dieRow, int dieColumn, int spaceRow, int spaceColumn, boolean frontalFirst)
+    {
+        return encode(BitBoard.square(dieRow, dieColumn), BitBoard.square(spaceRow, spaceColumn), frontalFirst);
+    }
+
+    /**
+     * Gets the square of the die to move from a packed move.
+     * @param move the packed move
+     * @return the square of the die
+     */
+    public static int dieSquare(int move)
+    {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Gets the square to move to from a packed move.
+     * @param move the packed move
+     * @return the square to move to
+     */
+    public static int spaceSquare(int move)
+    {
+        return (move >>> SPACE_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * Determines if the die in a packed move rolls frontally before it rolls laterally.
+     * @param move the packed move
+     * @return a boolean that is true for a frontal first roll
+     */
+    public static boolean isFrontalFirst(int move)
+    {
+        return (move & FRONTAL_FIRST) != 0;
+    }
+
+    /**
+     * Gets a copy of a packed move that first rolls in another direction.
+     * @param move the packed move
+     * @param frontalFirst whether the die rolls frontally before it rolls laterally
+     * @return the packed move with the new direction
+     */
+    public static int withDirection(int move, boolean frontalFirst)
+    {
+        if (frontalFirst) return move | FRONTAL_FIRST;
+        return move & ~FRONTAL_FIRST;
+    }
+
+    /**
+     * Gets the direction the die in a packed move first rolls in.
+     * @param move the packed move
+     * @return "frontally" or "laterally"
+     */
+    public static String getDirection(int move)
+    {
+        if (isFrontalFirst(move)) return "frontally";
+        return "laterally";
+    }
+
+    /**
+     * Describes a packed move.
+     * @param move the packed move
+     * @return a string such as "(1,3) to (3,4) frontally"
+     */
+    public static String toString(int move)
+    {
+        int dieSquare = dieSquare(move);
+        int spaceSquare = spaceSquare(move);
+        return "(" + BitBoard.rowOf(dieSquare) + "," + BitBoard.columnOf(dieSquare) + ") to ("
+                + BitBoard.rowOf(spaceSquare) + "," + BitBoard.columnOf(spaceSquare) + ") " + getDirection(move);
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        return other instanceof Move && ((Move) other).move == move;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return move;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toString(move);
+    }
+}
@@ -0,0 +1,119 @@
+package leier.bryan.duell.model;
+
+/**
+ * Generates every legal move a player can make in one pass over their dice. A die always moves exactly as many spaces as
+ * the number on its top, so only the spaces at that distance are considered. Each (die, space, first direction) triple
+ * that can be rolled is added as its own packed move: a move along a straight line only has one direction, while a move
+ * with a 90 degree turn is added once for each direction that is not blocked.
+ */
+
+public class MoveGenerator {
+
+    /**
+     * Generates every legal move for a player.
+     * @param board the board to generate moves on
+     * @param playerType the player whose moves are generated
+     * @param moves the list to fill. It is cleared first
+     */
+    public static void generateMoves(Board board, char playerType, MoveList moves)
+    {
+        generateMoves(board.getBitBoard(), playerType, moves);
+    }
+
+    /**
+     * Generates every legal move for a player.
+     * @param bits the bitboard to generate moves on
+     * @param playerType the player whose moves are generated
+     * @param moves the list to fill. It is cleared first
+     */
+    public static void generateMoves(BitBoard bits, char playerType, MoveList moves)
+    {
+        moves.clear();
+        int player = BitBoard.playerIndex(playerType);
+        if (player == -1) return;
+        // Visit each of the player's dice.
+        for (long dice = bits.getLowWord(player); dice != 0; dice &= dice - 1)
+        {
+            addMovesFrom(bits, Long.numberOfTrailingZeros(dice), player, moves);
+        }
+        for (long dice = bits.getHighWord(player); dice != 0; dice &= dice - 1)
+        {
+            addMovesFrom(bits, 64 + Long.numberOfTrailingZeros(dice), player, moves);
+        }
+    }
+
+    /**
+     * Generates every legal move for the die on one square.
+     * @param bits the bitboard to generate moves on
+     * @param dieSquare the square of the die to move
+     * @param moves the list to fill. It is cleared first
+     */
+    public static void generateMovesFrom(BitBoard bits, int dieSquare, MoveList moves)
+    {
+        moves.clear();
+        int player = BitBoard.playerIndex(bits.getPlayerType(dieSquare));
+        if (player == -1) return;
+        addMovesFrom(bits, dieSquare, player, moves);
+    }
+
+    /**
+     * Adds the moves of one die to a list.
+     * @param bits the bitboard to generate moves on
+     * @param dieSquare the square of the die to move
+     * @param player the index of the player who controls the die
+     * @param moves the list to add to
+     */
+    private static void addMovesFrom(BitBoard bits, int dieSquare, int player, MoveList moves)
+    {
+        int topNum = Die.topNumOf(bits.getOrientation(dieSquare));
+        int dieRow = dieSquare / BitBoard.COLUMNS;
+        int dieColumn = dieSquare % BitBoard.COLUMNS;
+        // Walk around the diamond of spaces that are exactly topNum rolls away.
+        for (int rowRolls = -topNum; rowRolls <= topNum; rowRolls++)
+        {
+            int spaceRow = dieRow + rowRolls;
+            if (spaceRow < 0 || spaceRow >= BitBoard.ROWS) continue;
+            int columnRolls = topNum - Math.abs(rowRolls);
+            // Try the space to the right, then the one to the left if it is a different space.
+            for (int side = 0; side < 2; side++)
+            {
+                int spaceColumn = side == 0 ? dieColumn + columnRolls : dieColumn - columnRolls;
+                if (side == 1 && columnRolls == 0) break;
+                if (spaceColumn < 0 || spaceColumn >= BitBoard.COLUMNS) continue;
+                int spaceSquare = spaceRow * BitBoard.COLUMNS + spaceColumn;
+                // A die can never land on one of its own player's dice.
+                if (bits.isPlayerType(spaceSquare, BitBoard.playerType(player))) continue;
+                addMove(bits, dieSquare, spaceSquare, moves);
+            }
+        }
+    }
+
+    /**
+     * Adds the move of a die to a space for each direction it can first roll in.
+     * @param bits the bitboard to generate moves on
+     * @param dieSquare the square of the die to move
+     * @param spaceSquare the square to move to, which is empty or has an opponent's die on it
+     * @param moves the list to add to
+     */
+    private static void addMove(BitBoard bits, int dieSquare, int spaceSquare, MoveList moves)
+    {
+        int dieRow = dieSquare / BitBoard.COLUMNS;
+        int dieColumn = dieSquare % BitBoard.COLUMNS;
+        int spaceRow = spaceSquare / BitBoard.COLUMNS;
+        int spaceColumn = spaceSquare % BitBoard.COLUMNS;
+        // A move along a single row or column only has one direction.
+        if (dieColumn == spaceColumn)
+        {
+            if (PathMasks.isClear(bits, dieSquare, spaceSquare, true)) moves.add(Move.encode(dieSquare, spaceSquare, true));
+            return;
+        }
+        if (dieRow == spaceRow)
+        {
+            if (PathMasks.isClear(bits, dieSquare, spaceSquare, false)) moves.add(Move.encode(dieSquare, spaceSquare, false));
+            return;
+        }
+        // Otherwise, the die can turn either way.
+        if (PathMasks.isClear(bits, dieSquare, spaceSquare, true)) moves.add(Move.encode(dieSquare, spaceSquare, true));
+        if (PathMasks.isClear(bits, dieSquare, spaceSquare, false)) moves.add(Move.encode(dieSquare, spaceSquare, false));
+    }
+}
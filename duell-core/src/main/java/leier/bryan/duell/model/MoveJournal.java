@@ -0,0 +1,245 @@
+package leier.bryan.duell.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only record of a game, so it can be resumed after the app is killed without the player ever saving. Each
+ * move adds one small record to the end of the journal, and every SNAPSHOT_INTERVAL moves the whole game is added as a
+ * snapshot. Resuming reads the last snapshot and makes the moves recorded after it.
+ *
+ * There are two kinds of record, each starting with its type:
+ * - A move record is MOVE_RECORD_SIZE bytes: 'M', the packed move as 2 bytes, the next player as H or C, the computer's
+ *   and the human's wins as 2 bytes each, and the low 2 bytes of a CRC32 of the record before them.
+ * - A snapshot record is SNAPSHOT_RECORD_SIZE bytes: 'S' followed by the game in the SavedGame binary format, which
+ *   has its own checksum.
+ * A record that was cut short or does not match its checksum ends the journal, so a kill in the middle of a write only
+ * loses the move that was being written.
+ */
+
+public class MoveJournal {
+    // The size of each kind of record, in bytes.
+    public static final int MOVE_RECORD_SIZE = 10;
+    public static final int SNAPSHOT_RECORD_SIZE = 1 + SavedGame.BINARY_SIZE;
+    // How many moves are recorded between snapshots.
+    public static final int SNAPSHOT_INTERVAL = 32;
+    // The bytes each kind of record starts with.
+    private static final byte MOVE = 'M';
+    private static final byte SNAPSHOT = 'S';
+    // The largest number of wins a move record can hold.
+    private static final int MAX_WINS = 0xFFFF;
+
+    // Where the journal is kept, and its name there.
+    private final GameStorage storage;
+    private final String name;
+    // How many moves have been recorded since the last snapshot.
+    private int movesSinceSnapshot = 0;
+
+    /**
+     * Constructor for a journal.
+     * @param storage where the journal is kept
+     * @param name the name of the journal's file in the storage
+     */
+    public MoveJournal(GameStorage storage, String name)
+    {
+        this.storage = storage;
+        this.name = name;
+    }
+
+    /**
+     * Starts the journal over from a game, replacing anything that was recorded before.
+     * @param game the game to start from
+     * @throws IOException if the journal could not be written
+     */
+    public void start(SavedGame game) throws IOException
+    {
+        OutputStream output = storage.openOutput(name);
+        try
+        {
+            output.write(snapshotRecord(game));
+        }
+        finally
+        {
+            output.close();
+        }
+        movesSinceSnapshot = 0;
+    }
+
+    /**
+     * Adds a snapshot of the whole game to the end of the journal.
+     * @param game the game as it is now
+     * @throws IOException if the journal could not be written
+     */
+    public void appendSnapshot(SavedGame game) throws IOException
+    {
+        append(snapshotRecord(game));
+        movesSinceSnapshot = 0;
+    }
+
+    /**
+     * Adds a move to the end of the journal.
+     * @param move the packed move that was made, with its direction
+     * @param nextPlayer the player who moves next, H or C
+     * @param computerWins the amount of times the computer has won
+     * @param humanWins the amount of times the human has won
+     * @throws IOException if the journal could not be written
+     */
+    public void appendMove(int move, char nextPlayer, int computerWins, int humanWins) throws IOException
+    {
+        byte[] record = new byte[MOVE_RECORD_SIZE];
+        record[0] = MOVE;
+        record[1] = (byte) (move >>> 8);
+        record[2] = (byte) move;
+        record[3] = (byte) nextPlayer;
+        int computer = Math.min(computerWins, MAX_WINS);
+        int human = Math.min(humanWins, MAX_WINS);
+        record[4] = (byte) (computer >>> 8);
+        record[5] = (byte) computer;
+        record[6] = (byte) (human >>> 8);
+        record[7] = (byte) human;
+        int checksum = checksum(record, 0, MOVE_RECORD_SIZE - 2);
+        record[8] = (byte) (checksum >>> 8);
+        record[9] = (byte) checksum;
+        append(record);
+        movesSinceSnapshot++;
+    }
+
+    /**
+     * Determines if enough moves have been recorded that a snapshot should be added.
+     * @return a boolean that is true once SNAPSHOT_INTERVAL moves have been recorded since the last snapshot
+     */
+    public boolean needsSnapshot()
+    {
+        return movesSinceSnapshot >= SNAPSHOT_INTERVAL;
+    }
+
+    /**
+     * Reads the journal back into the game it records.
+     * @return the game as of the last record that was written in full, or null if the journal has no snapshot to start
+     * from
+     * @throws FileNotFoundException if there is no journal
+     * @throws IOException if the journal could not be read
+     */
+    public SavedGame replay() throws IOException
+    {
+        byte[] bytes = readAll();
+        // Find the last snapshot, and where the records that were written in full end.
+        int snapshot = -1;
+        int end = 0;
+        while (end < bytes.length)
+        {
+            if (bytes[end] == SNAPSHOT && bytes.length - end >= SNAPSHOT_RECORD_SIZE
+                    && SavedGame.fromBytes(bytes, end + 1) != null)
+            {
+                snapshot = end;
+                end += SNAPSHOT_RECORD_SIZE;
+            }
+            else if (bytes[end] == MOVE && bytes.length - end >= MOVE_RECORD_SIZE
+                    && checksum(bytes, end, MOVE_RECORD_SIZE - 2) == (((bytes[end + 8] & 0xFF) << 8) | (bytes[end + 9] & 0xFF)))
+            {
+                end += MOVE_RECORD_SIZE;
+            }
+            else
+            {
+                // The rest of the journal was cut short by a kill, or is not a journal at all.
+                break;
+            }
+        }
+        if (snapshot == -1) return null;
+
+        // Make the moves recorded after the snapshot, taking the wins and next player from the last of them.
+        SavedGame game = SavedGame.fromBytes(bytes, snapshot + 1);
+        Board board = game.getBoard();
+        int computerWins = game.getComputerWins();
+        int humanWins = game.getHumanWins();
+        String nextPlayer = game.getNextPlayer();
+        int movesAfterSnapshot = 0;
+        for (int position = snapshot + SNAPSHOT_RECORD_SIZE; position < end; position += MOVE_RECORD_SIZE)
+        {
+            int move = ((bytes[position + 1] & 0xFF) << 8) | (bytes[position + 2] & 0xFF);
+            // A move that does not start on a die cannot be made, so the journal cannot be trusted past it.
+            if (!board.getBitBoard().isOccupied(Move.dieSquare(move))) return null;
+            board.applyMove(move, null);
+            nextPlayer = bytes[position + 3] == 'C' ? "Computer" : "Human";
+            computerWins = ((bytes[position + 4] & 0xFF) << 8) | (bytes[position + 5] & 0xFF);
+            humanWins = ((bytes[position + 6] & 0xFF) << 8) | (bytes[position + 7] & 0xFF);
+            movesAfterSnapshot++;
+        }
+        board.setSideToMove(nextPlayer.charAt(0));
+        movesSinceSnapshot = movesAfterSnapshot;
+        return new SavedGame(board, computerWins, humanWins, nextPlayer);
+    }
+
+    /**
+     * Adds a record to the end of the journal in a single write.
+     * @param record the bytes of the record
+     * @throws IOException if the journal could not be written
+     */
+    private void append(byte[] record) throws IOException
+    {
+        OutputStream output = storage.openAppend(name);
+        try
+        {
+            output.write(record);
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    /**
+     * Reads every byte of the journal.
+     * @return the bytes of the journal
+     * @throws IOException if the journal could not be found or read
+     */
+    private byte[] readAll() throws IOException
+    {
+        InputStream input = storage.openInput(name);
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read = input.read(buffer); read != -1; read = input.read(buffer))
+            {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Builds the snapshot record of a game.
+     * @param game the game
+     * @return the bytes of the record
+     */
+    private static byte[] snapshotRecord(SavedGame game)
+    {
+        byte[] record = new byte[SNAPSHOT_RECORD_SIZE];
+        record[0] = SNAPSHOT;
+        System.arraycopy(game.toBytes(), 0, record, 1, SavedGame.BINARY_SIZE);
+        return record;
+    }
+
+    /**
+     * Works out the checksum of a move record.
+     * @param bytes the bytes holding the record
+     * @param offset where the record starts
+     * @param length how many bytes the checksum covers
+     * @return the low 2 bytes of the CRC32 of the bytes
+     */
+    private static int checksum(byte[] bytes, int offset, int length)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) (crc.getValue() & 0xFFFF);
+    }
+}
@@ -0,0 +1,127 @@
+package leier.bryan.duell.model;
+
+/**
+ * A reusable list of packed moves. The list only grows its buffer when it runs out of room, so a generator can fill the
+ * same list over and over without creating any objects.
+ */
+
+public class MoveList {
+    // The buffer of packed moves.
+    private int[] moves;
+    // How many moves are in the list.
+    private int size;
+
+    /**
+     * Default constructor. The buffer is big enough for every move one player can make in a typical position.
+     */
+    public MoveList()
+    {
+        this(256);
+    }
+
+    /**
+     * Constructor that lets the size of the buffer be defined.
+     * @param capacity the number of moves the buffer starts out holding
+     */
+    public MoveList(int capacity)
+    {
+        this.moves = new int[Math.max(capacity, 1)];
+        this.size = 0;
+    }
+
+    /**
+     * Adds a move to the end of the list.
+     * @param move the packed move to add
+     */
+    public void add(int move)
+    {
+        if (size == moves.length)
+        {
+            int[] bigger = new int[moves.length * 2];
+            System.arraycopy(moves, 0, bigger, 0, size);
+            moves = bigger;
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Gets a move in the list.
+     * @param index the position of the move in the list
+     * @return the packed move
+     */
+    public int get(int index)
+    {
+        return moves[index];
+    }
+
+    /**
+     * Removes the move at the end of the list.
+     * @return the packed move that was removed
+     */
+    public int removeLast()
+    {
+        return moves[--size];
+    }
+
+    /**
+     * Replaces a move in the list.
+     * @param index the position of the move in the list
+     * @param move the packed move to put there
+     */
+    public void set(int index, int move)
+    {
+        moves[index] = move;
+    }
+
+    /**
+     * Swaps two moves in the list.
+     * @param first the position of one move
+     * @param second the position of the other move
+     */
+    public void swap(int first, int second)
+    {
+        int temp = moves[first];
+        moves[first] = moves[second];
+        moves[second] = temp;
+    }
+
+    /**
+     * Gets the number of moves in the list.
+     * @return size of the MoveList
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Determines if the list is empty.
+     * @return a boolean that is true if there are no moves in the list
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Determines if a move is in the list.
+     * @param move the packed move to look for
+     * @return a boolean that is true if the move is in the list
+     */
+    public boolean contains(int move)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (moves[i] == move) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Empties the list, keeping its buffer.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+}
@@ -0,0 +1,98 @@
+package leier.bryan.duell.model;
+
+/**
+ * The information needed to take back a move made with Board.applyMove(). A record can be passed back into applyMove()
+ * to be reused, so a search does not have to create one for every move it tries.
+ */
+
+public class MoveUndo {
+    // The move that was made, packed into an int.
+    private int move;
+    // The die that was moved.
+    private Die movedDie;
+    // The orientation of the moved die before it was rolled.
+    private byte priorOrientation;
+    // The die that was captured by the move, or null if the space was empty.
+    private Die capturedDie;
+    // The player who was next to move before the move.
+    private char priorSideToMove;
+
+    /**
+     * Fills in the record for a move that is about to be made.
+     * @param move the packed move being made
+     * @param movedDie the die being moved
+     * @param capturedDie the die on the space being moved to, or null if there is none
+     * @param sideToMove the player who is next to move before the move
+     */
+    void record(int move, Die movedDie, Die capturedDie, char sideToMove)
+    {
+        this.priorSideToMove = sideToMove;
+        this.move = move;
+        this.movedDie = movedDie;
+        this.priorOrientation = movedDie.getOrientation();
+        this.capturedDie = capturedDie;
+    }
+
+    /**
+     * Gets the move that was made.
+     * @return move of the MoveUndo
+     */
+    public Move getMove()
+    {
+        return new Move(move);
+    }
+
+    /**
+     * Gets the move that was made, packed into an int.
+     * @return the packed move of the MoveUndo
+     */
+    public int getPackedMove()
+    {
+        return move;
+    }
+
+    /**
+     * Gets the die that was moved.
+     * @return movedDie of the MoveUndo
+     */
+    public Die getMovedDie()
+    {
+        return movedDie;
+    }
+
+    /**
+     * Gets the orientation the moved die was in before the move.
+     * @return priorOrientation of the MoveUndo
+     */
+    public byte getPriorOrientation()
+    {
+        return priorOrientation;
+    }
+
+    /**
+     * Gets the die that was captured by the move.
+     * @return capturedDie of the MoveUndo, or null if nothing was captured
+     */
+    public Die getCapturedDie()
+    {
+        return capturedDie;
+    }
+
+    /**
+     * Gets the player who was next to move before the move.
+     * @return priorSideToMove of the MoveUndo
+     */
+    public char getPriorSideToMove()
+    {
+        return priorSideToMove;
+    }
+
+    /**
+     * Determines if the move captured a die.
+     * @return a boolean that is true if a die was captured
+     */
+    public boolean isCapture()
+    {
+        return capturedDie != null;
+    }
+}
@@ -0,0 +1,159 @@
+package leier.bryan.duell.model;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+/**
+ * The moves the computer plays in the first plies of a game, worked out ahead of time by OpeningBookBuilder. Every game
+ * starts from the same position, so the openings never change and there is no reason to think about them again in
+ * every game. A position can have several book moves, each with a weight, and one is picked at random by weight so the
+ * computer does not open the same way every time.
+ *
+ * The book is small enough to read into memory whole. It starts with a header of HEADER_SIZE bytes: the magic bytes
+ * "DBOK", the format version, and the number of entries, as big-endian ints. The entries follow, sorted by key, with
+ * all of a position's moves next to each other. Each entry is ENTRY_SIZE bytes:
+ *   bytes 0-7    the Zobrist key of the position, including the player to move
+ *   bytes 8-9    the move, packed with its direction
+ *   bytes 10-11  the move's weight, at most MAX_WEIGHT
+ */
+
+public class OpeningBook {
+    // The magic bytes at the start of every book.
+    static final byte[] MAGIC = {'D', 'B', 'O', 'K'};
+    // The version of the format written by OpeningBookBuilder.
+    public static final int VERSION = 1;
+    // The size of the header and of each entry, in bytes.
+    public static final int HEADER_SIZE = 12;
+    public static final int ENTRY_SIZE = 12;
+    // The largest weight an entry can hold.
+    public static final int MAX_WEIGHT = 0xFFFF;
+
+    // The key, move and weight of each entry, sorted by key.
+    private final long[] keys;
+    private final char[] moves;
+    private final char[] weights;
+
+    /**
+     * Constructor for a book read from a stream.
+     * @param input the stream, in the format written by OpeningBookBuilder. It is read to the end of the book but not
+     *              closed
+     * @throws IOException if the stream could not be read, or is not a book of this version
+     */
+    public OpeningBook(InputStream input) throws IOException
+    {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(input));
+        try
+        {
+            // A book that is not one, or is from another version, is refused before any entries are read.
+            byte[] magic = new byte[MAGIC.length];
+            data.readFully(magic);
+            for (int i = 0; i < MAGIC.length; i++)
+            {
+                if (magic[i] != MAGIC[i]) throw new IOException("This is not an opening book");
+            }
+            int version = data.readInt();
+            if (version != VERSION) throw new IOException("The opening book is version " + version);
+            int size = data.readInt();
+            if (size < 0) throw new IOException("The opening book is cut short");
+
+            keys = new long[size];
+            moves = new char[size];
+            weights = new char[size];
+            for (int i = 0; i < size; i++)
+            {
+                keys[i] = data.readLong();
+                moves[i] = data.readChar();
+                weights[i] = data.readChar();
+                if (i > 0 && keys[i] < keys[i - 1]) throw new IOException("The opening book is not sorted");
+            }
+        }
+        catch(EOFException exception)
+        {
+            throw new IOException("The opening book is cut short");
+        }
+    }
+
+    /**
+     * Gets how many moves are in the book.
+     * @return the number of entries, counting every move of every position
+     */
+    public int size()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Finds the first of a position's moves.
+     * @param key the Zobrist key of the position, including the player to move
+     * @return the index of the position's first entry, or -1 if it is not in the book
+     */
+    public int find(long key)
+    {
+        // Find the first entry whose key is not below the one searched for.
+        int low = 0;
+        int high = keys.length;
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < key) low = middle + 1;
+            else high = middle;
+        }
+        return low < keys.length && keys[low] == key ? low : -1;
+    }
+
+    /**
+     * Gets the move of an entry.
+     * @param index the index of the entry
+     * @return the packed move, with its direction
+     */
+    public int getMove(int index)
+    {
+        return moves[index];
+    }
+
+    /**
+     * Gets the weight of an entry.
+     * @param index the index of the entry
+     * @return how often the move should be picked, compared to the position's other moves
+     */
+    public int getWeight(int index)
+    {
+        return weights[index];
+    }
+
+    /**
+     * Picks one of the book moves for the player to move on a board, by weight, out of those that can be made there.
+     * @param bits the board, with the player to move set
+     * @param random the random numbers to pick with, so a seeded player picks the same moves again
+     * @return the packed move, with its direction, or Move.NONE if the position is not in the book
+     */
+    public int findMove(BitBoard bits, Random random)
+    {
+        long key = bits.getHash();
+        int first = find(key);
+        if (first == -1) return Move.NONE;
+        // The book only stores keys, and a different position with the same key would have different moves, so any move
+        // that cannot be made here is passed over.
+        MoveList legal = new MoveList();
+        MoveGenerator.generateMoves(bits, bits.getSideToMove(), legal);
+        int end = first;
+        int total = 0;
+        for (; end < keys.length && keys[end] == key; end++)
+        {
+            if (legal.contains(moves[end])) total += weights[end];
+        }
+        if (total == 0) return Move.NONE;
+        int pick = random.nextInt(total);
+        for (int i = first; i < end; i++)
+        {
+            if (!legal.contains(moves[i])) continue;
+            pick -= weights[i];
+            if (pick < 0) return moves[i];
+        }
+        return Move.NONE;
+    }
+}
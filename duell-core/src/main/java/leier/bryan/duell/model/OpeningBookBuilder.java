@@ -0,0 +1,205 @@
+package leier.bryan.duell.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds an OpeningBook by playing games out from the new game setup. Starting with either player to move, every legal
+ * move of a position is scored by playing games on from it between two heuristic computers, counting two points for
+ * each game the player who made it won and one for each draw. The moves that scored best are kept as the position's
+ * book moves, weighted by their points, and the positions they lead to are scored in turn until the book is as many
+ * plies deep as asked for.
+ *
+ * The tree grows by the number of moves kept from each position, so keep that and the plies small. A position reached
+ * by more than one order of moves is only scored once.
+ */
+
+public class OpeningBookBuilder {
+    // How many plies deep the book goes.
+    private final int maxPlies;
+    // How many moves are kept from each position.
+    private final int width;
+    // How many games are played out from each move.
+    private final int playouts;
+    // Plays the games out. Each game gets its own seeds from it, so a book can be built again exactly.
+    private final Simulator simulator;
+    // The book moves of each position, by the position's key, as pairs of packed move and weight.
+    private final Map<Long, int[][]> positions = new HashMap<Long, int[][]>();
+
+    /**
+     * Constructor for a builder.
+     * @param maxPlies how many plies deep the book goes
+     * @param width how many moves are kept from each position
+     * @param playouts how many games are played out from each move
+     * @param seed the seed the games are played from
+     */
+    public OpeningBookBuilder(int maxPlies, int width, int playouts, long seed)
+    {
+        this.maxPlies = maxPlies;
+        this.width = Math.max(1, width);
+        // Each game scores at most two points, and the weight of a move has to fit in an entry.
+        this.playouts = Math.max(1, Math.min(playouts, OpeningBook.MAX_WEIGHT / 2));
+        this.simulator = new Simulator(new Computer('H'), new Computer('C'), seed);
+    }
+
+    /**
+     * Scores the openings from the new game setup, with either player moving first.
+     * @return how many positions are in the book
+     */
+    public int build()
+    {
+        Board board = new Board();
+        board.newGameSetUp();
+        addPosition(board, 'H', 0);
+        addPosition(board, 'C', 0);
+        return positions.size();
+    }
+
+    /**
+     * Writes the book built so far.
+     * @param output the stream to write to. It is flushed but not closed
+     * @return how many moves were written
+     * @throws IOException if the book could not be written
+     */
+    public int write(OutputStream output) throws IOException
+    {
+        // Sort the positions by key so the book can be binary searched.
+        long[] keys = new long[positions.size()];
+        int count = 0;
+        int entries = 0;
+        for (Map.Entry<Long, int[][]> position : positions.entrySet())
+        {
+            keys[count++] = position.getKey();
+            entries += position.getValue().length;
+        }
+        Arrays.sort(keys);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+        data.write(OpeningBook.MAGIC);
+        data.writeInt(OpeningBook.VERSION);
+        data.writeInt(entries);
+        for (long key : keys)
+        {
+            for (int[] entry : positions.get(key))
+            {
+                data.writeLong(key);
+                data.writeShort(entry[0]);
+                data.writeShort(entry[1]);
+            }
+        }
+        data.flush();
+        return entries;
+    }
+
+    /**
+     * Builds a book from the command line.
+     * @param args the book file to write, how many plies deep it goes, how many moves are kept from each position, how
+     *             many games are played out from each move, and optionally the seed
+     * @throws IOException if the book could not be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 4)
+        {
+            System.out.println("Usage: OpeningBookBuilder <book> <plies> <width> <playouts> [seed]");
+            return;
+        }
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                Integer.parseInt(args[3]), seed);
+        long start = System.currentTimeMillis();
+        int positions = builder.build();
+        OutputStream output = new FileOutputStream(args[0]);
+        int entries;
+        try
+        {
+            entries = builder.write(output);
+        }
+        finally
+        {
+            output.close();
+        }
+        System.out.println(positions + " positions, " + entries + " moves written to " + args[0] + " in "
+                + (System.currentTimeMillis() - start) + " ms, seed " + seed);
+    }
+
+    /**
+     * Scores the moves of a position, keeps the best of them, and then scores the positions they lead to.
+     * @param board the position. It is not changed
+     * @param playerType the player to move, H or C
+     * @param ply how many plies into the game the position is
+     */
+    private void addPosition(Board board, char playerType, int ply)
+    {
+        if (ply >= maxPlies) return;
+        BitBoard bits = board.toBitBoard();
+        bits.setSideToMove(playerType);
+        Long key = bits.getHash();
+        if (positions.containsKey(key)) return;
+
+        // Score every legal move by playing games on from it.
+        MoveList moves = new MoveList();
+        MoveGenerator.generateMoves(bits, playerType, moves);
+        char opponent = playerType == 'H' ? 'C' : 'H';
+        int[][] scored = new int[moves.size()][];
+        for (int i = 0; i < moves.size(); i++)
+        {
+            Board after = new Board(bits);
+            after.applyMove(moves.get(i), null);
+            scored[i] = new int[] {moves.get(i), score(after, playerType, opponent)};
+        }
+
+        // Keep the moves that scored best, as long as they scored at all.
+        Arrays.sort(scored, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] first, int[] second)
+            {
+                return second[1] - first[1];
+            }
+        });
+        int kept = 0;
+        while (kept < Math.min(width, scored.length) && scored[kept][1] > 0) kept++;
+        if (kept == 0) return;
+        positions.put(key, Arrays.copyOf(scored, kept));
+
+        // Then the positions the book moves lead to, unless a move already won the game.
+        for (int i = 0; i < kept; i++)
+        {
+            Board after = new Board(bits);
+            after.applyMove(scored[i][0], null);
+            if (after.checkWinCondition() == 0) addPosition(after, opponent, ply + 1);
+        }
+    }
+
+    /**
+     * Scores a move by playing games on from the position it led to.
+     * @param after the board after the move
+     * @param mover the player who made the move
+     * @param opponent the player to move next
+     * @return two points for each game the mover won and one for each draw
+     */
+    private int score(Board after, char mover, char opponent)
+    {
+        // A move that won the game outright scores as if it won every game.
+        int winCondition = after.checkWinCondition();
+        if (winCondition != 0)
+        {
+            return BitBoard.winnerOf(winCondition) == mover ? 2 * playouts : 0;
+        }
+        int points = 0;
+        for (int i = 0; i < playouts; i++)
+        {
+            char winner = BitBoard.winnerOf(simulator.playGame(after, opponent));
+            if (winner == mover) points += 2;
+            else if (winner == 'N') points++;
+        }
+        return points;
+    }
+}
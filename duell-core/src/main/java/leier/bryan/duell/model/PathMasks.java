@@ -0,0 +1,103 @@
+package leier.bryan.duell.model;
+
+/**
+ * Precomputed masks of the squares a die rolls over when it moves from one square to another. There is one mask for each
+ * (from, to, first direction) combination on the board, and it covers every square on the path except the two ends.
+ * A path is clear when the board's occupancy does not intersect its mask.
+ */
+
+public class PathMasks {
+    // The low and high words of each mask, indexed by index().
+    private static final long[] LOW = new long[BitBoard.SQUARES * BitBoard.SQUARES * 2];
+    private static final long[] HIGH = new long[BitBoard.SQUARES * BitBoard.SQUARES * 2];
+
+    static
+    {
+        for (int dieSquare = 0; dieSquare < BitBoard.SQUARES; dieSquare++)
+        {
+            for (int spaceSquare = 0; spaceSquare < BitBoard.SQUARES; spaceSquare++)
+            {
+                if (dieSquare == spaceSquare) continue;
+                buildMask(dieSquare, spaceSquare, true);
+                buildMask(dieSquare, spaceSquare, false);
+            }
+        }
+    }
+
+    /**
+     * Gets the position of a path in the tables.
+     * @param dieSquare the square the die starts on
+     * @param spaceSquare the square the die ends on
+     * @param frontalFirst whether the die rolls frontally before it rolls laterally
+     * @return the index of the path
+     */
+    public static int index(int dieSquare, int spaceSquare, boolean frontalFirst)
+    {
+        return ((dieSquare * BitBoard.SQUARES + spaceSquare) << 1) | (frontalFirst ? 1 : 0);
+    }
+
+    /**
+     * Gets the low word of the mask of a path.
+     * @param dieSquare the square the die starts on
+     * @param spaceSquare the square the die ends on
+     * @param frontalFirst whether the die rolls frontally before it rolls laterally
+     * @return the squares between 0 and 63 that the die rolls over
+     */
+    public static long low(int dieSquare, int spaceSquare, boolean frontalFirst)
+    {
+        return LOW[index(dieSquare, spaceSquare, frontalFirst)];
+    }
+
+    /**
+     * Gets the high word of the mask of a path.
+     * @param dieSquare the square the die starts on
+     * @param spaceSquare the square the die ends on
+     * @param frontalFirst whether the die rolls frontally before it rolls laterally
+     * @return the squares between 64 and 71 that the die rolls over
+     */
+    public static long high(int dieSquare, int spaceSquare, boolean frontalFirst)
+    {
+        return HIGH[index(dieSquare, spaceSquare, frontalFirst)];
+    }
+
+    /**
+     * Determines if every square a die rolls over on its way to another square is empty.
+     * @param bits the bitboard to check
+     * @param dieSquare the square the die starts on
+     * @param spaceSquare the square the die ends on
+     * @param frontalFirst whether the die rolls frontally before it rolls laterally
+     * @return a boolean that is true if nothing is in the way
+     */
+    public static boolean isClear(BitBoard bits, int dieSquare, int spaceSquare, boolean frontalFirst)
+    {
+        int index = index(dieSquare, spaceSquare, frontalFirst);
+        return (bits.getOccupiedLow() & LOW[index]) == 0 && (bits.getOccupiedHigh() & HIGH[index]) == 0;
+    }
+
+    /**
+     * Fills in the mask of one path by rolling along it one square at a time.
+     * @param dieSquare the square the die starts on
+     * @param spaceSquare the square the die ends on
+     * @param frontalFirst whether the die rolls frontally before it rolls laterally
+     */
+    private static void buildMask(int dieSquare, int spaceSquare, boolean frontalFirst)
+    {
+        int index = index(dieSquare, spaceSquare, frontalFirst);
+        int row = dieSquare / BitBoard.COLUMNS;
+        int column = dieSquare % BitBoard.COLUMNS;
+        int spaceRow = spaceSquare / BitBoard.COLUMNS;
+        int spaceColumn = spaceSquare % BitBoard.COLUMNS;
+        int rowStep = spaceRow > row ? 1 : -1;
+        int columnStep = spaceColumn > column ? 1 : -1;
+        while (true)
+        {
+            // Roll frontally until the die reaches the right row, or laterally until it reaches the right column.
+            if (frontalFirst ? row != spaceRow : column == spaceColumn) row += rowStep;
+            else column += columnStep;
+            int square = row * BitBoard.COLUMNS + column;
+            if (square == spaceSquare) return;
+            if (square < 64) LOW[index] |= 1L << square;
+            else HIGH[index] |= 1L << (square - 64);
+        }
+    }
+}
@@ -12,6 +12,8 @@ import static java.lang.Math.subtractExact;
 public class Player {
     // The name of the player.
     protected String playerName;
+    // The random numbers the player makes its choices with. It can be seeded so that games can be played again.
+    protected Random random = new Random();
 
     // GUI components... later.
 
@@ -31,6 +33,15 @@ public class Player {
         this.playerName = name;
     }
 
+    /**
+     * Sets the seed of the player's random numbers, so that its choices can be made again exactly.
+     * @param seed the seed
+     */
+    public void setSeed(long seed)
+    {
+        random.setSeed(seed);
+    }
+
     /**
      * Returns the name of the player.
      * @return a string containing the name of the player
@@ -93,181 +104,25 @@ public class Player {
     }
 
     /**
-     * Determines if a die can move to a space laterally.
-     * @param board the board to check for a move on
-     * @param dieRow the row coordinate of the die to check
-     * @param dieColumn the column coordinate of the die to check
-     * @param spaceColumn the column coordinate of the space to move to
-     * @param spacesToMove the amount of spaces the die will move to reach the column
-     * @param playerType the player type of the die to check
-     * @return boolean determining if a move if possible or not
+     * Makes a packed move on the board in one step.
+     * @param board the board to make a move on
+     * @param move the packed move to make, with its direction already decided
      */
-    protected boolean canMoveLaterally(Board board, int dieRow, int dieColumn, int spaceColumn, int spacesToMove, char playerType)
+    protected void makeMove(Board board, int move)
     {
-        // First, if spacesToMove is 0, we can't move anywhere.
-        if (spacesToMove == 0) return false;
-        // If dieColumn and spaceColumn are the same, we can only move frontally.
-        if (dieColumn == spaceColumn) return false;
-        // We'll move to the right if the spaceColumn is greater than the dieColumn. Otherwise, we move to the left.
-        if (spaceColumn > dieColumn)
-        {
-            // A for loop to check all of the spaces that we want to visit.
-            for (int i = dieColumn; i < spaceColumn; i++)
-            {
-                // Check if there is a die on the space.
-                if (board.isDieOn(dieRow, i+1))
-                {
-                    // If spacesToMove is not 1, you cannot place the die there regardless of whether or not the die on it
-                    // is yours or the opponent's.
-                    if (spacesToMove != 1) return false;
-                        // If it is 1, check the playerType of the die on it.
-                    else
-                    {
-                        // If it is not the playerType passed into the function, it is an opponent's die and can be captured.
-                        if (!board.isDiePlayerType(dieRow, i+1, playerType)) return true;
-                            // Otherwise, this is one of the player's own dice and thus cannot be captured or moved to.
-                        else return false;
-                    }
-                }
-                // If there is not, decrement spacesToMove.
-                spacesToMove--;
-            }
-            // We can move this way.
-            return true;
-        }
-        // Move to the left if this is not the case.
-        else
-        {
-            // A for loop to check all of the spaces that we want to visit.
-            for (int i = dieColumn; i > spaceColumn; i--)
-            {
-                // Check if there is a die on the space.
-                if (board.isDieOn(dieRow, i-1))
-                {
-                    // If spacesToMove is not 1, you cannot place the die there regardless of whether or not the die on it
-                    // is yours or the opponent's.
-                    if (spacesToMove != 1) return false;
-                        // If it is 1, check the playerType of the die on it.
-                    else
-                    {
-                        // If it is not the playerType passed into the function, it is an opponent's die and can be captured.
-                        if (!board.isDiePlayerType(dieRow, i-1, playerType)) return true;
-                            // Otherwise, this is one of the player's own dice and thus cannot be captured or moved to.
-                        else return false;
-                    }
-                }
-                // If there is not, decrement spacesToMove.
-                spacesToMove--;
-            }
-            // We can move this way.
-            return true;
-        }
-    }
-
-    /**
-     * Determines if a die can move to a space frontally.
-     * @param board the board to check for a move on
-     * @param dieRow the row coordinate of the die to check
-     * @param dieColumn the column coordinate of the die to check
-     * @param spaceRow the row coordinate of the space to move to
-     * @param spacesToMove the amount of spaces the die will move to reach the column
-     * @param playerType the player type of the die to check
-     * @return boolean determining if a move if possible or not
-     */
-    protected boolean canMoveFrontally(Board board, int dieRow, int dieColumn, int spaceRow, int spacesToMove, char playerType)
-    {
-        // First, if spacesToMove is 0, we can't move anywhere.
-        if (spacesToMove == 0) return false;
-        // If dieRow and spaceRow are the same, we can only move laterally.
-        if (dieRow == spaceRow) return false;
-        // We'll move up if the spaceRow is greater than the dieRow. Otherwise, we move down.
-        if (spaceRow > dieRow)
-        {
-            // A for loop to check all of the spaces that we want to visit.
-            for (int i = dieRow; i < spaceRow; i++)
-            {
-                // Check if there is a die on the space.
-                if (board.isDieOn(i + 1, dieColumn))
-                {
-                    // If spacesToMove is not 1, you cannot place the die there regardless of whether or not the die on it
-                    // is yours or the opponent's.
-                    if (spacesToMove != 1) return false;
-                        // If it is 1, check the playerType of the die on it.
-                    else
-                    {
-                        // If it is not the playerType passed into the function, it is an opponent's die and can be captured.
-                        if (!board.isDiePlayerType(i+1, dieColumn, playerType)) return true;
-                            // Otherwise, this is one of the player's own dice and thus cannot be captured or moved to.
-                        else return false;
-                    }
-                }
-                // If there is not, decrement spacesToMove.
-                spacesToMove--;
-            }
-            // We can move this way.
-            return true;
-        }
-        // Move down if this is not the case.
-        else
-        {
-            // A for loop to check all of the spaces that we want to visit.
-            for (int i = dieRow; i > spaceRow; i--)
-            {
-                // Check if there is a die on the space.
-                if (board.isDieOn(i - 1, dieColumn))
-                {
-                    // If spacesToMove is not 1, you cannot place the die there regardless of whether or not the die on it
-                    // is yours or the opponent's.
-                    if (spacesToMove != 1) return false;
-                        // If it is 1, check the playerType of the die on it.
-                    else
-                    {
-                        // If it is not the playerType passed into the function, it is an opponent's die and can be captured.
-                        if (!board.isDiePlayerType(i-1, dieColumn, playerType)) return true;
-                            // Otherwise, this is one of the player's own dice and thus cannot be captured or moved to.
-                        else return false;
-                    }
-                }
-                // If there is not, decrement spacesToMove.
-                spacesToMove--;
-            }
-            // We can move this way.
-            return true;
-        }
+        board.applyMove(move, null);
     }
 
     /**
      * Used to get the coordinates of a key die on the board
      * @param board the board to search on
      * @param playerType the player type of the key die to look for
-     * @return dieCoords an array containing the coordinates of the key die
+     * @return dieCoords an array containing the coordinates of the key die, or 0 in both positions if it was captured
      */
     protected int[] findKeyDie(Board board, char playerType)
     {
-        // First initialize an array with two elements.
-        int[] dieCoords = new int[2];
-        // Use a for loop to iterate through the board.
-        for (int i = 8; i > 0; i--)
-        {
-            for (int j = 1; j < 10; j++)
-            {
-                // If there is a key die on the space, check the playerType.
-                if (board.isKeyDie(i, j))
-                {
-                    // If it is of the playerType passed into the function, we have found the key die. Register its coordinates.
-                    if (board.isDiePlayerType(i, j, playerType))
-                    {
-                        dieCoords[0] = i;
-                        dieCoords[1] = j;
-                        return dieCoords;
-                    }
-                }
-            }
-        }
-        // If not found, return 0 in both positions.
-        dieCoords[0] = 0;
-        dieCoords[1] = 0;
-        return dieCoords;
+        // The board keeps track of where each key die is, so there is nothing to search for.
+        return new int[] {board.getKeyDieRow(playerType), board.getKeyDieColumn(playerType)};
     }
 
     /**
@@ -287,12 +142,6 @@ public class Player {
         // Integers for the number of rolls needed to go to a space.
         int rowRolls = abs(spaceRow - dieRow);
         int columnRolls = abs(spaceColumn - dieColumn);
-        // Boolean values of whether or not you can move frontally or laterally.
-        boolean frontalMove;
-        boolean lateralMove;
-        // Boolean values of whether or not you can move frontally or laterally after already moving in that direction.
-        boolean secondFrontalMove;
-        boolean secondLateralMove;
 
         // First, check to see if the number on the top of the die is able to move enough spaces to travel to the coordinates.
         if (topNumber != rowRolls + columnRolls) return false;
@@ -300,51 +149,62 @@ public class Player {
         // Now check to see if the coordinates the die wants to move to are valid positions.
         if ((spaceRow < 1 || spaceRow > 8) || (spaceColumn < 1 || spaceColumn > 9)) return false;
 
-        // Now check if the die can move there without any problems.
-        frontalMove = canMoveFrontally(board, dieRow, dieColumn, spaceRow, topNumber, playerType);
-        lateralMove = canMoveLaterally(board, dieRow, dieColumn, spaceColumn, topNumber, playerType);
-        // If it cannot move either way at first, it cannot move to the space.
-        if (!frontalMove && !lateralMove) return false;
-        // If it can move frontally, check to see if it can move laterally in a 90 degree turn.
-        if (frontalMove)
-        {
-            // If you can move frontally (at first) but you cannot move laterally afterwards and
-            // the remaining number of spaces to travel is not 0, you cannot travel to that space.
-            if (!canMoveLaterally(board, spaceRow, dieColumn, spaceColumn, columnRolls, playerType)
-                    && columnRolls != 0)
-                secondLateralMove = false;
-                // Otherwise, a move is possible.
-            else return true;
-        }
-        // If it can move laterally, check to see if it can move frontally in a 90 degree turn.
-        if (lateralMove)
-        {
-            // If you can move laterally (at first) but you cannot move frontally afterwards and
-            // the remaining number of spaces to travel is not 0, you cannot travel to that space.
-            if (!canMoveFrontally(board, dieRow, spaceColumn, spaceRow, rowRolls, playerType) && rowRolls != 0)
-                secondFrontalMove = false;
-                // Otherwise, a move is possible.
-            else return true;
-        }
+        // A die can never land on one of the player's own dice.
+        BitBoard bits = board.getBitBoard();
+        int dieSquare = BitBoard.square(dieRow, dieColumn);
+        int spaceSquare = BitBoard.square(spaceRow, spaceColumn);
+        if (bits.isPlayerType(spaceSquare, playerType)) return false;
 
-        // Otherwise, there is no possible move.
-        return false;
+        // Now check if the die can move there without any problems, rolling either way first.
+        return PathMasks.isClear(bits, dieSquare, spaceSquare, true) || PathMasks.isClear(bits, dieSquare, spaceSquare, false);
+    }
+
+    /**
+     * Decides which direction a die should first roll in to make a move. If both directions are possible, one is picked
+     * at random.
+     * @param board the board to make a move on
+     * @param move the packed move to make
+     * @param playerType the player type of the die to move
+     * @return the packed move with its direction decided, or Move.NONE if the die cannot roll to the space either way
+     */
+    protected int chooseDirection(Board board, int move, char playerType)
+    {
+        // Get the coordinates of the die and the space it is moving to.
+        int dieRow = BitBoard.rowOf(Move.dieSquare(move));
+        int dieColumn = BitBoard.columnOf(Move.dieSquare(move));
+        int spaceRow = BitBoard.rowOf(Move.spaceSquare(move));
+        int spaceColumn = BitBoard.columnOf(Move.spaceSquare(move));
+        // A die cannot roll one way first if it has no spaces to roll that way, or if something is in the way.
+        BitBoard bits = board.getBitBoard();
+        boolean frontalFirst = dieRow != spaceRow
+                && PathMasks.isClear(bits, Move.dieSquare(move), Move.spaceSquare(move), true);
+        boolean lateralFirst = dieColumn != spaceColumn
+                && PathMasks.isClear(bits, Move.dieSquare(move), Move.spaceSquare(move), false);
+        // Neither way works if the die would land on one of the player's own dice.
+        if (bits.isPlayerType(Move.spaceSquare(move), playerType)) return Move.NONE;
+        // If both ways are possible, randomly decide between them.
+        if (frontalFirst && lateralFirst) return Move.withDirection(move, random.nextInt(2) == 0);
+        if (frontalFirst) return Move.withDirection(move, true);
+        if (lateralFirst) return Move.withDirection(move, false);
+        // There is no way to roll there.
+        return Move.NONE;
     }
 
     /**
      * Determines if a key die can be captured or not.
      * @param board the board being played on
      * @param playerType the player type of the player "calling" the function
-     * @return dieCoords, the coordinates of dice to move and where to move to. If a move is not possible, 0 is returned for both coordinates
+     * @return the packed move that captures the key die, or Move.NONE if a move is not possible
      */
-    protected int[] captureKeyDieScore(Board board, char playerType)
+    protected int captureKeyDieScore(Board board, char playerType)
     {
-        // The coordinates to move to for the capture.
-        int[] dieCoords = new int[4];
-        // First, find the coordinates of the key die.
+        // First, find the coordinates of the key die. If it has already been captured, there is nothing to capture.
         int[] keyCoords;
         if (playerType == 'H') keyCoords = findKeyDie(board, 'C');
         else keyCoords = findKeyDie(board, 'H');
+        if (keyCoords[0] == 0) return Move.NONE;
+        // If none of the player's dice can reach it, there is no need to look for one.
+        if (!board.isSpaceAttacked(keyCoords[0], keyCoords[1], playerType)) return Move.NONE;
         // Put the keyCoords into spaceRow and spaceColumn.
         int spaceRow = keyCoords[0];
         int spaceColumn = keyCoords[1];
@@ -359,34 +219,23 @@ public class Player {
                     // Check if it can move there without any problems. Return if we can.
                     if (canMoveToSpace(board, i, j, spaceRow, spaceColumn, playerType))
                     {
-                        dieCoords[0] = i;
-                        dieCoords[1] = j;
-                        dieCoords[2] = keyCoords[0];
-                        dieCoords[3] = keyCoords[1];
-                        return dieCoords;
+                        return Move.encode(i, j, keyCoords[0], keyCoords[1], true);
                     }
                 }
             }
         }
         // Capturing the key die is not feasible.
-        dieCoords[0] = 0;
-        dieCoords[1] = 0;
-        dieCoords[2] = 0;
-        dieCoords[3] = 0;
-        return dieCoords;
+        return Move.NONE;
     }
 
     /**
      * Determines if a key space can be captured or not
      * @param board the board being played on
      * @param playerType the player type of the player "calling" the function
-     * @return dieCoords, the coordinates of what die to move. If a move is not possible, 0 is returned for both coordinates
+     * @return the packed move that captures the key space, or Move.NONE if a move is not possible
      */
-    protected int[] captureKeySpaceScore(Board board, char playerType)
+    protected int captureKeySpaceScore(Board board, char playerType)
     {
-        // The dieCoords to return.
-        int[] dieCoords = new int[2];
-
         // Get the coordinates of the key space:
         int spaceRow;
         int spaceColumn;
@@ -400,6 +249,8 @@ public class Player {
             spaceRow = 1;
             spaceColumn = 5;
         }
+        // If none of the player's dice can reach the key space, there is no need to look for one.
+        if (!board.isSpaceAttacked(spaceRow, spaceColumn, playerType)) return Move.NONE;
 
         // The coordinates of the key space are passed into the function. All we need to do is scan the board for the
         // player's dice to see if any of them can occupy it.
@@ -413,29 +264,23 @@ public class Player {
                     // Check if it can move there without any problems. Return if we can.
                     if (canMoveToSpace(board, i, j, spaceRow, spaceColumn, playerType))
                     {
-                        dieCoords[0] = i;
-                        dieCoords[1] = j;
-                        return dieCoords;
+                        return Move.encode(i, j, spaceRow, spaceColumn, true);
                     }
                 }
             }
         }
         // Capturing the key space is not feasible.
-        dieCoords[0] = 0;
-        dieCoords[1] = 0;
-        return dieCoords;
+        return Move.NONE;
     }
 
     /**
      * Determines if a key die needs to be blocked or not
      * @param board the board being played on
      * @param playerType the player type of the player "calling" the function
-     * @return dieCoords, the coordinates of a die to move and where to go. If a move is not possible, 0 is returned for all coordinates
+     * @return the packed move that protects the key die, or Move.NONE if a move is not possible
      */
-    protected int[] blockKeyDieScore(Board board, char playerType)
+    protected int blockKeyDieScore(Board board, char playerType)
     {
-        // The array to return containing the coordinates of spaces:
-        int[] dieCoords = new int[4];
         // Array containing the coordinates of the player's key die.
         int[] keyDieCoords = findKeyDie(board, playerType);
         // Integers to store key die coordinates.
@@ -446,9 +291,12 @@ public class Player {
         if (playerType == 'H') opponentType = 'C';
         else opponentType = 'H';
 
-        // Get the player's key die coordinates.
+        // Get the player's key die coordinates. If it has already been captured, there is nothing to protect.
         keyDieRow = keyDieCoords[0];
         keyDieColumn = keyDieCoords[1];
+        if (keyDieRow == 0) return Move.NONE;
+        // If none of the opponent's dice can reach the key die, it does not need protecting.
+        if (!board.isSpaceAttacked(keyDieRow, keyDieColumn, opponentType)) return Move.NONE;
 
         // Now scan the board for the opponent's dice.
         for (int i = 8; i > 0; i--)
@@ -475,11 +323,7 @@ public class Player {
                                     if (canMoveToSpace(board, playerRow, playerCol, i, j, playerType))
                                     {
                                         // Return 1 if it can, as the die can be captured with this move.
-                                        dieCoords[0] = playerRow;
-                                        dieCoords[1] = playerCol;
-                                        dieCoords[2] = i;
-                                        dieCoords[3] = j;
-                                        return dieCoords;
+                                        return Move.encode(playerRow, playerCol, i, j, true);
                                     }
                                     // Otherwise, try to block the die's path.
                                     // See if the offending die and the key die are in the same row.
@@ -496,11 +340,7 @@ public class Player {
                                                         playerType))
                                                 {
                                                     // The die can be blocked. Move there.
-                                                    dieCoords[0] = playerRow;
-                                                    dieCoords[1] = playerCol;
-                                                    dieCoords[2] = keyDieRow;
-                                                    dieCoords[3] = a;
-                                                    return dieCoords;
+                                                    return Move.encode(playerRow, playerCol, keyDieRow, a, true);
                                                 }
                                             }
                                         }
@@ -514,11 +354,7 @@ public class Player {
                                                         playerType))
                                                 {
                                                     // The die can be blocked. Move there.
-                                                    dieCoords[0] = playerRow;
-                                                    dieCoords[1] = playerCol;
-                                                    dieCoords[2] = keyDieRow;
-                                                    dieCoords[3] = b;
-                                                    return dieCoords;
+                                                    return Move.encode(playerRow, playerCol, keyDieRow, b, true);
                                                 }
                                             }
                                         }
@@ -536,11 +372,7 @@ public class Player {
                                                         playerType))
                                                 {
                                                     // The die can be blocked. Move there.
-                                                    dieCoords[0] = playerRow;
-                                                    dieCoords[1] = playerCol;
-                                                    dieCoords[2] = c;
-                                                    dieCoords[3] = keyDieColumn;
-                                                    return dieCoords;
+                                                    return Move.encode(playerRow, playerCol, c, keyDieColumn, true);
                                                 }
                                             }
                                         }
@@ -554,11 +386,7 @@ public class Player {
                                                         playerType))
                                                 {
                                                     // The die can be blocked. Move there.
-                                                    dieCoords[0] = playerRow;
-                                                    dieCoords[1] = playerCol;
-                                                    dieCoords[2] = d;
-                                                    dieCoords[3] = keyDieColumn;
-                                                    return dieCoords;
+                                                    return Move.encode(playerRow, playerCol, d, keyDieColumn, true);
                                                 }
                                             }
                                         }
@@ -575,22 +403,14 @@ public class Player {
                                     playerType))
                             {
                                 // Move there.
-                                dieCoords[0] = keyDieRow;
-                                dieCoords[1] = keyDieColumn;
-                                dieCoords[2] = keyDieRow-1;
-                                dieCoords[3] = keyDieColumn;
-                                return dieCoords;
+                                return Move.encode(keyDieRow, keyDieColumn, keyDieRow-1, keyDieColumn, true);
                             }
                             // Try moving the row above.
                             if (canMoveToSpace(board, keyDieRow, keyDieColumn, keyDieRow + 1, keyDieColumn,
                                     playerType))
                             {
                                 // Move there.
-                                dieCoords[0] = keyDieRow;
-                                dieCoords[1] = keyDieColumn;
-                                dieCoords[2] = keyDieRow+1;
-                                dieCoords[3] = keyDieColumn;
-                                return dieCoords;
+                                return Move.encode(keyDieRow, keyDieColumn, keyDieRow+1, keyDieColumn, true);
                             }
                         }
                         // If they're in the same column move to a different column:
@@ -601,22 +421,14 @@ public class Player {
                                     playerType))
                             {
                                 // Move there.
-                                dieCoords[0] = keyDieRow;
-                                dieCoords[1] = keyDieColumn;
-                                dieCoords[2] = keyDieRow;
-                                dieCoords[3] = keyDieColumn+1;
-                                return dieCoords;
+                                return Move.encode(keyDieRow, keyDieColumn, keyDieRow, keyDieColumn+1, true);
                             }
                             // Try moving to the column to the left.
                             if (canMoveToSpace(board, keyDieRow, keyDieColumn, keyDieRow, keyDieColumn - 1,
                                     playerType))
                             {
                                 // Move there.
-                                dieCoords[0] = keyDieRow;
-                                dieCoords[1] = keyDieColumn;
-                                dieCoords[2] = keyDieRow;
-                                dieCoords[3] = keyDieColumn-1;
-                                return dieCoords;
+                                return Move.encode(keyDieRow, keyDieColumn, keyDieRow, keyDieColumn-1, true);
                             }
                         }
                     }
@@ -624,23 +436,17 @@ public class Player {
             }
         }
         // Blocking the key die from being captured is not necessary or feasible.
-        dieCoords[0] = 0;
-        dieCoords[1] = 0;
-        dieCoords[2] = 0;
-        dieCoords[3] = 0;
-        return dieCoords;
+        return Move.NONE;
     }
 
     /**
      * Determines if a key space capture needs to be blocked or not.
      * @param board the board being played on
      * @param playerType the player type of the player "calling" the function
-     * @return dieCoords, an array containing coordinates of a die to move and where to go. if no move is possible, 0 for all coords is returned
+     * @return the packed move that protects the key space, or Move.NONE if no move is possible
      */
-    protected int[] blockKeySpaceScore(Board board, char playerType)
+    protected int blockKeySpaceScore(Board board, char playerType)
     {
-        // Array of coordinates to return.
-        int[] dieCoords = new int[4];
         // Integers to store the key space row and column, as they may be overwritten with new coordinates to move to.
         int keySpaceRow;
         int keySpaceColumn;
@@ -658,6 +464,8 @@ public class Player {
         char opponentType;
         if (playerType == 'H') opponentType = 'C';
         else opponentType = 'H';
+        // If none of the opponent's dice can reach the key space, it does not need protecting.
+        if (!board.isSpaceAttacked(keySpaceRow, keySpaceColumn, opponentType)) return Move.NONE;
 
         // The coordinates of the key space are passed into the function. Scan the board for the opponent's dice to see if
         // any of them can occupy it.
@@ -684,11 +492,7 @@ public class Player {
                                     if (canMoveToSpace(board, playerRow, playerCol, i, j, playerType))
                                     {
                                         // We can capture the die.
-                                        dieCoords[0] = playerRow;
-                                        dieCoords[1] = playerCol;
-                                        dieCoords[2] = i;
-                                        dieCoords[3] = j;
-                                        return dieCoords;
+                                        return Move.encode(playerRow, playerCol, i, j, true);
                                     }
                                     // Otherwise, see if the die can block the path to the key space.
                                     // See if the offending die and key space are in the same row:
@@ -702,11 +506,7 @@ public class Player {
                                                 // If we can move to a spot between them, move there.
                                                 if (canMoveToSpace(board, playerRow, playerCol, keySpaceRow, a, playerType))
                                                 {
-                                                    dieCoords[0] = playerRow;
-                                                    dieCoords[1] = playerCol;
-                                                    dieCoords[2] = keySpaceRow;
-                                                    dieCoords[3] = a;
-                                                    return dieCoords;
+                                                    return Move.encode(playerRow, playerCol, keySpaceRow, a, true);
                                                 }
                                             }
                                         }
@@ -718,11 +518,7 @@ public class Player {
                                                 // If we can move to a spot between them, move there.
                                                 if (canMoveToSpace(board, playerRow, playerCol, keySpaceRow, b, playerType))
                                                 {
-                                                    dieCoords[0] = playerRow;
-                                                    dieCoords[1] = playerCol;
-                                                    dieCoords[2] = keySpaceRow;
-                                                    dieCoords[3] = b;
-                                                    return dieCoords;
+                                                    return Move.encode(playerRow, playerCol, keySpaceRow, b, true);
                                                 }
                                             }
                                         }
@@ -738,11 +534,7 @@ public class Player {
                                                 // If we can move to a spot between them, move there.
                                                 if (canMoveToSpace(board, playerRow, playerCol, c, keySpaceColumn, playerType))
                                                 {
-                                                    dieCoords[0] = playerRow;
-                                                    dieCoords[1] = playerCol;
-                                                    dieCoords[2] = c;
-                                                    dieCoords[3] = keySpaceColumn;
-                                                    return dieCoords;
+                                                    return Move.encode(playerRow, playerCol, c, keySpaceColumn, true);
                                                 }
                                             }
                                         }
@@ -754,11 +546,7 @@ public class Player {
                                                 // If we can move to a spot between them, move there.
                                                 if (canMoveToSpace(board, playerRow, playerCol, d, keySpaceColumn, playerType))
                                                 {
-                                                    dieCoords[0] = playerRow;
-                                                    dieCoords[1] = playerCol;
-                                                    dieCoords[2] = d;
-                                                    dieCoords[3] = keySpaceColumn;
-                                                    return dieCoords;
+                                                    return Move.encode(playerRow, playerCol, d, keySpaceColumn, true);
                                                 }
                                             }
                                         }
@@ -772,11 +560,7 @@ public class Player {
                                             // Try moving to the space.
                                             if (canMoveToSpace(board, playerRow, playerCol, e, keySpaceColumn, playerType))
                                             {
-                                                dieCoords[0] = playerRow;
-                                                dieCoords[1] = playerCol;
-                                                dieCoords[2] = e;
-                                                dieCoords[3] = keySpaceColumn;
-                                                return dieCoords;
+                                                return Move.encode(playerRow, playerCol, e, keySpaceColumn, true);
                                             }
                                         }
                                     }
@@ -787,11 +571,7 @@ public class Player {
                                             // Try moving to the space.
                                             if (canMoveToSpace(board, playerRow, playerCol, f, keySpaceColumn, playerType))
                                             {
-                                                dieCoords[0] = playerRow;
-                                                dieCoords[1] = playerCol;
-                                                dieCoords[2] = f;
-                                                dieCoords[3] = keySpaceColumn;
-                                                return dieCoords;
+                                                return Move.encode(playerRow, playerCol, f, keySpaceColumn, true);
                                             }
                                         }
                                     }
@@ -803,23 +583,17 @@ public class Player {
             }
         }
         // Blocking the key space from being captured is not necessary or feasible.
-        dieCoords[0] = 0;
-        dieCoords[1] = 0;
-        dieCoords[2] = 0;
-        dieCoords[3] = 0;
-        return dieCoords;
+        return Move.NONE;
     }
 
     /**
      * Determines if a die can be captured or not
      * @param board the board being played on
      * @param playerType the player type of the player "calling" the function
-     * @return dieCoords, an array containing coordinates of a die to move and where to go. if no move is possible, 0 for all coords is returned
+     * @return the packed move that captures a die, or Move.NONE if no move is possible
      */
-    protected int[] captureDieScore(Board board, char playerType)
+    protected int captureDieScore(Board board, char playerType)
     {
-        // Array to contain coordinates.
-        int[] dieCoords = new int[4];
         // Character to store opposing player type.
         char opponentType;
         if (playerType == 'H') opponentType = 'C';
@@ -843,11 +617,7 @@ public class Player {
                                 // See if that die can move to the space occupied by the enemy die. If we can, return true.
                                 if (canMoveToSpace(board, playerRow, playerCol, i, j, playerType))
                                 {
-                                    dieCoords[0] = playerRow;
-                                    dieCoords[1] = playerCol;
-                                    dieCoords[2] = i;
-                                    dieCoords[3] = j;
-                                    return dieCoords;
+                                    return Move.encode(playerRow, playerCol, i, j, true);
                                 }
                             }
                         }
@@ -856,36 +626,32 @@ public class Player {
             }
         }
         // Moving to this space is not feasible.
-        dieCoords[0] = 0;
-        dieCoords[1] = 0;
-        dieCoords[2] = 0;
-        dieCoords[3] = 0;
-        return dieCoords;
+        return Move.NONE;
     }
 
     /**
      * Makes a random move on the board
      * @param board the board being played on
      * @param playerType the player type of the player "calling" the function
-     * @return dieCoords, an array that contains coordinates of a die to move and where to go
+     * @return the packed move to make, or Move.NONE if the player has no moves at all
      */
-    protected int[] randomMove(Board board, char playerType)
+    protected int randomMove(Board board, char playerType)
     {
-        // Array to return with coordinates.
-        int[] dieCoords = new int[4];
         // Array of boolean values to look at whether or not that row has already been checked.
         boolean[] alreadyChecked = {false, false, false, false, false, false, false, false};
         // Integer that will store a random row value.
         int randomRow;
+        // The number of rows that have been checked.
+        int rowsChecked = 0;
         // Integer that will store the row rolls and column rolls necessary to make a move.
         int rowRolls = 0, columnRolls = 0;
         // The top number of the die.
         int topNum = 0;
-        // Random seed.
-        Random rand = new Random();
+        // The player's random numbers.
+        Random rand = random;
         // We will enter a semi-permanent while loop to let this perform to the best of its ability. The function
-        // returns once a move has been successfully made.
-        while (true)
+        // returns once a move has been successfully made, or once every row has been checked without finding one.
+        while (rowsChecked < 8)
         {
             // Get a random number between 1 and 8.
             randomRow = rand.nextInt(8) + 1;
@@ -910,41 +676,25 @@ public class Player {
                             if (canMoveToSpace(board, randomRow, i, randomRow + rowRolls, i + columnRolls, playerType))
                             {
                                 // A move is possible. Return the coordinates of the possible move.
-                                dieCoords[0] = randomRow;
-                                dieCoords[1] = i;
-                                dieCoords[2] = randomRow + rowRolls;
-                                dieCoords[3] = i + columnRolls;
-                                return dieCoords;
+                                return Move.encode(randomRow, i, randomRow + rowRolls, i + columnRolls, true);
                             }
                             // Try randomRow - rowRolls.
                             if (canMoveToSpace(board, randomRow, i, randomRow - rowRolls, i + columnRolls, playerType))
                             {
                                 // A move is possible. Return the coordinates of the possible move.
-                                dieCoords[0] = randomRow;
-                                dieCoords[1] = i;
-                                dieCoords[2] = randomRow - rowRolls;
-                                dieCoords[3] = i + columnRolls;
-                                return dieCoords;
+                                return Move.encode(randomRow, i, randomRow - rowRolls, i + columnRolls, true);
                             }
                             // Try i - columnRolls.
                             if (canMoveToSpace(board, randomRow, i, randomRow + rowRolls, i - columnRolls, playerType))
                             {
                                 // A move is possible. Return the coordinates of the possible move.
-                                dieCoords[0] = randomRow;
-                                dieCoords[1] = i;
-                                dieCoords[2] = randomRow + rowRolls;
-                                dieCoords[3] = i - columnRolls;
-                                return dieCoords;
+                                return Move.encode(randomRow, i, randomRow + rowRolls, i - columnRolls, true);
                             }
                             // Try randomRow - rowRolls and i - columnRolls.
                             if (canMoveToSpace(board, randomRow, i, randomRow - rowRolls, i - columnRolls, playerType))
                             {
                                 // A move is possible. Return the coordinates of the possible move.
-                                dieCoords[0] = randomRow;
-                                dieCoords[1] = i;
-                                dieCoords[2] = randomRow - rowRolls;
-                                dieCoords[3] = i - columnRolls;
-                                return dieCoords;
+                                return Move.encode(randomRow, i, randomRow - rowRolls, i - columnRolls, true);
                             }
                             // Otherwise, a move is not possible. Try different columns and rows to move by.
                             rowRolls--;
@@ -954,7 +704,10 @@ public class Player {
                 }
                 // Check off the row in the array, as it's now been checked.
                 alreadyChecked[randomRow - 1] = true;
+                rowsChecked++;
             }
         }
+        // None of the player's dice can move.
+        return Move.NONE;
     }
 }
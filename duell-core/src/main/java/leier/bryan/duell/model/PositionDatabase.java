@@ -0,0 +1,187 @@
+package leier.bryan.duell.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only store of positions from games that have already been played, each with the move that did best from it.
+ * The file is memory mapped rather than read, so opening it costs next to nothing however big it is, and only the pages
+ * a lookup touches are ever loaded. Build one from game records with PositionDatabaseBuilder.
+ *
+ * The file starts with a header of HEADER_SIZE bytes: the magic bytes "DPDB", the format version, and the number of
+ * records, as big-endian ints. The records follow, sorted by key so they can be binary searched. Each record is
+ * RECORD_SIZE bytes:
+ *   bytes 0-7    the Zobrist key of the position, including the player to move
+ *   bytes 8-9    the best move, packed with its direction
+ *   bytes 10-11  how many games the best move was played in, at most MAX_COUNT
+ *   bytes 12-13  how many of those games the player who made it won, at most MAX_COUNT
+ *   bytes 14-15  how many of those games were drawn, at most MAX_COUNT
+ */
+
+public class PositionDatabase {
+    // The magic bytes at the start of every database.
+    static final byte[] MAGIC = {'D', 'P', 'D', 'B'};
+    // The version of the format written by PositionDatabaseBuilder.
+    public static final int VERSION = 1;
+    // The size of the header and of each record, in bytes.
+    public static final int HEADER_SIZE = 12;
+    public static final int RECORD_SIZE = 16;
+    // The largest count a record can hold.
+    public static final int MAX_COUNT = 0xFFFF;
+
+    // The bytes of the database, mapped from its file or wrapped around an array.
+    private final ByteBuffer buffer;
+    // How many positions are in the database.
+    private final int size;
+
+    /**
+     * Constructor for a database that is already in memory, such as in a test.
+     * @param buffer the bytes of the database, in the format written by PositionDatabaseBuilder
+     * @throws IOException if the bytes are not a database of this version
+     */
+    public PositionDatabase(ByteBuffer buffer) throws IOException
+    {
+        this.buffer = buffer;
+        // Check the header before trusting anything else.
+        if (buffer.limit() < HEADER_SIZE) throw new IOException("The position database has no header");
+        for (int i = 0; i < MAGIC.length; i++)
+        {
+            if (buffer.get(i) != MAGIC[i]) throw new IOException("This is not a position database");
+        }
+        if (buffer.getInt(4) != VERSION) throw new IOException("The position database is version " + buffer.getInt(4));
+        size = buffer.getInt(8);
+        if (size < 0 || (long) HEADER_SIZE + (long) size * RECORD_SIZE > buffer.limit())
+        {
+            throw new IOException("The position database is cut short");
+        }
+    }
+
+    /**
+     * Opens a database by memory mapping its file. The file can be closed straight away, since the mapping keeps it.
+     * @param file the database's file
+     * @return the database
+     * @throws IOException if the file could not be mapped or is not a database of this version
+     */
+    public static PositionDatabase open(File file) throws IOException
+    {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try
+        {
+            FileChannel channel = randomAccessFile.getChannel();
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new PositionDatabase(mapped);
+        }
+        finally
+        {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Gets how many positions are in the database.
+     * @return the number of records
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Finds a position.
+     * @param key the Zobrist key of the position, including the player to move
+     * @return the index of the position's record, or -1 if it is not in the database
+     */
+    public int find(long key)
+    {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            long middleKey = buffer.getLong(HEADER_SIZE + middle * RECORD_SIZE);
+            if (middleKey < key) low = middle + 1;
+            else if (middleKey > key) high = middle - 1;
+            else return middle;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the key of a record.
+     * @param index the index of the record
+     * @return the Zobrist key of the position
+     */
+    public long getKey(int index)
+    {
+        return buffer.getLong(HEADER_SIZE + index * RECORD_SIZE);
+    }
+
+    /**
+     * Gets the best move of a record.
+     * @param index the index of the record, from find()
+     * @return the packed move, with its direction
+     */
+    public int getMove(int index)
+    {
+        return buffer.getShort(HEADER_SIZE + index * RECORD_SIZE + 8) & 0xFFFF;
+    }
+
+    /**
+     * Gets how many games a record's best move was played in.
+     * @param index the index of the record, from find()
+     * @return the number of games, at most MAX_COUNT
+     */
+    public int getGames(int index)
+    {
+        return buffer.getShort(HEADER_SIZE + index * RECORD_SIZE + 10) & 0xFFFF;
+    }
+
+    /**
+     * Gets how many of the games with a record's best move the player who made it won.
+     * @param index the index of the record, from find()
+     * @return the number of wins, at most MAX_COUNT
+     */
+    public int getWins(int index)
+    {
+        return buffer.getShort(HEADER_SIZE + index * RECORD_SIZE + 12) & 0xFFFF;
+    }
+
+    /**
+     * Gets how many of the games with a record's best move were drawn.
+     * @param index the index of the record, from find()
+     * @return the number of draws, at most MAX_COUNT
+     */
+    public int getDraws(int index)
+    {
+        return buffer.getShort(HEADER_SIZE + index * RECORD_SIZE + 14) & 0xFFFF;
+    }
+
+    /**
+     * Looks up the best move for the player to move on a board, checking that it can be made there.
+     * @param bits the board, with the player to move set
+     * @return the packed move, with its direction, or Move.NONE if the position is not in the database
+     */
+    public int findMove(BitBoard bits)
+    {
+        int index = find(bits.getHash());
+        if (index == -1) return Move.NONE;
+        int move = getMove(index);
+        // Two positions can share a key, so only trust the move if it is legal here.
+        if (!bits.isPlayerType(Move.dieSquare(move), bits.getSideToMove())) return Move.NONE;
+        MoveList moves = new MoveList();
+        MoveGenerator.generateMovesFrom(bits, Move.dieSquare(move), moves);
+        if (moves.contains(move)) return move;
+        // A die that moves in a straight line ends up the same whichever way it is said to roll first.
+        int dieSquare = Move.dieSquare(move);
+        int spaceSquare = Move.spaceSquare(move);
+        boolean straight = BitBoard.rowOf(dieSquare) == BitBoard.rowOf(spaceSquare)
+                || BitBoard.columnOf(dieSquare) == BitBoard.columnOf(spaceSquare);
+        int otherDirection = Move.withDirection(move, !Move.isFrontalFirst(move));
+        if (straight && moves.contains(otherDirection)) return otherDirection;
+        return Move.NONE;
+    }
+}
@@ -0,0 +1,225 @@
+package leier.bryan.duell.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds a PositionDatabase from game records, such as the self-play archives written by Simulator. Every move made in
+ * the first plies of each game is counted against the position it was made from, with how the game ended for the player
+ * who made it. Each position then keeps the move that scored best, as long as it was played often enough to trust and
+ * scored well enough to be worth playing. A position whose best move did no better than an even game is left out, so the
+ * computer thinks about it instead.
+ *
+ * Only the positions are kept in memory while the records stream past, so the archives can be as big as they need to
+ * be. Limiting the plies keeps the number of positions down to the early game, where the same positions come up again
+ * and again.
+ */
+
+public class PositionDatabaseBuilder {
+    // By default a move has to do better than an even game, counting two points for a win and one for a draw.
+    public static final int DEFAULT_MIN_SCORE = 50;
+
+    // How many plies of each game are counted.
+    private final int maxPlies;
+    // How many games a move needs before it can be a position's best move.
+    private final int minGames;
+    // The share of the points a move has to score more than, as a percentage, to be kept.
+    private int minScore = DEFAULT_MIN_SCORE;
+    // The games, wins and draws of each move from each position, by the position's key and then the packed move.
+    private final Map<Long, Map<Integer, int[]>> positions = new HashMap<Long, Map<Integer, int[]>>();
+
+    /**
+     * Constructor for a builder.
+     * @param maxPlies how many plies of each game are counted
+     * @param minGames how many games a move needs before it can be a position's best move
+     */
+    public PositionDatabaseBuilder(int maxPlies, int minGames)
+    {
+        this.maxPlies = maxPlies;
+        this.minGames = Math.max(1, minGames);
+    }
+
+    /**
+     * Sets how well a move has to score to be kept.
+     * @param percent the share of the points, counting two for a win and one for a draw, that a position's best move
+     *                has to score more than. Positions whose best move does not are left out of the database
+     */
+    public void setMinScore(int percent)
+    {
+        minScore = percent;
+    }
+
+    /**
+     * Counts the moves of one game. A game that never ended is skipped, since its moves cannot be scored.
+     * @param record the record of the game
+     */
+    public void addGame(GameRecord record)
+    {
+        if (record.getResult() == GameRecord.UNFINISHED) return;
+        char winner = BitBoard.winnerOf(record.getResult());
+        Board board = record.getSetup();
+        board.setSideToMove(record.getFirstPlayer());
+        int plies = Math.min(maxPlies, record.getMoveCount());
+        for (int i = 0; i < plies; i++)
+        {
+            int move = record.getMove(i);
+            Long key = board.getHash();
+            Map<Integer, int[]> moves = positions.get(key);
+            if (moves == null)
+            {
+                moves = new HashMap<Integer, int[]>();
+                positions.put(key, moves);
+            }
+            int[] stats = moves.get(move);
+            if (stats == null)
+            {
+                stats = new int[3];
+                moves.put(move, stats);
+            }
+            // Count the game, and whether the player who made the move won it or drew it.
+            stats[0]++;
+            if (winner == record.getPlayer(i)) stats[1]++;
+            else if (winner == 'N') stats[2]++;
+            board.applyMove(move, null);
+        }
+    }
+
+    /**
+     * Counts the moves of every game in a stream of records.
+     * @param reader the records
+     * @return how many games were read
+     * @throws IOException if a record is not valid or could not be read
+     */
+    public int addGames(GameRecordReader reader) throws IOException
+    {
+        int games = 0;
+        for (GameRecord record = reader.read(); record != null; record = reader.read())
+        {
+            addGame(record);
+            games++;
+        }
+        return games;
+    }
+
+    /**
+     * Writes the database of the games counted so far.
+     * @param output the stream to write to. It is flushed but not closed
+     * @return how many positions were written
+     * @throws IOException if the database could not be written
+     */
+    public int write(OutputStream output) throws IOException
+    {
+        // Keep the positions that have a move played often enough, sorted by key so they can be binary searched.
+        long[] keys = new long[positions.size()];
+        int count = 0;
+        for (Map.Entry<Long, Map<Integer, int[]>> position : positions.entrySet())
+        {
+            if (bestMoveOf(position.getValue()) != null) keys[count++] = position.getKey();
+        }
+        Arrays.sort(keys, 0, count);
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+        data.write(PositionDatabase.MAGIC);
+        data.writeInt(PositionDatabase.VERSION);
+        data.writeInt(count);
+        for (int i = 0; i < count; i++)
+        {
+            int[] best = bestMoveOf(positions.get(keys[i]));
+            data.writeLong(keys[i]);
+            data.writeShort(best[0]);
+            data.writeShort(Math.min(best[1], PositionDatabase.MAX_COUNT));
+            data.writeShort(Math.min(best[2], PositionDatabase.MAX_COUNT));
+            data.writeShort(Math.min(best[3], PositionDatabase.MAX_COUNT));
+        }
+        data.flush();
+        return count;
+    }
+
+    /**
+     * Builds a database from files of game records from the command line.
+     * @param args the database file to write, how many plies of each game to count, how many games a move needs, and
+     *             then one or more files of game records
+     * @throws IOException if the records could not be read or the database could not be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 4)
+        {
+            System.out.println("Usage: PositionDatabaseBuilder <database> <max plies> <min games> <records>...");
+            return;
+        }
+        PositionDatabaseBuilder builder = new PositionDatabaseBuilder(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        int games = 0;
+        for (int i = 3; i < args.length; i++)
+        {
+            GameRecordReader reader = new GameRecordReader(new InputStreamReader(new FileInputStream(args[i]), "UTF-8"));
+            try
+            {
+                games += builder.addGames(reader);
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        OutputStream output = new FileOutputStream(args[0]);
+        int positions;
+        try
+        {
+            positions = builder.write(output);
+        }
+        finally
+        {
+            output.close();
+        }
+        System.out.println(games + " games, " + positions + " positions written to " + args[0]);
+    }
+
+    /**
+     * Picks the move that scored best from a position, out of those played often enough.
+     * @param moves the games, wins and draws of each move from the position
+     * @return the packed move followed by its games, wins and draws, or null if no move was played often enough and
+     * scored well enough
+     */
+    private int[] bestMoveOf(Map<Integer, int[]> moves)
+    {
+        int[] best = null;
+        for (Map.Entry<Integer, int[]> move : moves.entrySet())
+        {
+            int[] stats = move.getValue();
+            if (stats[0] < minGames) continue;
+            if (best == null || isBetter(stats, best))
+            {
+                best = new int[] {move.getKey(), stats[0], stats[1], stats[2]};
+            }
+        }
+        // Every other move scored no better, so if the best one falls short the position is not worth keeping.
+        if (best == null) return null;
+        // Compare (2 * wins + draws) / (2 * games) to the percentage without dividing.
+        if ((2L * best[2] + best[3]) * 100 <= 2L * best[1] * minScore) return null;
+        return best;
+    }
+
+    /**
+     * Determines if a move scored better than another.
+     * @param stats the games, wins and draws of the move
+     * @param best the best move so far, followed by its games, wins and draws
+     * @return a boolean that is true if the move scored better, or the same but was played more often
+     */
+    private static boolean isBetter(int[] stats, int[] best)
+    {
+        // Compare (2 * wins + draws) / games without dividing.
+        long score = (2L * stats[1] + stats[2]) * best[1];
+        long bestScore = (2L * best[2] + best[3]) * stats[0];
+        if (score != bestScore) return score > bestScore;
+        return stats[0] > best[1];
+    }
+}
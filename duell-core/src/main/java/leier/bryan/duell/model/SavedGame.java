@@ -0,0 +1,427 @@
+package leier.bryan.duell.model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * A game as it is kept in a saved game file: the board, how many times each player has won, and the player who moves
+ * next. It only reads and writes streams, so it works without any Android classes.
+ *
+ * Games are saved in a binary format of BINARY_SIZE bytes: the magic bytes "DUEL", a version byte, one byte for each
+ * square from square 0 to 71, the computer's and the human's wins as big-endian ints, the next player as H or C, and a
+ * CRC32 of everything before it. A square's byte is 0 if it is empty, or 1 + player * 25 + orientation otherwise, with
+ * player being BitBoard.HUMAN or BitBoard.COMPUTER. Every game is the same size, so many positions can be kept back to
+ * back in one file. The older text format can still be read and written, for exporting games people can read.
+ */
+
+public class SavedGame {
+    // The version of the binary format that is written.
+    public static final int BINARY_VERSION = 1;
+    // The size of a game in the binary format, in bytes.
+    public static final int BINARY_SIZE = 4 + 1 + BitBoard.SQUARES + 4 + 4 + 1 + 4;
+    // The bytes every binary game starts with.
+    private static final byte[] MAGIC = {'D', 'U', 'E', 'L'};
+    // The number of values a square's byte can take for each player: every orientation, including the key die's.
+    private static final int ORIENTATION_CODES = Die.KEY_ORIENTATION + 1;
+
+    // The board of the saved game.
+    private final Board board;
+    // The amount of wins for each player.
+    private int computerWins;
+    private int humanWins;
+    // The player who moves next, Human or Computer.
+    private String nextPlayer;
+
+    /**
+     * Constructor for a game to be saved.
+     * @param board the board of the game
+     * @param computerWins the amount of times the computer has won
+     * @param humanWins the amount of times the human has won
+     * @param nextPlayer the name of the player who moves next
+     */
+    public SavedGame(Board board, int computerWins, int humanWins, String nextPlayer)
+    {
+        this.board = board;
+        this.computerWins = computerWins;
+        this.humanWins = humanWins;
+        this.nextPlayer = nextPlayer;
+    }
+
+    /**
+     * Constructor for a game that is being read, starting with an empty board.
+     */
+    private SavedGame()
+    {
+        this(new Board(), 0, 0, "");
+    }
+
+    /**
+     * Gets the board of the saved game.
+     * @return board of the SavedGame
+     */
+    public Board getBoard()
+    {
+        return board;
+    }
+
+    /**
+     * Gets the amount of wins for the computer.
+     * @return computerWins of the SavedGame
+     */
+    public int getComputerWins()
+    {
+        return computerWins;
+    }
+
+    /**
+     * Gets the amount of wins for the human.
+     * @return humanWins of the SavedGame
+     */
+    public int getHumanWins()
+    {
+        return humanWins;
+    }
+
+    /**
+     * Gets the player who moves next.
+     * @return Human or Computer
+     */
+    public String getNextPlayer()
+    {
+        return nextPlayer;
+    }
+
+    /**
+     * Reads a saved game from a text file.
+     * @param bufferedReader the reader positioned at the start of the file
+     * @return the saved game, or null if the file is not a valid saved game
+     * @throws IOException if a line could not be read
+     */
+    public static SavedGame read(BufferedReader bufferedReader) throws IOException
+    {
+        SavedGame savedGame = new SavedGame();
+
+        // Start reading the lines in the file:
+        String line = bufferedReader.readLine();
+        // The very first line should be "Board:", if not, it is invalid and cannot be resumed.
+        if (line == null || !line.equals("Board:")) return null;
+
+        // Continue reading from the file. The next 8 lines should be spaces on the board.
+        for (int i = 8; i > 0; i--)
+        {
+            line = bufferedReader.readLine();
+            // If the board is unable to be restored, return null for an error.
+            if (line == null || !savedGame.restoreBoard(line, i)) return null;
+        }
+
+        // Get the next couple lines. Skip one because it's blank.
+        bufferedReader.readLine();
+        line = bufferedReader.readLine();
+        // Restore the amount of wins for the computer player.
+        if (line == null || !savedGame.restorePlayerWins(line)) return null;
+        // Get the next couple lines. Skip one because it's blank.
+        bufferedReader.readLine();
+        line = bufferedReader.readLine();
+        // Restore the amount of wins for the human player.
+        if (line == null || !savedGame.restorePlayerWins(line)) return null;
+        // Get the next couple lines. Skip one because it's blank.
+        bufferedReader.readLine();
+        line = bufferedReader.readLine();
+        // Assign the next player to be the current player.
+        if (line == null || !savedGame.restorePlayer(line)) return null;
+
+        // Seems like restoration was a success!
+        return savedGame;
+    }
+
+    /**
+     * Writes the game in the saved game text format.
+     * @param bufferedWriter the writer to write to. It is flushed but not closed
+     * @throws IOException if the game could not be written
+     */
+    public void write(BufferedWriter bufferedWriter) throws IOException
+    {
+        // Start writing the proper format for file output:
+        bufferedWriter.write("Board:");
+        bufferedWriter.newLine();
+        bufferedWriter.write(" \t");
+        // Scan the board for dice:
+        for (int i = 8; i > 0; i--)
+        {
+            for (int j = 1; j < 10; j++)
+            {
+                // If there is a die on the space, output its name to the text file.
+                if (board.isDieOn(i, j))
+                {
+                    bufferedWriter.write(board.getDieName(i, j)+" \t");
+                }
+                // Otherwise, it's an empty space.
+                else
+                {
+                    bufferedWriter.write("0 \t");
+                }
+            }
+            bufferedWriter.newLine();
+            bufferedWriter.write("\t");
+        }
+
+        // Output the number of wins the computer and human have:
+        bufferedWriter.newLine();
+        bufferedWriter.write("Computer Wins: "+computerWins);
+        bufferedWriter.newLine();
+        bufferedWriter.newLine();
+        bufferedWriter.write("Human Wins: "+humanWins);
+        // Get the next player.
+        bufferedWriter.newLine();
+        bufferedWriter.newLine();
+        bufferedWriter.write("Next Player: "+nextPlayer);
+        bufferedWriter.flush();
+    }
+
+    /**
+     * Encodes the game in the binary format.
+     * @return the BINARY_SIZE bytes of the game
+     */
+    public byte[] toBytes()
+    {
+        byte[] bytes = new byte[BINARY_SIZE];
+        System.arraycopy(MAGIC, 0, bytes, 0, MAGIC.length);
+        int offset = MAGIC.length;
+        bytes[offset++] = (byte) BINARY_VERSION;
+        // One byte for each square.
+        BitBoard bits = board.getBitBoard();
+        for (int square = 0; square < BitBoard.SQUARES; square++)
+        {
+            int player = BitBoard.playerIndex(bits.getPlayerType(square));
+            bytes[offset++] = (byte) (player == -1 ? 0 : 1 + player * ORIENTATION_CODES + bits.getOrientation(square));
+        }
+        offset = putInt(bytes, offset, computerWins);
+        offset = putInt(bytes, offset, humanWins);
+        bytes[offset++] = (byte) (nextPlayer.equals("Computer") ? 'C' : 'H');
+        // The checksum covers everything before it.
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, offset);
+        putInt(bytes, offset, (int) crc.getValue());
+        return bytes;
+    }
+
+    /**
+     * Decodes a game in the binary format.
+     * @param bytes the bytes holding the game
+     * @param offset where the game starts in the bytes
+     * @return the saved game, or null if the bytes are not a valid game of a version that can be read
+     */
+    public static SavedGame fromBytes(byte[] bytes, int offset)
+    {
+        if (bytes.length - offset < BINARY_SIZE) return null;
+        // Check the magic bytes, the version and the checksum before trusting anything else.
+        for (int i = 0; i < MAGIC.length; i++)
+        {
+            if (bytes[offset + i] != MAGIC[i]) return null;
+        }
+        if (bytes[offset + MAGIC.length] != BINARY_VERSION) return null;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, BINARY_SIZE - 4);
+        if (getInt(bytes, offset + BINARY_SIZE - 4) != (int) crc.getValue()) return null;
+
+        SavedGame savedGame = new SavedGame();
+        int position = offset + MAGIC.length + 1;
+        for (int square = 0; square < BitBoard.SQUARES; square++)
+        {
+            int code = bytes[position++] & 0xFF;
+            if (code == 0) continue;
+            code--;
+            if (code >= 2 * ORIENTATION_CODES) return null;
+            char playerType = BitBoard.playerType(code / ORIENTATION_CODES);
+            byte orientation = (byte) (code % ORIENTATION_CODES);
+            savedGame.board.placeDie(new Die(orientation, playerType), BitBoard.rowOf(square), BitBoard.columnOf(square));
+        }
+        savedGame.computerWins = getInt(bytes, position);
+        savedGame.humanWins = getInt(bytes, position + 4);
+        position += 8;
+        if (savedGame.computerWins < 0 || savedGame.humanWins < 0) return null;
+        char next = (char) bytes[position];
+        if (next == 'H') savedGame.nextPlayer = "Human";
+        else if (next == 'C') savedGame.nextPlayer = "Computer";
+        else return null;
+        savedGame.board.setSideToMove(next);
+        return savedGame;
+    }
+
+    /**
+     * Writes the game in the binary format, in a single write.
+     * @param output the stream to write to. It is not closed
+     * @throws IOException if the game could not be written
+     */
+    public void writeBinary(OutputStream output) throws IOException
+    {
+        output.write(toBytes());
+        output.flush();
+    }
+
+    /**
+     * Reads a game in the binary format.
+     * @param input the stream positioned at the start of the game
+     * @return the saved game, or null if the stream does not hold a valid game
+     * @throws IOException if the game could not be read
+     */
+    public static SavedGame readBinary(InputStream input) throws IOException
+    {
+        byte[] bytes = new byte[BINARY_SIZE];
+        try
+        {
+            new DataInputStream(input).readFully(bytes);
+        }
+        catch (EOFException exception)
+        {
+            // The file is too short to be a game.
+            return null;
+        }
+        return fromBytes(bytes, 0);
+    }
+
+    /**
+     * Puts an int into a byte array, most significant byte first.
+     * @param bytes the array to put the int into
+     * @param offset where the int goes
+     * @param value the int
+     * @return the offset just after the int
+     */
+    private static int putInt(byte[] bytes, int offset, int value)
+    {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+        return offset + 4;
+    }
+
+    /**
+     * Gets an int from a byte array, most significant byte first.
+     * @param bytes the array to get the int from
+     * @param offset where the int is
+     * @return the int
+     */
+    private static int getInt(byte[] bytes, int offset)
+    {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+
+    /**
+     * restores the board model to what is represented in the text file
+     * @param line the line that contains the spaces
+     * @param row the row to be stored
+     * @return a boolean determining whether or not the restoration was a success
+     */
+    private boolean restoreBoard(String line, int row)
+    {
+        // Set up an array of strings that will help to parse the line.
+        String[] dice = line.split("\\s+");
+        // A row needs a leading blank and nine spaces.
+        if (dice.length < 10) return false;
+        // Integers that hold the top and right number of the die.
+        int topNum;
+        int rightNum;
+        // Go through the array:
+        for (int i = 1; i < 10; i++)
+        {
+            // If it is a die name, initialize the die on the board:
+            if (dice[i].length() == 3 && (dice[i].charAt(0) == 'H' || dice[i].charAt(0) == 'C'))
+            {
+                // Get the top and right numbers of the die.
+                topNum = Character.getNumericValue(dice[i].charAt(1));
+                rightNum = Character.getNumericValue(dice[i].charAt(2));
+                // Place the die on the board.
+                board.placeDie(new Die(topNum, rightNum, dice[i].charAt(0)), row, i);
+            }
+            // If it is a 0, it is an empty space. Leave it be.
+            else if (dice[i].equals("0")) {}
+            // Otherwise, it is not recognized by the board. Return false for an error.
+            else
+            {
+                return false;
+            }
+        }
+        // Everything seems to have gone well, return true.
+        return true;
+    }
+
+    /**
+     * restores the amount of wins the player has in the game
+     * @param line the line containing the player and their win count
+     * @return a boolean determining whether or not restoration was a success
+     */
+    private boolean restorePlayerWins(String line)
+    {
+        // Set up an array of strings that will help to parse the line.
+        String delims = "[ ]+";
+        String[] winLine = line.split(delims);
+        if (winLine.length < 3) return false;
+        // Integer that stores how many times the player has won.
+        int winCount;
+        try
+        {
+            winCount = Integer.parseInt(winLine[2]);
+        }
+        catch (NumberFormatException exception)
+        {
+            return false;
+        }
+
+        // If the player's name is "Human" or "Computer", restore their wins. Otherwise, return an error.
+        if (winLine[0].equals("Human"))
+        {
+            humanWins = winCount;
+        }
+        else if (winLine[0].equals("Computer"))
+        {
+            computerWins = winCount;
+        }
+        else
+        {
+            return false;
+        }
+
+        // Everything seems to have went well. Return true.
+        return true;
+    }
+
+    /**
+     * restores the player who will take their turn next in the game
+     * @param line the line containing the next player
+     * @return a boolean determining whether restoration was successful or not
+     */
+    private boolean restorePlayer(String line)
+    {
+        // Set up an array of strings that will help to parse the line.
+        String delims = "[ ]+";
+        String[] playerLine = line.split(delims);
+        if (playerLine.length < 3) return false;
+
+        // If the third element in playerLine is not "Human" or "Computer", the file is invalid.
+        if (playerLine[2].equals("Human"))
+        {
+            nextPlayer = "Human";
+            board.setSideToMove('H');
+        }
+        else if (playerLine[2].equals("Computer"))
+        {
+            nextPlayer = "Computer";
+            board.setSideToMove('C');
+        }
+        else
+        {
+            return false;
+        }
+
+        // Everything went well! Return true.
+        return true;
+    }
+}
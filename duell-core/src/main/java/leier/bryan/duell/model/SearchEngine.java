@@ -0,0 +1,580 @@
+package leier.bryan.duell.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A negamax alpha-beta search that looks several moves ahead to pick a move. It deepens one ply at a time until the time
+ * limit runs out, so it always has a move from the last finished depth to fall back on. Moves are tried in the order
+ * most likely to cause a cutoff: the best move remembered in the transposition table, then captures, then moves that
+ * caused cutoffs at the same ply (killers), then moves that have caused cutoffs anywhere (history).
+ *
+ * The search runs on a copy of the board's bitboard, so the board passed in is never changed. It can be stopped from
+ * another thread with stop(). A search started on another thread should be given getStopCount() from the thread that
+ * starts it, so that a stop() made before the search gets going is not lost.
+ */
+
+public class SearchEngine {
+    // The score of a won position. Wins found sooner score higher.
+    public static final int WIN = 30000;
+    // The deepest the search will ever go.
+    public static final int MAX_PLY = 64;
+    // Any score beyond this is a win or a loss rather than an evaluation.
+    private static final int WIN_BOUND = WIN - MAX_PLY;
+    // The score of each die a player has on the board.
+    private static final int DIE_VALUE = 100;
+    // The score of each space a die is closer to the opponent's key space.
+    private static final int ADVANCE_VALUE = 2;
+    // The squares of each player's key space, indexed by HUMAN or COMPUTER.
+    private static final int[] KEY_SPACE = { BitBoard.square(1, 5), BitBoard.square(BitBoard.ROWS, 5) };
+    // How many nodes are searched between checks of the clock.
+    private static final int CHECK_INTERVAL = 1023;
+    // The ordering scores of each kind of move.
+    private static final int ORDER_TABLE_MOVE = 1 << 30;
+    private static final int ORDER_CAPTURE = 1 << 24;
+    private static final int ORDER_KILLER = 1 << 22;
+
+    // The table search results are shared through.
+    private final TranspositionTable table;
+    // The moves of each ply, and the ordering score of each of them.
+    private final MoveList[] moves = new MoveList[MAX_PLY + 1];
+    private final int[][] orderScores = new int[MAX_PLY + 1][];
+    // The two most recent moves that caused a cutoff at each ply.
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    // How often each (player, die square, space square) move has caused a cutoff, weighted by depth.
+    private final int[] history = new int[2 * BitBoard.SQUARES * BitBoard.SQUARES];
+    // The keys of the positions on the path to the current node, to spot positions that repeat.
+    private final long[] path = new long[MAX_PLY + 1];
+
+    // The longest the search may take, in milliseconds.
+    private long timeLimit = 1000;
+    // The deepest the iterative deepening may go.
+    private int maxDepth = MAX_PLY;
+    // When the current search has to stop, as a System.currentTimeMillis() value.
+    private long deadline;
+    // Set when the search has to stop, either by running out of time or by stop() being called.
+    private volatile boolean stopped;
+    // How many times stop() has been called, and how many times it had been when the current search was asked for.
+    private final AtomicInteger stopCount = new AtomicInteger();
+    private int searchStopCount;
+    // The number of positions visited by the current search.
+    private long nodes;
+    // The best move found at the root in the current iteration.
+    private int rootBestMove;
+    // The depth and score of the last finished iteration. The depth can be read from another thread to show progress.
+    private volatile int completedDepth;
+    private int completedScore;
+
+    /**
+     * Constructor that sets the table the search keeps its results in.
+     * @param table the transposition table, which may be shared with other searches
+     */
+    public SearchEngine(TranspositionTable table)
+    {
+        this.table = table;
+        for (int ply = 0; ply <= MAX_PLY; ply++)
+        {
+            moves[ply] = new MoveList();
+            orderScores[ply] = new int[256];
+        }
+    }
+
+    /**
+     * Sets how long each search may take.
+     * @param milliseconds the time limit in milliseconds
+     */
+    public void setTimeLimit(long milliseconds)
+    {
+        this.timeLimit = milliseconds;
+    }
+
+    /**
+     * Sets how deep each search may go, no matter how much time is left.
+     * @param depth the maximum depth, from 1 to MAX_PLY
+     */
+    public void setMaxDepth(int depth)
+    {
+        this.maxDepth = Math.max(1, Math.min(MAX_PLY, depth));
+    }
+
+    /**
+     * Stops the search that is running, if there is one. The search returns the best move it has found so far.
+     */
+    public void stop()
+    {
+        stopCount.incrementAndGet();
+        stopped = true;
+    }
+
+    /**
+     * Gets how many times the search has been stopped, to pass to findMove() when the search is asked for on one thread
+     * and run on another.
+     * @return the number of calls to stop() so far
+     */
+    public int getStopCount()
+    {
+        return stopCount.get();
+    }
+
+    /**
+     * Determines if the last search was stopped before it finished.
+     * @return a boolean that is true if the time ran out or stop() was called
+     */
+    public boolean wasStopped()
+    {
+        return stopped;
+    }
+
+    /**
+     * Gets the number of positions the last search visited.
+     * @return the number of nodes
+     */
+    public long getNodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Gets the depth of the last iteration the last search finished.
+     * @return the depth in plies
+     */
+    public int getCompletedDepth()
+    {
+        return completedDepth;
+    }
+
+    /**
+     * Gets the score of the last iteration the last search finished.
+     * @return the score, from the point of view of the player who was searched for
+     */
+    public int getCompletedScore()
+    {
+        return completedScore;
+    }
+
+    /**
+     * Searches for the best move a player can make.
+     * @param board the board to search. It is not changed
+     * @param playerType the player to move
+     * @return the packed move, including which direction to roll in first, or Move.NONE if the player cannot move
+     */
+    public int findMove(Board board, char playerType)
+    {
+        BitBoard bits = board.toBitBoard();
+        bits.setSideToMove(playerType);
+        return findMove(bits);
+    }
+
+    /**
+     * Searches for the best move of the player whose turn it is.
+     * @param bits the bitboard to search, with the player to move set. It is used as scratch space, but is put back as
+     *             it was before this returns
+     * @return the packed move, including which direction to roll in first, or Move.NONE if the player cannot move
+     */
+    public int findMove(BitBoard bits)
+    {
+        return findMove(bits, stopCount.get());
+    }
+
+    /**
+     * Searches for the best move of the player whose turn it is, unless the search has been stopped since it was asked
+     * for. If it has, the first legal move is returned straight away.
+     * @param bits the bitboard to search, with the player to move set. It is used as scratch space, but is put back as
+     *             it was before this returns
+     * @param askedStopCount what getStopCount() returned when the search was asked for
+     * @return the packed move, including which direction to roll in first, or Move.NONE if the player cannot move
+     */
+    public int findMove(BitBoard bits, int askedStopCount)
+    {
+        searchStopCount = askedStopCount;
+        stopped = stopCount.get() != askedStopCount;
+        nodes = 0;
+        deadline = System.currentTimeMillis() + timeLimit;
+        completedDepth = 0;
+        completedScore = 0;
+        table.newSearch();
+        // Age the history scores so that the last turn's search counts for less.
+        for (int i = 0; i < history.length; i++) history[i] >>= 2;
+
+        // Make sure there is always a move to fall back on, even if the first iteration does not finish.
+        MoveGenerator.generateMoves(bits, bits.getSideToMove(), moves[0]);
+        if (moves[0].isEmpty()) return Move.NONE;
+        int bestMove = moves[0].get(0);
+
+        // Search one ply deeper each time, until the time runs out.
+        for (int depth = 1; depth <= maxDepth; depth++)
+        {
+            rootBestMove = Move.NONE;
+            int score = search(bits, depth, 0, -WIN, WIN);
+            // A stopped iteration is only trusted if it already found a move, as the last best move is searched first.
+            if (rootBestMove != Move.NONE) bestMove = rootBestMove;
+            if (stopped) break;
+            completedDepth = depth;
+            completedScore = score;
+            // There is no point in looking further once a forced win or loss has been found.
+            if (Math.abs(score) > WIN_BOUND) break;
+        }
+        return bestMove;
+    }
+
+    /**
+     * Searches a position with alpha-beta pruning.
+     * @param bits the position to search
+     * @param depth how many more plies to search
+     * @param ply how many plies from the root this position is
+     * @param alpha the score the player to move is already sure of
+     * @param beta the score the opponent is already sure of
+     * @return the score of the position from the point of view of the player to move
+     */
+    private int search(BitBoard bits, int depth, int ply, int alpha, int beta)
+    {
+        if (depth <= 0 || ply >= MAX_PLY) return quiesce(bits, ply, alpha, beta);
+        if ((++nodes & CHECK_INTERVAL) == 0) checkTime();
+        if (stopped) return 0;
+
+        long key = bits.getHash();
+        // A position that repeats on the current path is scored as a draw.
+        path[ply] = key;
+        for (int i = ply - 2; i >= 0; i -= 2)
+        {
+            if (path[i] == key) return 0;
+        }
+
+        // See if this position has already been searched deeply enough.
+        int tableMove = Move.NONE;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS)
+        {
+            tableMove = TranspositionTable.getMove(entry);
+            if (ply > 0 && TranspositionTable.getDepth(entry) >= depth)
+            {
+                int score = fromTable(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT) return score;
+                if (bound == TranspositionTable.BOUND_LOWER && score >= beta) return score;
+                if (bound == TranspositionTable.BOUND_UPPER && score <= alpha) return score;
+            }
+        }
+
+        char playerType = bits.getSideToMove();
+        int player = BitBoard.playerIndex(playerType);
+        MoveList list = moves[ply];
+        MoveGenerator.generateMoves(bits, playerType, list);
+        // A player with no moves left cannot make progress, so it counts as a draw.
+        if (list.isEmpty()) return 0;
+        // Take a win straight away if there is one.
+        for (int i = 0; i < list.size(); i++)
+        {
+            if (isWinningMove(bits, list.get(i), player))
+            {
+                if (ply == 0) rootBestMove = list.get(i);
+                return WIN - ply;
+            }
+        }
+        scoreMoves(bits, list, ply, player, tableMove);
+
+        int bestScore = -WIN;
+        int bestMove = Move.NONE;
+        int originalAlpha = alpha;
+        for (int i = 0; i < list.size(); i++)
+        {
+            int move = nextMove(list, ply, i);
+            int score;
+            int from = Move.dieSquare(move);
+            int to = Move.spaceSquare(move);
+            byte orientation = bits.getOrientation(from);
+            int captured = bits.isOccupied(to) ? bits.getOrientation(to) : -1;
+            makeMove(bits, move, orientation, playerType);
+            // The first move is searched with the full window, and the rest only need to prove they are no better.
+            if (i == 0)
+            {
+                score = -search(bits, depth - 1, ply + 1, -beta, -alpha);
+            }
+            else
+            {
+                score = -search(bits, depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) score = -search(bits, depth - 1, ply + 1, -beta, -alpha);
+            }
+            unmakeMove(bits, move, orientation, captured, playerType);
+            if (stopped) return 0;
+
+            if (score > bestScore)
+            {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) rootBestMove = move;
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta)
+            {
+                // Remember quiet moves that cause cutoffs so they are tried early elsewhere.
+                if (captured == -1) rememberCutoff(move, ply, player, depth);
+                break;
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches only captures until the position is quiet, so that a capture that is about to happen is not missed just
+     * because the depth ran out.
+     * @param bits the position to search
+     * @param ply how many plies from the root this position is
+     * @param alpha the score the player to move is already sure of
+     * @param beta the score the opponent is already sure of
+     * @return the score of the position from the point of view of the player to move
+     */
+    private int quiesce(BitBoard bits, int ply, int alpha, int beta)
+    {
+        if ((++nodes & CHECK_INTERVAL) == 0) checkTime();
+        if (stopped) return 0;
+
+        char playerType = bits.getSideToMove();
+        int player = BitBoard.playerIndex(playerType);
+        MoveList list = moves[Math.min(ply, MAX_PLY)];
+        MoveGenerator.generateMoves(bits, playerType, list);
+        // Take a win straight away if there is one.
+        for (int i = 0; i < list.size(); i++)
+        {
+            if (isWinningMove(bits, list.get(i), player)) return WIN - ply;
+        }
+
+        // The player can always choose not to capture, so the evaluation is a lower bound.
+        int bestScore = evaluate(bits, player);
+        if (bestScore >= beta || ply >= MAX_PLY) return bestScore;
+        if (bestScore > alpha) alpha = bestScore;
+
+        // Only keep the captures, in the order they were generated.
+        int count = 0;
+        for (int i = 0; i < list.size(); i++)
+        {
+            int move = list.get(i);
+            if (bits.isOccupied(Move.spaceSquare(move))) list.set(count++, move);
+        }
+        for (int i = 0; i < count; i++)
+        {
+            int move = list.get(i);
+            int from = Move.dieSquare(move);
+            int to = Move.spaceSquare(move);
+            byte orientation = bits.getOrientation(from);
+            int captured = bits.getOrientation(to);
+            makeMove(bits, move, orientation, playerType);
+            int score = -quiesce(bits, ply + 1, -beta, -alpha);
+            unmakeMove(bits, move, orientation, captured, playerType);
+            if (stopped) return 0;
+            if (score > bestScore) bestScore = score;
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+        return bestScore;
+    }
+
+    /**
+     * Scores a position without searching any further.
+     * @param bits the position to score
+     * @param player the index of the player to move
+     * @return the score of the position from the point of view of the player to move
+     */
+    private static int evaluate(BitBoard bits, int player)
+    {
+        return evaluateSide(bits, player) - evaluateSide(bits, 1 - player);
+    }
+
+    /**
+     * Scores one player's dice: how many they have left, and how close they are to the opponent's key space.
+     * @param bits the position to score
+     * @param player the index of the player whose dice are scored
+     * @return the score of the player's dice
+     */
+    private static int evaluateSide(BitBoard bits, int player)
+    {
+        int target = KEY_SPACE[1 - player];
+        int targetRow = target / BitBoard.COLUMNS;
+        int targetColumn = target % BitBoard.COLUMNS;
+        int score = 0;
+        for (long dice = bits.getLowWord(player); dice != 0; dice &= dice - 1)
+        {
+            score += scoreDie(bits, Long.numberOfTrailingZeros(dice), targetRow, targetColumn);
+        }
+        for (long dice = bits.getHighWord(player); dice != 0; dice &= dice - 1)
+        {
+            score += scoreDie(bits, 64 + Long.numberOfTrailingZeros(dice), targetRow, targetColumn);
+        }
+        return score;
+    }
+
+    /**
+     * Scores one die.
+     * @param bits the position the die is in
+     * @param square the square of the die
+     * @param targetRow the row of the opponent's key space, from 0
+     * @param targetColumn the column of the opponent's key space, from 0
+     * @return the score of the die
+     */
+    private static int scoreDie(BitBoard bits, int square, int targetRow, int targetColumn)
+    {
+        // The key die is never counted as material, since losing it ends the game.
+        if (bits.getOrientation(square) == Die.KEY_ORIENTATION) return 0;
+        int distance = Math.abs(square / BitBoard.COLUMNS - targetRow) + Math.abs(square % BitBoard.COLUMNS - targetColumn);
+        return DIE_VALUE + ADVANCE_VALUE * (BitBoard.ROWS + BitBoard.COLUMNS - distance);
+    }
+
+    /**
+     * Determines if a move wins the game straight away, by capturing the opponent's key die or landing on their key space.
+     * @param bits the position the move is made in
+     * @param move the packed move
+     * @param player the index of the player making the move
+     * @return a boolean that is true if the move wins
+     */
+    private static boolean isWinningMove(BitBoard bits, int move, int player)
+    {
+        int to = Move.spaceSquare(move);
+        return to == KEY_SPACE[1 - player] || bits.isKeyDie(to);
+    }
+
+    /**
+     * Gives every move in a list a score for how early it should be tried.
+     * @param bits the position the moves are made in
+     * @param list the moves
+     * @param ply the ply of the moves
+     * @param player the index of the player making the moves
+     * @param tableMove the best move from the transposition table, or Move.NONE
+     */
+    private void scoreMoves(BitBoard bits, MoveList list, int ply, int player, int tableMove)
+    {
+        if (orderScores[ply].length < list.size()) orderScores[ply] = new int[list.size() * 2];
+        int[] scores = orderScores[ply];
+        for (int i = 0; i < list.size(); i++)
+        {
+            int move = list.get(i);
+            if (move == tableMove) scores[i] = ORDER_TABLE_MOVE;
+            else if (bits.isOccupied(Move.spaceSquare(move))) scores[i] = ORDER_CAPTURE;
+            else if (move == killers[ply][0]) scores[i] = ORDER_KILLER + 1;
+            else if (move == killers[ply][1]) scores[i] = ORDER_KILLER;
+            else scores[i] = history[historyIndex(move, player)];
+        }
+    }
+
+    /**
+     * Moves the best scored move that has not been tried yet to the front of the untried moves.
+     * @param list the moves
+     * @param ply the ply of the moves
+     * @param index the position of the first untried move
+     * @return the move to try next
+     */
+    private int nextMove(MoveList list, int ply, int index)
+    {
+        int[] scores = orderScores[ply];
+        int best = index;
+        for (int i = index + 1; i < list.size(); i++)
+        {
+            if (scores[i] > scores[best]) best = i;
+        }
+        if (best != index)
+        {
+            list.swap(index, best);
+            int temp = scores[index];
+            scores[index] = scores[best];
+            scores[best] = temp;
+        }
+        return list.get(index);
+    }
+
+    /**
+     * Remembers a quiet move that caused a cutoff, in the killers of its ply and in the history table.
+     * @param move the packed move
+     * @param ply the ply it was made at
+     * @param player the index of the player who made it
+     * @param depth the depth that was left, so that cutoffs near the root count for more
+     */
+    private void rememberCutoff(int move, int ply, int player, int depth)
+    {
+        if (killers[ply][0] != move)
+        {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int index = historyIndex(move, player);
+        history[index] = Math.min(ORDER_KILLER - 1, history[index] + depth * depth);
+    }
+
+    /**
+     * Gets the position of a move in the history table.
+     * @param move the packed move
+     * @param player the index of the player making it
+     * @return the index of the move
+     */
+    private static int historyIndex(int move, int player)
+    {
+        return (player * BitBoard.SQUARES + Move.dieSquare(move)) * BitBoard.SQUARES + Move.spaceSquare(move);
+    }
+
+    /**
+     * Makes a move on the bitboard and hands the turn to the other player.
+     * @param bits the position to make the move in
+     * @param move the packed move
+     * @param orientation the orientation of the die before it moves
+     * @param playerType the player making the move
+     */
+    private static void makeMove(BitBoard bits, int move, byte orientation, char playerType)
+    {
+        bits.moveDie(Move.dieSquare(move), Move.spaceSquare(move), Board.rollAlong(orientation, move));
+        bits.setSideToMove(playerType == 'H' ? 'C' : 'H');
+    }
+
+    /**
+     * Takes back a move made with makeMove().
+     * @param bits the position the move was made in
+     * @param move the packed move
+     * @param orientation the orientation of the die before it moved
+     * @param captured the orientation of the die that was captured, or -1 if there was none
+     * @param playerType the player who made the move
+     */
+    private static void unmakeMove(BitBoard bits, int move, byte orientation, int captured, char playerType)
+    {
+        int to = Move.spaceSquare(move);
+        bits.moveDie(to, Move.dieSquare(move), orientation);
+        if (captured != -1) bits.placeDie(to, playerType == 'H' ? 'C' : 'H', (byte) captured);
+        bits.setSideToMove(playerType);
+    }
+
+    /**
+     * Stops the search if the time limit has passed, if stop() was called after the search was asked for, or if the
+     * thread searching was interrupted, as it is when the turn is cancelled or its executor is shut down.
+     */
+    private void checkTime()
+    {
+        if (System.currentTimeMillis() >= deadline || stopCount.get() != searchStopCount
+                || Thread.currentThread().isInterrupted()) stopped = true;
+    }
+
+    /**
+     * Converts a score to be stored in the table. Wins are stored as the distance from this position rather than from
+     * the root, so they stay correct when the position is reached at a different ply.
+     * @param score the score
+     * @param ply the ply of the position
+     * @return the score to store
+     */
+    private static int toTable(int score, int ply)
+    {
+        if (score > WIN_BOUND) return score + ply;
+        if (score < -WIN_BOUND) return score - ply;
+        return score;
+    }
+
+    /**
+     * Converts a score read from the table back to a score at a ply.
+     * @param score the stored score
+     * @param ply the ply of the position
+     * @return the score
+     */
+    private static int fromTable(int score, int ply)
+    {
+        if (score > WIN_BOUND) return score - ply;
+        if (score < -WIN_BOUND) return score + ply;
+        return score;
+    }
+}
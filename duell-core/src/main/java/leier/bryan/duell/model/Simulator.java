@@ -0,0 +1,264 @@
+package leier.bryan.duell.model;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.Random;
+
+/**
+ * Plays computer against computer games of Duell without any Android classes, so strategies can be compared on a plain
+ * JVM. Each game starts from Board.newGameSetUp(), the first player is decided by a die toss like in Game, and the game
+ * ends as soon as Board.checkWinCondition() finds a winner.
+ *
+ * Every game gets its own seeds from the simulator's seed, so a run of games can be played again exactly as long as the
+ * computers are not limited by time (heuristic play, or a search with a maximum depth or number of playouts).
+ */
+
+public class Simulator {
+    // The most turns a game may last before it is called a draw.
+    public static final int DEFAULT_MAX_TURNS = 400;
+
+    // The computer playing the human's dice, and the computer playing the computer's dice.
+    private final Computer humanSide;
+    private final Computer computerSide;
+    // The random numbers the seed of each game and the first player toss come from.
+    private final Random random;
+    // The most turns a game may last before it is called a draw.
+    private int maxTurns = DEFAULT_MAX_TURNS;
+    // How many turns the last game lasted.
+    private int lastGameTurns = 0;
+    // How long each side spent choosing its moves in the last game, in nanoseconds, and how many moves it made.
+    private final long[] lastGameThinkNanos = new long[2];
+    private final int[] lastGameMoves = new int[2];
+    // Whether each game's moves are recorded.
+    private boolean recording = false;
+    // The record of the last game, or null if games are not being recorded.
+    private GameRecord lastGameRecord;
+
+    /**
+     * Constructor for a simulator.
+     * @param humanSide the computer that plays the human's dice. It must have been created with Computer('H')
+     * @param computerSide the computer that plays the computer's dice
+     * @param seed the seed all of the games are played from
+     */
+    public Simulator(Computer humanSide, Computer computerSide, long seed)
+    {
+        this.humanSide = humanSide;
+        this.computerSide = computerSide;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Sets the most turns a game may last before it is called a draw.
+     * @param maxTurns the number of turns, counting both players
+     */
+    public void setMaxTurns(int maxTurns)
+    {
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Gets how many turns the last game lasted.
+     * @return the number of turns, counting both players
+     */
+    public int getLastGameTurns()
+    {
+        return lastGameTurns;
+    }
+
+    /**
+     * Gets how long one side spent choosing its moves in the last game.
+     * @param playerType H or C
+     * @return the time in nanoseconds
+     */
+    public long getLastGameThinkNanos(char playerType)
+    {
+        return lastGameThinkNanos[BitBoard.playerIndex(playerType)];
+    }
+
+    /**
+     * Gets how many moves one side made in the last game.
+     * @param playerType H or C
+     * @return the number of moves
+     */
+    public int getLastGameMoves(char playerType)
+    {
+        return lastGameMoves[BitBoard.playerIndex(playerType)];
+    }
+
+    /**
+     * Sets whether each game is recorded, so it can be written out with GameRecordWriter.
+     * @param recording true to record each game
+     */
+    public void setRecording(boolean recording)
+    {
+        this.recording = recording;
+    }
+
+    /**
+     * Gets the record of the last game.
+     * @return the record, or null if games are not being recorded
+     */
+    public GameRecord getLastGameRecord()
+    {
+        return lastGameRecord;
+    }
+
+    /**
+     * Plays one game.
+     * @return the result of Board.checkWinCondition() for the winning move, or 0 if the game was a draw
+     */
+    public int playGame()
+    {
+        Board board = new Board();
+        board.newGameSetUp();
+        humanSide.setSeed(random.nextLong());
+        computerSide.setSeed(random.nextLong());
+
+        // Toss a die for each player until one of them rolls higher, like Game.determineFirstMove().
+        int humanToss, computerToss;
+        do
+        {
+            humanToss = random.nextInt(6) + 1;
+            computerToss = random.nextInt(6) + 1;
+        } while (humanToss == computerToss);
+        return play(board, humanToss > computerToss ? 'H' : 'C');
+    }
+
+    /**
+     * Plays one game on from a position, such as one a few moves into a game, instead of from a new game.
+     * @param start the board to play on from. It is copied, so it is not changed
+     * @param firstPlayer the player who moves first, H or C
+     * @return the result of Board.checkWinCondition() for the winning move, or 0 if the game was a draw
+     */
+    public int playGame(Board start, char firstPlayer)
+    {
+        Board board = new Board(start.toBitBoard());
+        humanSide.setSeed(random.nextLong());
+        computerSide.setSeed(random.nextLong());
+        return play(board, firstPlayer);
+    }
+
+    /**
+     * Plays a game until it is won or runs out of turns.
+     * @param board the board to play on
+     * @param current the player who moves first, H or C
+     * @return the result of Board.checkWinCondition() for the winning move, or 0 if the game was a draw
+     */
+    private int play(Board board, char current)
+    {
+        java.util.Arrays.fill(lastGameThinkNanos, 0);
+        java.util.Arrays.fill(lastGameMoves, 0);
+        lastGameRecord = recording ? new GameRecord(board, current) : null;
+        if (lastGameRecord != null)
+        {
+            lastGameRecord.setTag("Human", humanSide.getStrategy());
+            lastGameRecord.setTag("Computer", computerSide.getStrategy());
+        }
+
+        for (lastGameTurns = 0; lastGameTurns < maxTurns; lastGameTurns++)
+        {
+            board.setSideToMove(current);
+            Computer player = current == 'H' ? humanSide : computerSide;
+            int side = BitBoard.playerIndex(current);
+            long start = System.nanoTime();
+            int move = player.chooseMove(board);
+            lastGameThinkNanos[side] += System.nanoTime() - start;
+            // A player who cannot move ends the game without a winner.
+            if (move == Move.NONE) return endGame(GameRecord.DRAW);
+            lastGameMoves[side]++;
+            player.makeMove(board, move);
+            if (lastGameRecord != null) lastGameRecord.addMove(move, player.getChosenStrategy());
+            int winCondition = board.checkWinCondition();
+            if (winCondition != 0)
+            {
+                lastGameTurns++;
+                return endGame(winCondition);
+            }
+            current = current == 'H' ? 'C' : 'H';
+        }
+        return endGame(GameRecord.DRAW);
+    }
+
+    /**
+     * Records how the last game ended.
+     * @param winCondition the result of Board.checkWinCondition() for the winning move, or 0 for a draw
+     * @return the same result, to be returned from playGame()
+     */
+    private int endGame(int winCondition)
+    {
+        if (lastGameRecord != null) lastGameRecord.setResult(winCondition);
+        return winCondition;
+    }
+
+    /**
+     * Plays a number of games.
+     * @param games the number of games to play
+     * @return how many games ended with each result of Board.checkWinCondition(), indexed by that result. Index 0 is
+     * the number of draws
+     */
+    public int[] playGames(int games)
+    {
+        int[] results = new int[5];
+        for (int i = 0; i < games; i++)
+        {
+            results[playGame()]++;
+        }
+        return results;
+    }
+
+    /**
+     * Plays games between two strategies from the command line and prints how each side won.
+     * @param args the number of games, the strategy of the human's dice, the strategy of the computer's dice, the seed,
+     *             the time limit per move in milliseconds, and a file to write the record of every game to.
+     *             Everything after the number of games is optional
+     * @throws IOException if the records could not be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String humanStrategy = args.length > 1 ? args[1] : Computer.STRATEGY_HEURISTIC;
+        String computerStrategy = args.length > 2 ? args[2] : Computer.STRATEGY_HEURISTIC;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        long timeLimit = args.length > 4 ? Long.parseLong(args[4]) : Computer.DEFAULT_TIME_LIMIT;
+        String recordFile = args.length > 5 ? args[5] : null;
+
+        Computer humanSide = new Computer('H');
+        humanSide.setStrategy(humanStrategy);
+        humanSide.setTimeLimit(timeLimit);
+        Computer computerSide = new Computer('C');
+        computerSide.setStrategy(computerStrategy);
+        computerSide.setTimeLimit(timeLimit);
+
+        long start = System.currentTimeMillis();
+        Simulator simulator = new Simulator(humanSide, computerSide, seed);
+        int[] results;
+        if (recordFile == null) results = simulator.playGames(games);
+        else
+        {
+            // Write each game out as soon as it ends, so the records never have to fit in memory.
+            results = new int[5];
+            simulator.setRecording(true);
+            GameRecordWriter writer = new GameRecordWriter(new OutputStreamWriter(new FileOutputStream(recordFile), "UTF-8"));
+            try
+            {
+                for (int i = 0; i < games; i++)
+                {
+                    results[simulator.playGame()]++;
+                    writer.write(simulator.getLastGameRecord());
+                }
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+        System.out.println(games + " games, H = " + humanStrategy + ", C = " + computerStrategy + ", seed " + seed);
+        System.out.println("H wins: " + (results[1] + results[3]) + " (key space " + results[1] + ", key die " + results[3] + ")");
+        System.out.println("C wins: " + (results[2] + results[4]) + " (key space " + results[2] + ", key die " + results[4] + ")");
+        System.out.println("Draws: " + results[0]);
+        System.out.println("Games per minute: " + games * 60000L / elapsed);
+    }
+}
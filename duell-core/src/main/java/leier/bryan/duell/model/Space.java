@@ -74,6 +74,16 @@ public class Space {
         hasDie = false;
     }
 
+    /**
+     * Gets the die on the space.
+     * @return the die on the space, or null if the space is empty
+     */
+    public Die getDie()
+    {
+        if (hasDie) return dieOnSpace;
+        return null;
+    }
+
     /**
      * Gets the top number of the die on the space.
      * @return the top number of the die on the space
@@ -101,6 +111,15 @@ public class Space {
         return dieOnSpace.getLeftNum();
     }
 
+    /**
+     * Gets the orientation of the die on the space.
+     * @return the orientation of the die on the space
+     */
+    public byte getDieOrientation()
+    {
+        return dieOnSpace.getOrientation();
+    }
+
     /**
      * Gets the player type of the die on the space.
      * @return the player type of the die on the space
@@ -0,0 +1,208 @@
+package leier.bryan.duell.model;
+
+import java.util.Locale;
+
+/**
+ * Statistics over the games of a batch tournament between strategies A and B. Draws count as half a win for each, and the
+ * score of strategy A is given with a 95% Wilson interval, along with the difference in Elo rating that score implies.
+ */
+
+public class TournamentSummary {
+    // The z value of a 95% confidence interval.
+    private static final double Z = 1.96;
+
+    // The names of the two strategies.
+    private final String strategyA;
+    private final String strategyB;
+    // The number of games, and how many each strategy won.
+    private final int games;
+    private final int[] wins = new int[2];
+    private int draws;
+    // How many of each strategy's wins came from landing on the key space.
+    private final int[] keySpaceWins = new int[2];
+    // How many games each side won, indexed by HUMAN or COMPUTER.
+    private final int[] sideWins = new int[2];
+    // The mean and variance of the number of moves in a game.
+    private double meanPlies;
+    private double pliesVariance;
+    // The total time each strategy spent choosing moves, in nanoseconds, and the number of moves it made.
+    private final long[] thinkNanos = new long[2];
+    private final long[] moves = new long[2];
+    // How long the tournament took to play, in milliseconds.
+    private final long elapsedMillis;
+
+    /**
+     * Constructor that adds up the results of every game.
+     * @param strategyA the name of strategy A
+     * @param strategyB the name of strategy B
+     * @param results the result of each game
+     * @param elapsedMillis how long the tournament took to play, in milliseconds
+     */
+    public TournamentSummary(String strategyA, String strategyB, GameResult[] results, long elapsedMillis)
+    {
+        this.strategyA = strategyA;
+        this.strategyB = strategyB;
+        this.games = results.length;
+        this.elapsedMillis = elapsedMillis;
+        double pliesSum = 0;
+        double pliesSquares = 0;
+        for (int i = 0; i < results.length; i++)
+        {
+            GameResult result = results[i];
+            int winner = result.getWinningStrategy();
+            if (winner == -1)
+            {
+                draws++;
+            }
+            else
+            {
+                wins[winner]++;
+                if (result.isKeySpaceWin()) keySpaceWins[winner]++;
+                sideWins[BitBoard.playerIndex(result.getWinningSide())]++;
+            }
+            pliesSum += result.getPlies();
+            pliesSquares += (double) result.getPlies() * result.getPlies();
+            for (int strategy = 0; strategy < 2; strategy++)
+            {
+                thinkNanos[strategy] += result.getThinkNanos(strategy);
+                moves[strategy] += result.getMoves(strategy);
+            }
+        }
+        if (games > 0)
+        {
+            meanPlies = pliesSum / games;
+            pliesVariance = games > 1 ? (pliesSquares - games * meanPlies * meanPlies) / (games - 1) : 0;
+        }
+    }
+
+    /**
+     * Gets the number of games played.
+     * @return games of the TournamentSummary
+     */
+    public int getGames()
+    {
+        return games;
+    }
+
+    /**
+     * Gets how many games a strategy won.
+     * @param strategy 0 for strategy A, 1 for strategy B
+     * @return the number of wins
+     */
+    public int getWins(int strategy)
+    {
+        return wins[strategy];
+    }
+
+    /**
+     * Gets how many games were drawn.
+     * @return draws of the TournamentSummary
+     */
+    public int getDraws()
+    {
+        return draws;
+    }
+
+    /**
+     * Gets the score of strategy A, where a win is worth 1 and a draw is worth 1/2.
+     * @return the score from 0 to 1
+     */
+    public double getScore()
+    {
+        if (games == 0) return 0.5;
+        return (wins[0] + 0.5 * draws) / games;
+    }
+
+    /**
+     * Gets the lower end of the 95% Wilson interval of strategy A's score.
+     * @return the lower bound of the score
+     */
+    public double getScoreLower()
+    {
+        return wilson(-1);
+    }
+
+    /**
+     * Gets the upper end of the 95% Wilson interval of strategy A's score.
+     * @return the upper bound of the score
+     */
+    public double getScoreUpper()
+    {
+        return wilson(1);
+    }
+
+    /**
+     * Gets the mean time a strategy spent choosing each move.
+     * @param strategy 0 for strategy A, 1 for strategy B
+     * @return the time in milliseconds
+     */
+    public double getMillisPerMove(int strategy)
+    {
+        if (moves[strategy] == 0) return 0;
+        return thinkNanos[strategy] / 1e6 / moves[strategy];
+    }
+
+    /**
+     * Gets the mean number of moves in a game.
+     * @return the mean, counting both players
+     */
+    public double getMeanPlies()
+    {
+        return meanPlies;
+    }
+
+    /**
+     * Writes the statistics as a few lines of text.
+     * @return the summary
+     */
+    @Override
+    public String toString()
+    {
+        double pliesMargin = games > 0 ? Z * Math.sqrt(pliesVariance / games) : 0;
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.US, "%d games of %s (A) against %s (B) in %.1f s%n", games, strategyA,
+                strategyB, elapsedMillis / 1000.0));
+        summary.append(String.format(Locale.US, "A wins: %d (key space %d, key die %d)%n", wins[0], keySpaceWins[0],
+                wins[0] - keySpaceWins[0]));
+        summary.append(String.format(Locale.US, "B wins: %d (key space %d, key die %d)%n", wins[1], keySpaceWins[1],
+                wins[1] - keySpaceWins[1]));
+        summary.append(String.format(Locale.US, "Draws: %d%n", draws));
+        summary.append(String.format(Locale.US, "Human side wins: %d, computer side wins: %d%n",
+                sideWins[BitBoard.HUMAN], sideWins[BitBoard.COMPUTER]));
+        summary.append(String.format(Locale.US, "Score of A: %.3f (95%% CI %.3f to %.3f)%n", getScore(), getScoreLower(),
+                getScoreUpper()));
+        summary.append(String.format(Locale.US, "Elo difference: %s (95%% CI %s to %s)%n", elo(getScore()),
+                elo(getScoreLower()), elo(getScoreUpper())));
+        summary.append(String.format(Locale.US, "Moves per game: %.1f +/- %.1f%n", meanPlies, pliesMargin));
+        summary.append(String.format(Locale.US, "Time per move: A %.2f ms, B %.2f ms", getMillisPerMove(0),
+                getMillisPerMove(1)));
+        return summary.toString();
+    }
+
+    /**
+     * Works out one end of the Wilson interval of strategy A's score.
+     * @param sign -1 for the lower end, 1 for the upper end
+     * @return the end of the interval
+     */
+    private double wilson(int sign)
+    {
+        if (games == 0) return sign < 0 ? 0 : 1;
+        double p = getScore();
+        double z2 = Z * Z;
+        double center = p + z2 / (2 * games);
+        double margin = Z * Math.sqrt(p * (1 - p) / games + z2 / (4.0 * games * games));
+        return (center + sign * margin) / (1 + z2 / games);
+    }
+
+    /**
+     * Converts a score into the difference in Elo rating it implies.
+     * @param score the score from 0 to 1
+     * @return the difference, or +inf or -inf at the ends
+     */
+    private static String elo(double score)
+    {
+        if (score <= 0) return "-inf";
+        if (score >= 1) return "+inf";
+        return String.format(Locale.US, "%+.0f", -400 * Math.log10(1 / score - 1));
+    }
+}
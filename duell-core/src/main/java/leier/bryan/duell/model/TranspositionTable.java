@@ -0,0 +1,203 @@
+package leier.bryan.duell.model;
+
+/**
+ * A fixed-size cache of search results, keyed by the Zobrist key of a position. Each entry is two longs: the entry's data
+ * XORed with the position's key, then the data itself. An entry only counts as a hit if XORing the two gives back the key
+ * being looked up, so an entry that was half written by another thread is simply treated as a miss and no locking is
+ * needed.
+ *
+ * Entries are kept in buckets of two. The first slot keeps the deepest result for its bucket, unless that result is from
+ * an older search, and the second slot always takes the newest result.
+ *
+ * The data of an entry is packed as follows:
+ *   bits 0-15   best move (a packed move, or Move.NONE)
+ *   bits 16-31  score, as a signed 16-bit number
+ *   bits 32-39  depth searched
+ *   bits 40-41  bound type (BOUND_UPPER, BOUND_LOWER or BOUND_EXACT, never 0)
+ *   bits 48-55  age of the search that stored it
+ */
+
+public class TranspositionTable {
+    // The bound types of a stored score.
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+    // Returned by probe() when the position is not in the table. Real entries never have a bound of 0, so never equal this.
+    public static final long MISS = 0;
+    // The number of longs used by each bucket: two entries of two longs.
+    private static final int BUCKET_LONGS = 4;
+    // The largest score that fits in an entry.
+    public static final int MAX_SCORE = Short.MAX_VALUE;
+
+    // The buckets of the table.
+    private long[] table;
+    // The mask that turns a key into a bucket number.
+    private int bucketMask;
+    // The age of the current search, used so that old results are replaced first.
+    private int age = 0;
+
+    /**
+     * Constructor that sets the amount of memory the table may use.
+     * @param megabytes the size of the table in MB, at least 1
+     */
+    public TranspositionTable(int megabytes)
+    {
+        resize(megabytes);
+    }
+
+    /**
+     * Changes the size of the table, throwing away everything in it.
+     * @param megabytes the size of the table in MB, at least 1
+     */
+    public void resize(int megabytes)
+    {
+        // Round the number of buckets down to a power of two so a key can be masked instead of divided.
+        long buckets = Math.max(1, megabytes) * 1024L * 1024L / (BUCKET_LONGS * 8);
+        int bucketCount = Integer.highestOneBit((int) Math.min(buckets, 1 << 26));
+        table = new long[bucketCount * BUCKET_LONGS];
+        bucketMask = bucketCount - 1;
+        age = 0;
+    }
+
+    /**
+     * Throws away everything in the table.
+     */
+    public void clear()
+    {
+        java.util.Arrays.fill(table, 0);
+        age = 0;
+    }
+
+    /**
+     * Marks the start of a new search, so that results from earlier searches are replaced before newer ones.
+     */
+    public void newSearch()
+    {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Gets the size of the table.
+     * @return the number of entries the table can hold
+     */
+    public int getCapacity()
+    {
+        return table.length / 2;
+    }
+
+    /**
+     * Looks up a position.
+     * @param key the Zobrist key of the position
+     * @return the data of the entry, to be read with getMove(), getScore(), getDepth() and getBound(), or MISS
+     */
+    public long probe(long key)
+    {
+        long[] table = this.table;
+        int bucket = ((int) key & bucketMask) * BUCKET_LONGS;
+        // Check both slots of the bucket.
+        for (int slot = bucket; slot < bucket + BUCKET_LONGS; slot += 2)
+        {
+            long data = table[slot + 1];
+            if ((table[slot] ^ data) == key && data != MISS) return data;
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the result of searching a position.
+     * @param key the Zobrist key of the position
+     * @param move the best move found, or Move.NONE if there is none
+     * @param score the score of the position
+     * @param depth the depth the position was searched to
+     * @param bound BOUND_UPPER, BOUND_LOWER or BOUND_EXACT
+     */
+    public void store(long key, int move, int score, int depth, int bound)
+    {
+        long[] table = this.table;
+        int bucket = ((int) key & bucketMask) * BUCKET_LONGS;
+        int slot = bucket + 2;
+        long old = table[bucket + 1];
+        // The first slot is replaced if it holds this position, an older search's result, or a shallower result.
+        if ((table[bucket] ^ old) == key || old == MISS || ageOf(old) != age || getDepth(old) <= depth)
+        {
+            slot = bucket;
+        }
+        // Keep the old best move if there is no new one for the same position.
+        long previous = table[slot + 1];
+        if (move == Move.NONE && (table[slot] ^ previous) == key) move = getMove(previous);
+
+        long data = pack(move, score, depth, bound, age);
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+    }
+
+    /**
+     * Gets the best move of an entry.
+     * @param data the data returned by probe()
+     * @return the packed move, or Move.NONE
+     */
+    public static int getMove(long data)
+    {
+        return (int) (data & 0xFFFF);
+    }
+
+    /**
+     * Gets the score of an entry.
+     * @param data the data returned by probe()
+     * @return the score
+     */
+    public static int getScore(long data)
+    {
+        return (short) (data >>> 16);
+    }
+
+    /**
+     * Gets the depth of an entry.
+     * @param data the data returned by probe()
+     * @return the depth the position was searched to
+     */
+    public static int getDepth(long data)
+    {
+        return (int) ((data >>> 32) & 0xFF);
+    }
+
+    /**
+     * Gets the bound type of an entry.
+     * @param data the data returned by probe()
+     * @return BOUND_UPPER, BOUND_LOWER or BOUND_EXACT
+     */
+    public static int getBound(long data)
+    {
+        return (int) ((data >>> 40) & 0x3);
+    }
+
+    /**
+     * Gets the age of the search that stored an entry.
+     * @param data the data returned by probe()
+     * @return the age
+     */
+    private static int ageOf(long data)
+    {
+        return (int) ((data >>> 48) & 0xFF);
+    }
+
+    /**
+     * Packs the fields of an entry into a long.
+     * @param move the best move
+     * @param score the score, clamped to fit in 16 bits
+     * @param depth the depth, clamped to fit in 8 bits
+     * @param bound the bound type
+     * @param age the age of the search
+     * @return the data of the entry
+     */
+    private static long pack(int move, int score, int depth, int bound, int age)
+    {
+        score = Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+        depth = Math.max(0, Math.min(0xFF, depth));
+        return (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) depth << 32)
+                | ((long) bound << 40)
+                | ((long) age << 48);
+    }
+}
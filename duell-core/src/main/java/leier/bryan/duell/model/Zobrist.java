@@ -0,0 +1,72 @@
+package leier.bryan.duell.model;
+
+/**
+ * Zobrist keys for Duell positions. Every (square, player, die orientation) combination has its own random 64-bit key,
+ * and the key of a position is the XOR of the keys of every die on the board, plus one more key if the computer is the
+ * next to move. Because XOR undoes itself, a board can keep its key up to date as dice are placed and removed.
+ *
+ * The keys come from a fixed seed, so the same position always has the same key. Anything stored by key (opening books,
+ * saved positions) stays valid between runs.
+ */
+
+public class Zobrist {
+    // The key added when the computer is the next player to move.
+    public static final long SIDE_TO_MOVE;
+    // The key of each die, indexed by (square * 2 + player) * 25 + orientation.
+    private static final long[] DIE_KEYS = new long[BitBoard.SQUARES * 2 * (Die.ORIENTATIONS + 1)];
+
+    static
+    {
+        long seed = 0x44756E656C6CL;
+        for (int i = 0; i < DIE_KEYS.length; i++)
+        {
+            seed += 0x9E3779B97F4A7C15L;
+            DIE_KEYS[i] = mix(seed);
+        }
+        seed += 0x9E3779B97F4A7C15L;
+        SIDE_TO_MOVE = mix(seed);
+    }
+
+    /**
+     * Gets the key of a die on a square.
+     * @param square the square the die is on
+     * @param player HUMAN or COMPUTER
+     * @param orientation the orientation of the die
+     * @return the key of the die
+     */
+    public static long dieKey(int square, int player, int orientation)
+    {
+        return DIE_KEYS[((square << 1) | player) * (Die.ORIENTATIONS + 1) + orientation];
+    }
+
+    /**
+     * Computes the key of a position from scratch. Boards keep their key up to date as they change, so this is only
+     * needed to check that key.
+     * @param bits the bitboard of the position
+     * @return the key of the position
+     */
+    public static long hash(BitBoard bits)
+    {
+        long hash = bits.getSideToMove() == 'C' ? SIDE_TO_MOVE : 0;
+        for (int square = 0; square < BitBoard.SQUARES; square++)
+        {
+            if (bits.isOccupied(square))
+            {
+                hash ^= dieKey(square, BitBoard.playerIndex(bits.getPlayerType(square)), bits.getOrientation(square));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Scrambles a number into a random-looking key (the SplitMix64 finalizer).
+     * @param z the number to scramble
+     * @return the scrambled number
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
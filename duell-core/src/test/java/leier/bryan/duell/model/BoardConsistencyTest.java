@@ -0,0 +1,292 @@
+package leier.bryan.duell.model;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Plays seeded random games and checks that what the board keeps up to date one move at a time agrees with working it
+ * out again from scratch: the generated moves, taking moves back, the Zobrist key, the key dice and the attack map.
+ */
+public class BoardConsistencyTest {
+    // How many games are played, and how many plies each may last.
+    private static final int GAMES = 40;
+    private static final int MAX_PLIES = 120;
+
+    @Test
+    public void pathMasks_coverTheSquaresRolledOver() {
+        for (int dieSquare = 0; dieSquare < BitBoard.SQUARES; dieSquare++) {
+            for (int spaceSquare = 0; spaceSquare < BitBoard.SQUARES; spaceSquare++) {
+                if (dieSquare == spaceSquare) continue;
+                for (int way = 0; way < 2; way++) {
+                    boolean frontalFirst = way == 0;
+                    long[] path = rollOver(dieSquare, spaceSquare, frontalFirst);
+                    assertEquals(path[0], PathMasks.low(dieSquare, spaceSquare, frontalFirst));
+                    assertEquals(path[1], PathMasks.high(dieSquare, spaceSquare, frontalFirst));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void generatedMoves_matchCanMoveToSpace() {
+        Computer player = new Computer('C');
+        Random random = new Random(1);
+        MoveList moves = new MoveList();
+        for (int game = 0; game < GAMES; game++) {
+            Board board = startGame(random);
+            for (int ply = 0; ply < MAX_PLIES && board.checkWinCondition() == 0; ply++) {
+                BitBoard bits = board.getBitBoard();
+                for (int side = 0; side < 2; side++) {
+                    char playerType = BitBoard.playerType(side);
+                    MoveGenerator.generateMoves(bits, playerType, moves);
+                    // Every generated move has to roll over empty squares only, and is only generated once.
+                    for (int i = 0; i < moves.size(); i++) {
+                        int move = moves.get(i);
+                        assertTrue(bits.isPlayerType(Move.dieSquare(move), playerType));
+                        assertEquals(0, occupied(bits, rollOver(Move.dieSquare(move), Move.spaceSquare(move),
+                                Move.isFrontalFirst(move))));
+                        for (int j = 0; j < i; j++) assertTrue(moves.get(j) != move);
+                    }
+                    // And the generator has to find every move the player's own check allows, and no others.
+                    for (int dieSquare = 0; dieSquare < BitBoard.SQUARES; dieSquare++) {
+                        if (!bits.isPlayerType(dieSquare, playerType)) continue;
+                        for (int spaceSquare = 0; spaceSquare < BitBoard.SQUARES; spaceSquare++) {
+                            boolean generated = moves.contains(Move.encode(dieSquare, spaceSquare, true))
+                                    || moves.contains(Move.encode(dieSquare, spaceSquare, false));
+                            assertEquals(generated, player.canMoveToSpace(board, BitBoard.rowOf(dieSquare),
+                                    BitBoard.columnOf(dieSquare), BitBoard.rowOf(spaceSquare),
+                                    BitBoard.columnOf(spaceSquare), playerType));
+                        }
+                    }
+                }
+                if (!playRandomMove(board, random)) break;
+            }
+        }
+    }
+
+    @Test
+    public void undoMove_putsTheBoardBackExactly() {
+        Random random = new Random(2);
+        MoveList moves = new MoveList();
+        MoveUndo undo = new MoveUndo();
+        for (int game = 0; game < GAMES; game++) {
+            Board board = startGame(random);
+            for (int ply = 0; ply < MAX_PLIES && board.checkWinCondition() == 0; ply++) {
+                // Make and take back every move of the position.
+                MoveGenerator.generateMoves(board.getBitBoard(), board.getSideToMove(), moves);
+                String before = snapshot(board);
+                long key = board.getHash();
+                for (int i = 0; i < moves.size(); i++) {
+                    board.applyMove(moves.get(i), undo);
+                    board.undoMove(undo);
+                    assertEquals(before, snapshot(board));
+                    assertEquals(key, board.getHash());
+                }
+                if (!playRandomMove(board, random)) break;
+            }
+        }
+    }
+
+    @Test
+    public void incrementalKeyAndKeyDice_matchTheBoard() {
+        Random random = new Random(3);
+        MoveList moves = new MoveList();
+        MoveUndo undo = new MoveUndo();
+        for (int game = 0; game < GAMES; game++) {
+            Board board = startGame(random);
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                BitBoard bits = board.getBitBoard();
+                assertEquals(Zobrist.hash(bits), bits.getHash());
+                assertEquals(findKeyDie(bits, 'H'), bits.findKeyDie('H'));
+                assertEquals(findKeyDie(bits, 'C'), bits.findKeyDie('C'));
+                assertEquals(winConditionOf(bits), bits.getWinCondition());
+                if (bits.getWinCondition() != 0) break;
+                // Check the key after each move of the position too, including the captures.
+                MoveGenerator.generateMoves(bits, board.getSideToMove(), moves);
+                for (int i = 0; i < moves.size(); i++) {
+                    board.applyMove(moves.get(i), undo);
+                    assertEquals(Zobrist.hash(bits), bits.getHash());
+                    assertEquals(winConditionOf(bits), bits.getWinCondition());
+                    board.undoMove(undo);
+                }
+                if (!playRandomMove(board, random)) break;
+            }
+        }
+    }
+
+    @Test
+    public void updatedAttackMap_matchesARebuiltOne() {
+        Random random = new Random(4);
+        MoveList moves = new MoveList();
+        MoveUndo undo = new MoveUndo();
+        for (int game = 0; game < GAMES; game++) {
+            Board board = startGame(random);
+            // Build the map now, so every move after this updates it rather than building it again.
+            board.getAttackMap();
+            for (int ply = 0; ply < MAX_PLIES && board.checkWinCondition() == 0; ply++) {
+                assertSameAttacks(board);
+                MoveGenerator.generateMoves(board.getBitBoard(), board.getSideToMove(), moves);
+                if (moves.isEmpty()) break;
+                // Try a move and take it back, then play one.
+                board.applyMove(moves.get(random.nextInt(moves.size())), undo);
+                assertSameAttacks(board);
+                board.undoMove(undo);
+                assertSameAttacks(board);
+                board.applyMove(moves.get(random.nextInt(moves.size())), null);
+            }
+        }
+    }
+
+    @Test
+    public void transpositionTable_returnsWhatWasStored() {
+        TranspositionTable table = new TranspositionTable(1);
+        Random random = new Random(5);
+        // Keys that differ in their low bits land in their own buckets, so every one can be found again.
+        long[] keys = new long[1000];
+        int[][] entries = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) random.nextInt() << 32) | i;
+            int move = Move.encode(random.nextInt(BitBoard.SQUARES), random.nextInt(BitBoard.SQUARES),
+                    random.nextBoolean());
+            int score = random.nextInt(2 * TranspositionTable.MAX_SCORE) - TranspositionTable.MAX_SCORE;
+            entries[i] = new int[] {move, score, random.nextInt(64), 1 + random.nextInt(3)};
+            table.store(keys[i], entries[i][0], entries[i][1], entries[i][2], entries[i][3]);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            long data = table.probe(keys[i]);
+            assertTrue(data != TranspositionTable.MISS);
+            assertEquals(entries[i][0], TranspositionTable.getMove(data));
+            assertEquals(entries[i][1], TranspositionTable.getScore(data));
+            assertEquals(entries[i][2], TranspositionTable.getDepth(data));
+            assertEquals(entries[i][3], TranspositionTable.getBound(data));
+            // A key that only shares the bucket is not mistaken for the one stored.
+            assertEquals(TranspositionTable.MISS, table.probe(keys[i] ^ (1L << 62)));
+        }
+
+        // Storing a result without a move keeps the best move already known for the position.
+        table.store(keys[0], Move.NONE, 7, entries[0][2] + 1, TranspositionTable.BOUND_EXACT);
+        long data = table.probe(keys[0]);
+        assertEquals(entries[0][0], TranspositionTable.getMove(data));
+        assertEquals(7, TranspositionTable.getScore(data));
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(keys[0]));
+    }
+
+    /**
+     * Sets up a new game with a random player to move.
+     */
+    private static Board startGame(Random random) {
+        Board board = new Board();
+        board.newGameSetUp();
+        board.setSideToMove(random.nextBoolean() ? 'H' : 'C');
+        return board;
+    }
+
+    /**
+     * Plays a random move for the player to move.
+     * @return false if the player had no move
+     */
+    private static boolean playRandomMove(Board board, Random random) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateMoves(board.getBitBoard(), board.getSideToMove(), moves);
+        if (moves.isEmpty()) return false;
+        board.applyMove(moves.get(random.nextInt(moves.size())), null);
+        return true;
+    }
+
+    /**
+     * Rolls a die from one square to another one square at a time, the way the rules describe it.
+     * @return the low and high words of the squares rolled over, not counting either end
+     */
+    private static long[] rollOver(int dieSquare, int spaceSquare, boolean frontalFirst) {
+        long[] path = new long[2];
+        int row = dieSquare / BitBoard.COLUMNS;
+        int column = dieSquare % BitBoard.COLUMNS;
+        int spaceRow = spaceSquare / BitBoard.COLUMNS;
+        int spaceColumn = spaceSquare % BitBoard.COLUMNS;
+        for (int leg = 0; leg < 2; leg++) {
+            boolean frontal = (leg == 0) == frontalFirst;
+            while (frontal ? row != spaceRow : column != spaceColumn) {
+                if (frontal) row += Integer.signum(spaceRow - row);
+                else column += Integer.signum(spaceColumn - column);
+                int square = row * BitBoard.COLUMNS + column;
+                if (square == spaceSquare) break;
+                if (square < 64) path[0] |= 1L << square;
+                else path[1] |= 1L << (square - 64);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Gets which squares of a path have a die on them.
+     */
+    private static long occupied(BitBoard bits, long[] path) {
+        return (bits.getOccupiedLow() & path[0]) | (bits.getOccupiedHigh() & path[1]);
+    }
+
+    /**
+     * Finds a player's key die by looking at every square.
+     */
+    private static int findKeyDie(BitBoard bits, char playerType) {
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            if (bits.isPlayerType(square, playerType) && bits.getOrientation(square) == Die.KEY_ORIENTATION) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Works out who has won by looking at every square.
+     */
+    private static int winConditionOf(BitBoard bits) {
+        if (bits.isPlayerType(BitBoard.HUMAN_KEY_SPACE, 'C')) return BitBoard.COMPUTER_ON_KEY_SPACE;
+        if (bits.isPlayerType(BitBoard.COMPUTER_KEY_SPACE, 'H')) return BitBoard.HUMAN_ON_KEY_SPACE;
+        boolean humanKeyDie = findKeyDie(bits, 'H') != -1;
+        boolean computerKeyDie = findKeyDie(bits, 'C') != -1;
+        if (humanKeyDie && !computerKeyDie) return BitBoard.COMPUTER_KEY_DIE_CAPTURED;
+        if (!humanKeyDie && computerKeyDie) return BitBoard.HUMAN_KEY_DIE_CAPTURED;
+        return BitBoard.NO_WINNER;
+    }
+
+    /**
+     * Describes every die on a board, both as the board's dice and as its bitboard, along with the player to move.
+     */
+    private static String snapshot(Board board) {
+        BitBoard bits = board.getBitBoard();
+        StringBuilder text = new StringBuilder();
+        text.append(bits.getSideToMove());
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            int row = BitBoard.rowOf(square);
+            int column = BitBoard.columnOf(square);
+            text.append(' ').append(board.isDieOn(row, column) ? board.getDieName(row, column) : "-");
+            // An empty square's orientation means nothing, so only the dice are compared.
+            if (bits.isOccupied(square)) {
+                text.append('/').append(bits.getPlayerType(square)).append(bits.getOrientation(square));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Checks the board's attack map against one built from scratch.
+     */
+    private static void assertSameAttacks(Board board) {
+        AttackMap updated = board.getAttackMap();
+        AttackMap rebuilt = new AttackMap();
+        rebuilt.reset(new BitBoard(board.getBitBoard()));
+        for (int player = 0; player < 2; player++) {
+            assertEquals(rebuilt.getAttackLow(player), updated.getAttackLow(player));
+            assertEquals(rebuilt.getAttackHigh(player), updated.getAttackHigh(player));
+        }
+        for (int dieSquare = 0; dieSquare < BitBoard.SQUARES; dieSquare++) {
+            for (int spaceSquare = 0; spaceSquare < BitBoard.SQUARES; spaceSquare++) {
+                assertEquals(rebuilt.canReach(dieSquare, spaceSquare), updated.canReach(dieSquare, spaceSquare));
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package leier.bryan.duell.model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes self-play games as game records and reads them back.
+ */
+public class GameRecordTest {
+    @Test
+    public void recordedGames_readBackAndReplayToTheirResult() throws Exception {
+        List<GameRecord> games = SelfPlayGames.play(42, 3);
+        StringWriter text = new StringWriter();
+        GameRecordWriter writer = new GameRecordWriter(text);
+        for (GameRecord game : games) writer.write(game);
+        writer.flush();
+
+        GameRecordReader reader = new GameRecordReader(new StringReader(text.toString()));
+        for (GameRecord game : games) {
+            GameRecord record = reader.read();
+            assertEquals(game.getResult(), record.getResult());
+            assertEquals(Computer.STRATEGY_HEURISTIC, record.getTag("Human"));
+            assertEquals(Computer.STRATEGY_HEURISTIC, record.getTag("Computer"));
+            assertEquals(game.getMoveCount(), record.getMoveCount());
+            // Every move was chosen by a computer, so each one gives its strategy.
+            for (int move = 0; move < record.getMoveCount(); move++) {
+                assertEquals(game.getMove(move), record.getMove(move));
+                assertTrue(record.getStrategy(move) != null);
+            }
+            assertEquals(game.getResult(), record.getBoardAfter(record.getMoveCount()).checkWinCondition());
+        }
+        assertNull(reader.read());
+    }
+
+    @Test
+    public void malformedRecord_isRejectedAtItsLine() throws Exception {
+        String[][] records = {
+                {"[FirstPlayer \"Human\"]\n[Human search]\n\n1. 15-36f 1-0\n", "Line 2"},
+                {"[FirstPlayer \"Nobody\"]\n\n*\n", "Line 2"},
+                {"[FirstPlayer \"Human\"]\n\n1. 15-3Xf *\n", "Line 3"},
+                {"[FirstPlayer \"Human\"]\n\n1. 15-36f 1-0\n", "Line 3"},
+                {"[FirstPlayer \"Human\"]\n[Setup \"9/9/9\"]\n\n*\n", "Line 3"},
+                {"[FirstPlayer \"Human\"]\n\n1. 15-36f {search\n", "Line 3"},
+                {"[FirstPlayer \"Human\"]\n\n1. 15-36f\n", "Line 3"},
+        };
+        for (String[] record : records) {
+            try {
+                new GameRecordReader(new StringReader(record[0])).read();
+                fail("A malformed record was read: " + record[0]);
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().startsWith(record[1] + ":"));
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package leier.bryan.duell.model;
+
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Saves and resumes games through a storage in memory, without any Android classes.
+ */
+public class GameStorageTest {
+    @Test
+    public void savedGame_resumesTheSamePosition() throws Exception {
+        MemoryGameStorage storage = new MemoryGameStorage();
+        Game game = new Game(storage);
+        game.setUpGame();
+        // Toss again until one player goes first.
+        while (game.getCurrentPlayer().isEmpty()) game.determineFirstMove();
+        game.doComputerTurn();
+        game.saveFile("test");
+
+        Game resumed = new Game(storage);
+        resumed.resumeGame("test");
+        assertEquals(game.getCurrentPlayer(), resumed.getCurrentPlayer());
+        for (int row = 1; row <= 8; row++) {
+            for (int column = 1; column <= 9; column++) {
+                assertEquals(game.getDieNameOnSpace(row, column), resumed.getDieNameOnSpace(row, column));
+            }
+        }
+    }
+
+    @Test
+    public void invalidFile_isNotResumed() throws Exception {
+        MemoryGameStorage storage = new MemoryGameStorage();
+        OutputStream output = storage.openOutput("broken.txt");
+        output.write("Board:\nnot a board\n".getBytes("UTF-8"));
+        output.close();
+
+        try {
+            new Game(storage).resumeGame("broken");
+            fail("A broken file was resumed");
+        } catch (InvalidSaveException expected) {
+        }
+        try {
+            new Game(storage).resumeGame("missing");
+            fail("A missing file was resumed");
+        } catch (FileNotFoundException expected) {
+        }
+    }
+
+    @Test
+    public void exportedGame_resumesWithoutABinaryFile() throws Exception {
+        MemoryGameStorage storage = new MemoryGameStorage();
+        Game game = new Game(storage);
+        game.setUpGame();
+        while (game.getCurrentPlayer().isEmpty()) game.determineFirstMove();
+        game.exportFile("exported");
+        assertNull(storage.get("exported.duell"));
+
+        Game resumed = new Game(storage);
+        resumed.resumeGame("exported");
+        assertEquals(game.getCurrentPlayer(), resumed.getCurrentPlayer());
+        assertEquals("H11", resumed.getDieNameOnSpace(1, 5));
+    }
+
+    @Test
+    public void corruptBinaryFile_isNotResumed() throws Exception {
+        MemoryGameStorage storage = new MemoryGameStorage();
+        Game game = new Game(storage);
+        game.setUpGame();
+        while (game.getCurrentPlayer().isEmpty()) game.determineFirstMove();
+        game.saveFile("saved");
+        byte[] bytes = storage.get("saved.duell");
+        assertEquals(SavedGame.BINARY_SIZE, bytes.length);
+
+        bytes[10] ^= 1;
+        storage.put("saved.duell", bytes);
+        try {
+            new Game(storage).resumeGame("saved");
+            fail("A corrupt file was resumed");
+        } catch (InvalidSaveException expected) {
+        }
+    }
+
+    @Test
+    public void journaledGame_resumesAfterTheLastWholeMove() throws Exception {
+        MemoryGameStorage storage = new MemoryGameStorage();
+        Game game = new Game(storage);
+        game.setUpGame();
+        // Toss again until the computer goes first.
+        while (!game.getCurrentPlayer().equals("Computer")) game.determineFirstMove();
+        // Nothing is written until the journal's executor runs, and then everything is written in order.
+        final List<Runnable> writes = new ArrayList<Runnable>();
+        game.setJournalExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                writes.add(command);
+            }
+        });
+        game.startJournal("journal");
+        assertNull(storage.get("journal"));
+        writes.remove(0).run();
+        int started = storage.get("journal").length;
+        game.doComputerTurn();
+        game.switchPlayers();
+        assertEquals(started, storage.get("journal").length);
+        writes.remove(0).run();
+        byte[] bytes = storage.get("journal");
+        assertEquals(started + MoveJournal.MOVE_RECORD_SIZE, bytes.length);
+
+        Game resumed = new Game(storage);
+        resumed.resumeJournal("journal");
+        assertEquals("Human", resumed.getCurrentPlayer());
+        for (int row = 1; row <= 8; row++) {
+            for (int column = 1; column <= 9; column++) {
+                assertEquals(game.getDieNameOnSpace(row, column), resumed.getDieNameOnSpace(row, column));
+            }
+        }
+
+        // A move that was cut short by a kill is dropped, leaving the game as it was before it.
+        storage.put("journal", Arrays.copyOf(bytes, bytes.length - 1));
+        Game truncated = new Game(storage);
+        truncated.resumeJournal("journal");
+        assertEquals("Computer", truncated.getCurrentPlayer());
+    }
+
+    @Test
+    public void persistence_savesAndResumesThroughCallbacks() throws Exception {
+        MemoryGameStorage storage = new MemoryGameStorage();
+        Game game = new Game(storage);
+        game.setUpGame();
+        while (game.getCurrentPlayer().isEmpty()) game.determineFirstMove();
+        // Run the storage work and the callbacks straight away, so the results are known when each request returns.
+        Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        final IOException[] failures = new IOException[2];
+        new GamePersistence(game, direct, direct).saveGame("saved", new GamePersistence.Callback() {
+            @Override
+            public void onSuccess() {
+            }
+
+            @Override
+            public void onFailure(IOException exception) {
+                failures[0] = exception;
+            }
+        });
+        assertNull(failures[0]);
+        assertNotNull(storage.get("saved.duell"));
+
+        Game resumed = new Game(storage);
+        new GamePersistence(resumed, direct, direct).resumeGame("missing", new GamePersistence.Callback() {
+            @Override
+            public void onSuccess() {
+                fail("A missing file was resumed");
+            }
+
+            @Override
+            public void onFailure(IOException exception) {
+                failures[1] = exception;
+            }
+        });
+        assertTrue(failures[1] instanceof FileNotFoundException);
+        assertEquals("", resumed.getCurrentPlayer());
+    }
+}
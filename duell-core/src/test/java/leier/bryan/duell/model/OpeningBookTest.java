@@ -0,0 +1,89 @@
+package leier.bryan.duell.model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Builds an opening book by playing games out from the new game setup and plays the computer's opening from it.
+ */
+public class OpeningBookTest {
+    @Test
+    public void firstMove_comesFromTheBookAndIsRepeatedWithTheSameSeed() throws Exception {
+        OpeningBookBuilder builder = new OpeningBookBuilder(2, 2, 4, 11);
+        assertTrue(builder.build() > 0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int entries = builder.write(bytes);
+        assertEquals(OpeningBook.HEADER_SIZE + entries * OpeningBook.ENTRY_SIZE, bytes.size());
+        OpeningBook book = new OpeningBook(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(entries, book.size());
+
+        Board board = SelfPlayGames.computerToMove();
+        int[] moves = new int[2];
+        for (int i = 0; i < moves.length; i++) {
+            Computer computer = SelfPlayGames.searchingComputer();
+            computer.setOpeningBook(book);
+            moves[i] = SelfPlayGames.assertChosenBy("book", computer, board);
+        }
+        assertEquals(moves[0], moves[1]);
+    }
+
+    @Test
+    public void damagedOrUnsortedBook_isNotRead() throws Exception {
+        Board board = SelfPlayGames.computerToMove();
+        int move = SelfPlayGames.legalMoves(board).get(0);
+        long key = board.getHash();
+        byte[] bytes = bookOf(new long[] {key, key + 1}, move);
+        assertEquals(2, new OpeningBook(new ByteArrayInputStream(bytes)).size());
+
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] = 'X';
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[7]++;
+        byte[][] damaged = {wrongMagic, wrongVersion, Arrays.copyOf(bytes, bytes.length - 1),
+                bookOf(new long[] {key + 1, key}, move)};
+        for (byte[] book : damaged) {
+            try {
+                new OpeningBook(new ByteArrayInputStream(book));
+                fail("A damaged book was read");
+            } catch (IOException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void sharedKeyWithAnIllegalMove_isSearchedInstead() throws Exception {
+        // A position from another game that shares this one's key has a book move that cannot be made here.
+        Board board = SelfPlayGames.computerToMove();
+        byte[] bytes = bookOf(new long[] {board.getHash()}, SelfPlayGames.illegalMove(board));
+        OpeningBook book = new OpeningBook(new ByteArrayInputStream(bytes));
+        assertEquals(0, book.find(board.getHash()));
+
+        Computer computer = SelfPlayGames.searchingComputer();
+        computer.setOpeningBook(book);
+        SelfPlayGames.assertChosenBy(Computer.STRATEGY_SEARCH, computer, board);
+    }
+
+    /**
+     * Writes a book by hand, so it can hold anything, with the same move and weight for every key in the order given.
+     */
+    private static byte[] bookOf(long[] keys, int move) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.write(OpeningBook.MAGIC);
+        data.writeInt(OpeningBook.VERSION);
+        data.writeInt(keys.length);
+        for (long key : keys) {
+            data.writeLong(key);
+            data.writeShort(move);
+            data.writeShort(1);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,47 @@
+package leier.bryan.duell.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Starts and stops the computer's pondering the way the game does on the UI thread.
+ */
+public class PonderTest {
+    @Test(timeout = 10000)
+    public void ponderStoppedStraightAway_doesNotBlock() throws Exception {
+        Board board = new Board();
+        board.newGameSetUp();
+        // The ponder thread is usually still starting when it is stopped, which must not lose the stop.
+        for (int i = 0; i < 50; i++) {
+            Computer computer = new Computer('C');
+            computer.setStrategy(Computer.STRATEGY_SEARCH);
+            computer.startPondering(board);
+            computer.stopPondering();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void predictedHumanMove_isRepliedToWithoutSearchingAgain() throws Exception {
+        Board board = new Board();
+        board.newGameSetUp();
+        Computer computer = new Computer('C');
+        computer.setStrategy(Computer.STRATEGY_SEARCH);
+        computer.setTimeLimit(1000);
+        // The human takes longer than the computer's time limit to move.
+        computer.startPondering(board);
+        Thread.sleep(2000);
+        computer.stopPondering();
+        int predicted = computer.getPredictedMove();
+        assertTrue(predicted != Move.NONE);
+
+        board.applyMove(predicted, null);
+        long start = System.currentTimeMillis();
+        int move = computer.chooseMove(board);
+        assertTrue(System.currentTimeMillis() - start < 500);
+        assertEquals("search", computer.getChosenStrategy());
+        MoveList legal = new MoveList();
+        MoveGenerator.generateMoves(board.getBitBoard(), 'C', legal);
+        assertTrue(legal.contains(move));
+    }
+}
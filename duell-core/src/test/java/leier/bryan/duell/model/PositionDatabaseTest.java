@@ -0,0 +1,121 @@
+package leier.bryan.duell.model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Builds a position database from self-play games and looks moves up in it.
+ */
+public class PositionDatabaseTest {
+    @Test
+    public void openingPosition_isLookedUpInsteadOfSearched() throws Exception {
+        PositionDatabaseBuilder builder = new PositionDatabaseBuilder(4, 1);
+        for (GameRecord game : SelfPlayGames.play(7, 50)) builder.addGame(game);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int positions = builder.write(bytes);
+        assertEquals(PositionDatabase.HEADER_SIZE + positions * PositionDatabase.RECORD_SIZE, bytes.size());
+        PositionDatabase database = new PositionDatabase(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(positions, database.size());
+
+        // Both players have moved first from the usual setup, so the computer's first move is in the database.
+        Board board = SelfPlayGames.computerToMove();
+        assertTrue(database.find(board.getHash()) != -1);
+        Computer computer = SelfPlayGames.searchingComputer();
+        computer.setPositionDatabase(database);
+        SelfPlayGames.assertChosenBy("database", computer, board);
+    }
+
+    @Test
+    public void moveThatNeverWon_isLeftForTheComputerToThinkAbout() throws Exception {
+        Board board = SelfPlayGames.computerToMove();
+        int move = SelfPlayGames.legalMoves(board).get(0);
+        // The computer's first move drew one game and lost two, so it is no better than an even game.
+        PositionDatabaseBuilder builder = new PositionDatabaseBuilder(1, 1);
+        addGames(builder, board, move, BitBoard.COMPUTER_KEY_DIE_CAPTURED, BitBoard.HUMAN_ON_KEY_SPACE,
+                GameRecord.DRAW);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        assertEquals(0, builder.write(bytes));
+
+        // It is kept once it has won more than it lost, or if the builder is told to keep any move that scored.
+        builder.setMinScore(0);
+        bytes.reset();
+        assertEquals(1, builder.write(bytes));
+        builder.setMinScore(PositionDatabaseBuilder.DEFAULT_MIN_SCORE);
+        addGames(builder, board, move, BitBoard.COMPUTER_ON_KEY_SPACE, BitBoard.COMPUTER_ON_KEY_SPACE,
+                BitBoard.HUMAN_KEY_DIE_CAPTURED);
+        bytes.reset();
+        assertEquals(1, builder.write(bytes));
+        PositionDatabase database = new PositionDatabase(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(move, database.findMove(board.getBitBoard()));
+    }
+
+    @Test
+    public void damagedDatabase_isNotOpened() throws Exception {
+        Board board = SelfPlayGames.computerToMove();
+        byte[] bytes = databaseOf(board.getHash(), SelfPlayGames.legalMoves(board).get(0));
+        new PositionDatabase(ByteBuffer.wrap(bytes));
+
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] = 'X';
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[7]++;
+        byte[][] damaged = {wrongMagic, wrongVersion, Arrays.copyOf(bytes, bytes.length - 1),
+                Arrays.copyOf(bytes, PositionDatabase.HEADER_SIZE - 1)};
+        for (byte[] database : damaged) {
+            try {
+                new PositionDatabase(ByteBuffer.wrap(database));
+                fail("A damaged database was opened");
+            } catch (IOException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void sharedKeyWithAnIllegalMove_isSearchedInstead() throws Exception {
+        // A position from another game that shares this one's key stored a move that cannot be made here.
+        Board board = SelfPlayGames.computerToMove();
+        byte[] bytes = databaseOf(board.getHash(), SelfPlayGames.illegalMove(board));
+        PositionDatabase database = new PositionDatabase(ByteBuffer.wrap(bytes));
+        assertEquals(Move.NONE, database.findMove(board.getBitBoard()));
+
+        Computer computer = SelfPlayGames.searchingComputer();
+        computer.setPositionDatabase(database);
+        SelfPlayGames.assertChosenBy(Computer.STRATEGY_SEARCH, computer, board);
+    }
+
+    /**
+     * Counts games that start with the same move, one for each result.
+     */
+    private static void addGames(PositionDatabaseBuilder builder, Board board, int move, int... results) {
+        for (int result : results) {
+            GameRecord record = new GameRecord(board, board.getSideToMove());
+            record.addMove(move, Computer.STRATEGY_HEURISTIC);
+            record.setResult(result);
+            builder.addGame(record);
+        }
+    }
+
+    /**
+     * Writes a database of one position by hand, so it can hold anything.
+     */
+    private static byte[] databaseOf(long key, int move) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.write(PositionDatabase.MAGIC);
+        data.writeInt(PositionDatabase.VERSION);
+        data.writeInt(1);
+        data.writeLong(key);
+        data.writeShort(move);
+        data.writeShort(10);
+        data.writeShort(10);
+        data.writeShort(0);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,84 @@
+package leier.bryan.duell.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * The games and positions shared by the tests of the game records, the position database and the opening book, which
+ * are all built from games played out between two heuristic computers.
+ */
+class SelfPlayGames {
+    /**
+     * Plays recorded games between two heuristic computers.
+     */
+    static List<GameRecord> play(long seed, int games) {
+        Simulator simulator = new Simulator(new Computer('H'), new Computer('C'), seed);
+        simulator.setRecording(true);
+        List<GameRecord> records = new ArrayList<GameRecord>();
+        for (int i = 0; i < games; i++) {
+            simulator.playGame();
+            records.add(simulator.getLastGameRecord());
+        }
+        return records;
+    }
+
+    /**
+     * Sets up a new game with the computer to move.
+     */
+    static Board computerToMove() {
+        Board board = new Board();
+        board.newGameSetUp();
+        board.setSideToMove('C');
+        return board;
+    }
+
+    /**
+     * Gets the moves the player to move can make.
+     */
+    static MoveList legalMoves(Board board) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateMoves(board.getBitBoard(), board.getSideToMove(), moves);
+        return moves;
+    }
+
+    /**
+     * Makes up a move for one of the dice of the player to move that it cannot make either way, as a stored move from a
+     * different position that shares this one's key would be.
+     */
+    static int illegalMove(Board board) {
+        BitBoard bits = board.getBitBoard();
+        MoveList legal = legalMoves(board);
+        for (int dieSquare = 0; dieSquare < BitBoard.SQUARES; dieSquare++) {
+            if (!bits.isPlayerType(dieSquare, board.getSideToMove())) continue;
+            for (int spaceSquare = 0; spaceSquare < BitBoard.SQUARES; spaceSquare++) {
+                if (spaceSquare == dieSquare) continue;
+                int move = Move.encode(dieSquare, spaceSquare, true);
+                if (!legal.contains(move) && !legal.contains(Move.withDirection(move, false))) return move;
+            }
+        }
+        throw new AssertionError("Every move is legal");
+    }
+
+    /**
+     * Creates a seeded computer that searches when it has nothing stored to play.
+     */
+    static Computer searchingComputer() {
+        Computer computer = new Computer('C');
+        computer.setStrategy(Computer.STRATEGY_SEARCH);
+        computer.setSeed(5);
+        computer.setTimeLimit(100);
+        return computer;
+    }
+
+    /**
+     * Has a computer choose a move, checking which strategy chose it and that it can be made.
+     */
+    static int assertChosenBy(String strategy, Computer computer, Board board) {
+        int move = computer.chooseMove(board);
+        assertEquals(strategy, computer.getChosenStrategy());
+        assertTrue(legalMoves(board).contains(move));
+        return move;
+    }
+}